@@ -4,6 +4,7 @@ plugins {
     id("com.gradleup.shadow") version "9.5.1"
     id("checkstyle")
     id("com.github.vlsi.gradle-extensions") version "3.0.2"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.github.vlsi.ksar"
@@ -76,6 +77,24 @@ val writeVersion by tasks.registering {
 
 sourceSets.main.get().resources.srcDir(writeVersion)
 
+// Compiles the bundled XML configuration into ksar-config.bin, so the startup reads one binary
+// file instead of SAX-parsing every OS file. See net.atomique.ksar.ConfigSnapshot.
+val configSnapshot by tasks.registering(JavaExec::class) {
+    val outDir = project.layout.buildDirectory.dir("generated/config")
+    val xmlDir = file("src/main/resources")
+    inputs.dir(xmlDir)
+    outputs.dir(outDir)
+    // the snapshot itself must not be on this classpath, only the XML files
+    classpath(sourceSets.main.get().output.classesDirs, xmlDir, configurations.runtimeClasspath)
+    mainClass.set("net.atomique.ksar.ConfigSnapshot")
+    // an empty home, so the ~/.ksarcfg of whoever builds is not compiled in
+    systemProperty("user.home", temporaryDir.absolutePath)
+    systemProperty("java.awt.headless", "true")
+    argumentProviders.add(CommandLineArgumentProvider { listOf(outDir.get().asFile.absolutePath) })
+}
+
+sourceSets.main.get().resources.srcDir(configSnapshot)
+
 checkstyle {
     config = project.resources.text.fromFile("src/main/checkstyle/ksar-checks.xml", "UTF-8")
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.ui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the regex-based natural order kSar used to have with {@link NaturalComparator} and
+ * {@link NaturalKey}, on device names as found in sar -d / -n DEV output.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NaturalComparatorBenchmark {
+
+  /**
+   * The former implementation, kept as the baseline.
+   */
+  static final class RegexNaturalComparator implements Comparator<String> {
+    private static final Pattern WORD_PATTERN = Pattern.compile("\\s*+([^0-9\\s]++|\\d++)");
+
+    @Override
+    public int compare(String a, String b) {
+      Matcher ma = WORD_PATTERN.matcher(a);
+      Matcher mb = WORD_PATTERN.matcher(b);
+      while (true) {
+        boolean findA = ma.find();
+        boolean findB = mb.find();
+        if (findA && !findB) {
+          return 1;
+        }
+        if (!findA) {
+          return findB ? -1 : 0;
+        }
+        String u = ma.group(1);
+        String v = mb.group(1);
+        if (Character.isDigit(u.charAt(0)) && Character.isDigit(v.charAt(0))) {
+          int res = Integer.compare(u.length(), v.length());
+          if (res != 0) {
+            return res;
+          }
+        }
+        int res = u.compareTo(v);
+        if (res != 0) {
+          return res;
+        }
+      }
+    }
+  }
+
+  private static final int DEVICES = 512;
+
+  private String[] names;
+  private NaturalKey[] keys;
+  private TreeMap<String, Integer> regexMap;
+  private TreeMap<String, Integer> scanMap;
+  private int next;
+
+  @Setup
+  public void setup() {
+    names = new String[DEVICES];
+    keys = new NaturalKey[DEVICES];
+    regexMap = new TreeMap<>(new RegexNaturalComparator());
+    scanMap = new TreeMap<>(NaturalComparator.INSTANCE);
+    for (int i = 0; i < DEVICES; i++) {
+      names[i] = i % 2 == 0 ? "dev8-" + i : "nvme" + (i / 8) + "n1p" + (i % 8);
+      keys[i] = new NaturalKey(names[i]);
+      regexMap.put(names[i], i);
+      scanMap.put(names[i], i);
+    }
+    // shuffle so that lookups are not in tree order
+    Random random = new Random(1);
+    for (int i = DEVICES - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      String t = names[i];
+      names[i] = names[j];
+      names[j] = t;
+      NaturalKey k = keys[i];
+      keys[i] = keys[j];
+      keys[j] = k;
+    }
+  }
+
+  private int nextIndex() {
+    next = (next + 1) & (DEVICES - 1);
+    return next;
+  }
+
+  @Benchmark
+  public int compareRegex() {
+    int i = nextIndex();
+    return new RegexNaturalComparator().compare(names[i], names[(i + 1) & (DEVICES - 1)]);
+  }
+
+  @Benchmark
+  public int compareScan() {
+    int i = nextIndex();
+    return NaturalComparator.INSTANCE.compare(names[i], names[(i + 1) & (DEVICES - 1)]);
+  }
+
+  @Benchmark
+  public int compareKey() {
+    int i = nextIndex();
+    return keys[i].compareTo(keys[(i + 1) & (DEVICES - 1)]);
+  }
+
+  @Benchmark
+  public Integer lookupRegex() {
+    return regexMap.get(names[nextIndex()]);
+  }
+
+  @Benchmark
+  public Integer lookupScan() {
+    return scanMap.get(names[nextIndex()]);
+  }
+}
@@ -5,6 +5,7 @@
 
 package net.atomique.ksar;
 
+import net.atomique.ksar.graph.Timeline;
 import net.atomique.ksar.xml.OSConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,17 +15,18 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.TreeSet;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public abstract class AllParser {
 
   private static final Logger log = LoggerFactory.getLogger(AllParser.class);
 
-  private static final List<DateTimeFormatter> DATE_FORMATS = Stream.of(
+  private static final List<String> DATE_PATTERNS = Arrays.asList(
       "MM dd, yy",
       "MM-dd-yy",
       "MM/dd/yy",
@@ -56,7 +58,10 @@ public abstract class AllParser {
       "dd MMMM yyyy",
       "MMM dd yyyy",
       "MMMM dd yyyy"
-  ).map(p -> DateTimeFormatter.ofPattern(p, Locale.US)).collect(Collectors.toList());
+  );
+
+  private static final List<DateTimeFormatter> DATE_FORMATS = DATE_PATTERNS.stream()
+      .map(p -> DateTimeFormatter.ofPattern(p, Locale.US)).collect(Collectors.toList());
 
   public AllParser() {
 
@@ -158,7 +163,7 @@ public abstract class AllParser {
     if ("Automatic Detection".equals(dateFormat)) {
       format = determineDateFormat(s);
     } else {
-      format = DateTimeFormatter.ofPattern(dateFormat);
+      format = DateTimeFormatter.ofPattern(dateFormat, Locale.US);
     }
     dateFormatter = format;
     return dateFormatter;
@@ -172,14 +177,29 @@ public abstract class AllParser {
     }
   }
 
-  public TreeSet<LocalDateTime> getDateSamples() {
-    return DateSamples;
+  /**
+   * Returns the timestamps shared by all graphs of this parse. Graphs add the times of their data
+   * lines as they store them; iterating gives the distinct times in ascending order.
+   */
+  public Timeline getTimeline() {
+    return timeline;
   }
 
   public String getCurrentStat() {
     return currentStat;
   }
 
+  /**
+   * Returns what was found out about the input before parsing it, see {@link DialectSniffer}.
+   */
+  public Dialect getDialect() {
+    return dialect;
+  }
+
+  public void setDialect(Dialect dialect) {
+    this.dialect = dialect;
+  }
+
   public static DateTimeFormatter determineDateFormat(String dateString) {
     // sar records the past, so when an ambiguous date matches several patterns, prefer the
     // latest interpretation that is not in the future. For example 31/12/23 matches both
@@ -212,13 +232,33 @@ public abstract class AllParser {
     return bestPast != null ? bestPast : best;
   }
 
+  /**
+   * Returns the pattern of a date that all known formats read the same way, or null if the
+   * date is ambiguous, e.g. 01/03/23, or not a date at all.
+   */
+  static String uniqueDatePattern(String dateString) {
+    Set<LocalDate> dates = new HashSet<>();
+    String pattern = null;
+    for (int i = 0; i < DATE_FORMATS.size(); i++) {
+      try {
+        dates.add(LocalDate.parse(dateString, DATE_FORMATS.get(i)));
+        if (pattern == null) {
+          pattern = DATE_PATTERNS.get(i);
+        }
+      } catch (DateTimeParseException e) {
+        /* ignore */
+      }
+    }
+    return dates.size() == 1 ? pattern : null;
+  }
+
   protected String sarStartDate = null;
   protected String sarEndDate = null;
 
   private LocalDateTime startOfGraph = null;
   private LocalDateTime endOfGraph = null;
 
-  protected TreeSet<LocalDateTime> DateSamples = new TreeSet<LocalDateTime>();
+  protected final Timeline timeline = new Timeline();
   protected int firstdatacolumn = 0;
 
   abstract public String getInfo();
@@ -247,4 +287,5 @@ public abstract class AllParser {
   protected int timeColumn = 1;
 
   private DateTimeFormatter dateFormatter;
+  private Dialect dialect = Dialect.UNKNOWN;
 }
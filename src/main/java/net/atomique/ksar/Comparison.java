@@ -0,0 +1,279 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import net.atomique.ksar.graph.ColumnStore;
+import net.atomique.ksar.graph.Decimator;
+import net.atomique.ksar.graph.Graph;
+import net.atomique.ksar.graph.StoreDataset;
+import net.atomique.ksar.ui.SortedTreeNode;
+import net.atomique.ksar.ui.TreeNodeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import javax.swing.JFileChooser;
+
+/**
+ * Sar files of several hosts loaded side by side, to look at one metric across all of them.
+ *
+ * <p>Files are parsed concurrently, each into its own {@link kSar} without a window. A metric is
+ * a column of a graph, e.g. {@code %idle} of {@code CPU all}; {@link #getDatasets} returns it
+ * for every host, decimated to the width it is drawn at by {@link Decimator}, so a chart of
+ * hundreds of hosts over months holds a few thousand points per host.
+ */
+public class Comparison {
+
+  private static final Logger log = LoggerFactory.getLogger(Comparison.class);
+
+  public Comparison(java.util.List<kSar> hosts, java.util.List<String> names) {
+    this.hosts = new ArrayList<>(hosts);
+    this.names = new ArrayList<>(names);
+    for (kSar host : this.hosts) {
+      Map<String, Graph> graphs = new HashMap<>();
+      index_treenode(host.graphtree, graphs);
+      index.add(graphs);
+    }
+  }
+
+  /**
+   * Asks for sar files, e.g. those to compare; empty when cancelled.
+   */
+  public static java.util.List<String> askFiles(String approve) {
+    java.util.List<String> files = new ArrayList<>();
+    JFileChooser fc = new JFileChooser();
+    fc.setMultiSelectionEnabled(true);
+    if (Config.getLastReadDirectory() != null) {
+      fc.setCurrentDirectory(Config.getLastReadDirectory());
+    }
+    int returnVal = fc.showDialog(GlobalOptions.getUI(), approve);
+    if (returnVal == JFileChooser.APPROVE_OPTION) {
+      for (File file : fc.getSelectedFiles()) {
+        if (file.isFile()) {
+          files.add(file.getAbsolutePath());
+        }
+      }
+      if (!files.isEmpty()) {
+        Config.setLastReadDirectory(new File(files.get(0)).getParentFile());
+        Config.save();
+      }
+    }
+    return files;
+  }
+
+  /**
+   * Parses the given files concurrently. Files that cannot be read or parsed are left out.
+   */
+  public static Comparison load(java.util.List<String> files) {
+    java.util.List<Future<kSar>> parsed = new ArrayList<>();
+    for (String file : files) {
+      parsed.add(Workers.io().submit(() -> {
+        kSar host = new kSar();
+        new FileRead(host, file).run();
+        return host;
+      }));
+    }
+
+    ArrayList<kSar> hosts = new ArrayList<>();
+    ArrayList<String> names = new ArrayList<>();
+    ArrayList<String> sources = new ArrayList<>();
+    for (int i = 0; i < files.size(); i++) {
+      String file = files.get(i);
+      try {
+        kSar host = parsed.get(i).get();
+        if (host.myparser == null) {
+          log.warn("no sar data in {}", file);
+          continue;
+        }
+        hosts.add(host);
+        String name = host.myparser.gethostName();
+        names.add(name != null ? name : new File(file).getName());
+        sources.add(new File(file).getName());
+      } catch (ExecutionException ex) {
+        log.error("Unable to load {}", file, ex.getCause());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+
+    // several days of the same host are told apart by their file
+    for (int i = 0; i < names.size(); i++) {
+      if (names.indexOf(names.get(i)) != names.lastIndexOf(names.get(i))) {
+        String name = names.get(i);
+        for (int j = i; j < names.size(); j++) {
+          if (name.equals(names.get(j))) {
+            names.set(j, name + " (" + sources.get(j) + ")");
+          }
+        }
+      }
+    }
+    return new Comparison(hosts, names);
+  }
+
+  private static void index_treenode(SortedTreeNode node, Map<String, Graph> graphs) {
+    int num = node.getChildCount();
+    if (num > 0) {
+      for (int i = 0; i < num; i++) {
+        index_treenode((SortedTreeNode) node.getChildAt(i), graphs);
+      }
+    } else {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof TreeNodeInfo) {
+        Graph graph = ((TreeNodeInfo) obj1).getNode_object();
+        graphs.put(graph.getTitle(), graph);
+      }
+    }
+  }
+
+  public int size() {
+    return hosts.size();
+  }
+
+  public String getHostName(int host) {
+    return names.get(host);
+  }
+
+  public kSar getHost(int host) {
+    return hosts.get(host);
+  }
+
+  /**
+   * Returns the metrics of all hosts, in tree order of the first host that has them.
+   */
+  public java.util.List<Metric> getMetrics() {
+    Set<Metric> metrics = new LinkedHashSet<>();
+    for (kSar host : hosts) {
+      collect_treenode(host.graphtree, metrics);
+    }
+    return Collections.unmodifiableList(new ArrayList<>(metrics));
+  }
+
+  private static void collect_treenode(SortedTreeNode node, Set<Metric> metrics) {
+    int num = node.getChildCount();
+    if (num > 0) {
+      for (int i = 0; i < num; i++) {
+        collect_treenode((SortedTreeNode) node.getChildAt(i), metrics);
+      }
+    } else {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof TreeNodeInfo) {
+        Graph graph = ((TreeNodeInfo) obj1).getNode_object();
+        ColumnStore store = graph.getStore();
+        for (int c = 0; c < store.getColumnCount(); c++) {
+          metrics.add(new Metric(graph.getTitle(), store.getColumnName(c)));
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns one dataset per host with the samples of a metric, no more than two per bucket, the
+   * series named after the host. Hosts without the metric get null.
+   *
+   * <p>Hosts are decimated in parallel on {@link Workers#compute()}, so this must not be called
+   * from one of its threads.
+   */
+  public StoreDataset[] getDatasets(Metric metric, int buckets) throws InterruptedException {
+    java.util.List<Callable<StoreDataset>> tasks = new ArrayList<>();
+    for (int i = 0; i < hosts.size(); i++) {
+      int host = i;
+      tasks.add(() -> dataset(host, metric, buckets));
+    }
+    java.util.List<Future<StoreDataset>> done = Workers.compute().invokeAll(tasks);
+    StoreDataset[] datasets = new StoreDataset[done.size()];
+    for (int i = 0; i < datasets.length; i++) {
+      try {
+        datasets[i] = done.get(i).get();
+      } catch (ExecutionException ex) {
+        log.error("Unable to read {} of {}", metric, names.get(i), ex.getCause());
+      }
+    }
+    return datasets;
+  }
+
+  private StoreDataset dataset(int host, Metric metric, int buckets) {
+    Graph graph = index.get(host).get(metric.getGraph());
+    if (graph == null) {
+      return null;
+    }
+    ColumnStore store = Decimator.decimate(graph.getStore(), buckets);
+    int column = store.indexOf(metric.getColumn());
+    if (column < 0) {
+      return null;
+    }
+    return new StoreDataset(store, new int[]{column}, new String[]{names.get(host)});
+  }
+
+  /**
+   * A column of a graph, looked up by graph title so that devices of a
+   * {@link net.atomique.ksar.graph.List} are metrics of their own.
+   */
+  public static final class Metric {
+
+    public Metric(String graph, String column) {
+      this.graph = graph;
+      this.column = column;
+    }
+
+    public String getGraph() {
+      return graph;
+    }
+
+    public String getColumn() {
+      return column;
+    }
+
+    /**
+     * Reads a metric as written by {@link #toString()}, the column being the last word; null
+     * if there is a single word.
+     */
+    public static Metric parse(String s) {
+      String metric = s.trim();
+      int space = metric.lastIndexOf(' ');
+      if (space < 0) {
+        return null;
+      }
+      return new Metric(metric.substring(0, space).trim(), metric.substring(space + 1));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Metric)) {
+        return false;
+      }
+      Metric other = (Metric) o;
+      return graph.equals(other.graph) && column.equals(other.column);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(graph, column);
+    }
+
+    @Override
+    public String toString() {
+      return graph + " " + column;
+    }
+
+    private final String graph;
+    private final String column;
+  }
+
+  private final ArrayList<kSar> hosts;
+  private final ArrayList<String> names;
+  private final ArrayList<Map<String, Graph>> index = new ArrayList<>();
+}
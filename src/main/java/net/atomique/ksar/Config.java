@@ -62,6 +62,8 @@ public class Config {
     setImageWidth(myPref.getInt("ImageWidth", 800));
     setPDFPageFormat(myPref.get("PDFPageFormat", "A4"));
     setLinuxDateFormat(myPref.get("LinuxDateFormat", "Always ask"));
+    setExportResolution(myPref.getInt("ExportResolution", 0));
+    setPDFResolution(myPref.getInt("PDFResolution", 300));
 
     setNumber_host_history(myPref.getInt("HostHistory", 0));
     for (int i = 0; i < getNumber_host_history(); i++) {
@@ -86,6 +88,8 @@ public class Config {
     myPref.putInt("ImageWidth", ImageWidth);
     myPref.put("PDFPageFormat", PDFPageFormat);
     myPref.put("LinuxDateFormat", LinuxDateFormat);
+    myPref.putInt("ExportResolution", ExportResolution);
+    myPref.putInt("PDFResolution", PDFResolution);
 
     for (int i = 0; i < host_history.size(); i++) {
       myPref.put("HostHistory_" + i, host_history.get(i));
@@ -184,6 +188,28 @@ public class Config {
     Config.PDFPageFormat = PDFPageFormat;
   }
 
+  /**
+   * Bucket width in seconds that exports roll samples up to; 0 exports the raw samples.
+   */
+  public static int getExportResolution() {
+    return ExportResolution;
+  }
+
+  public static void setExportResolution(int ExportResolution) {
+    Config.ExportResolution = Math.max(0, ExportResolution);
+  }
+
+  /**
+   * Dots per inch that PDF charts keep samples for, two per dot; 0 draws every sample.
+   */
+  public static int getPDFResolution() {
+    return PDFResolution;
+  }
+
+  public static void setPDFResolution(int PDFResolution) {
+    Config.PDFResolution = Math.max(0, PDFResolution);
+  }
+
 
   private static int store_configdir() {
     Properties systemprops = System.getProperties();
@@ -241,5 +267,7 @@ public class Config {
   private static String PDFPageFormat;
   private static int ImageWidth;
   private static int ImageHeight;
+  private static int ExportResolution;
+  private static int PDFResolution;
 
 }
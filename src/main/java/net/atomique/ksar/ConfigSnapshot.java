@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import net.atomique.ksar.xml.ColumnConfig;
+import net.atomique.ksar.xml.GraphConfig;
+import net.atomique.ksar.xml.OSConfig;
+import net.atomique.ksar.xml.PlotStackConfig;
+import net.atomique.ksar.xml.StatConfig;
+import org.jfree.data.Range;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The bundled XML configuration, compiled at build time into a binary file that is read at
+ * startup instead of SAX-parsing {@code Config.xml} and every OS file.
+ *
+ * <p>The snapshot lists the resources it was made of. A resource missing from it, e.g. the
+ * configuration of a parser from another jar, is still read from XML, and so are the user files
+ * in {@code ~/.ksarcfg}, which are merged on top as before. Without the snapshot, e.g. when run
+ * from an IDE, everything is read from XML.
+ */
+public final class ConfigSnapshot {
+
+  private static final Logger log = LoggerFactory.getLogger(ConfigSnapshot.class);
+
+  static final String RESOURCE = "/ksar-config.bin";
+
+  private static final int MAGIC = 0x6b534152;
+  private static final int VERSION = 2;
+
+  private ConfigSnapshot() {
+  }
+
+  /**
+   * Writes the configuration loaded from the bundled XML files. Run by the build with the
+   * output directory as argument, and with a user home that holds no {@code .ksarcfg}.
+   */
+  public static void main(String[] args) throws IOException {
+    if (GlobalOptions.isConfigSnapshotLoaded()) {
+      throw new IllegalStateException(RESOURCE + " must not be on the classpath of the build");
+    }
+    List<String> resources = new ArrayList<>();
+    resources.add("/Config.xml");
+    for (ParserFactory factory : GlobalOptions.getParserFactories()) {
+      resources.add(factory.getConfigResource());
+    }
+    File file = new File(args[0], RESOURCE.substring(1));
+    file.getParentFile().mkdirs();
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+      write(out, resources, GlobalOptions.getColorlist(), GlobalOptions.getOSlist());
+    }
+    log.info("wrote {} colors and {} OS to {}", GlobalOptions.getColorlist().size(),
+        GlobalOptions.getOSlist().size(), file);
+  }
+
+  static void write(OutputStream stream, Collection<String> resources,
+      Map<String, ColumnConfig> colors, Map<String, OSConfig> oslist) throws IOException {
+    DataOutputStream out = new DataOutputStream(stream);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(resources.size());
+    for (String resource : resources) {
+      out.writeUTF(resource);
+    }
+    out.writeInt(colors.size());
+    for (ColumnConfig color : colors.values()) {
+      out.writeUTF(color.getData_title());
+      Color c = color.getData_color();
+      out.writeBoolean(c != null);
+      if (c != null) {
+        out.writeInt(c.getRGB());
+      }
+      out.writeByte(color.getType());
+    }
+    out.writeInt(oslist.size());
+    for (OSConfig os : oslist.values()) {
+      out.writeUTF(os.getOsName());
+      out.writeInt(os.getStatHash().size());
+      for (StatConfig stat : os.getStatHash().values()) {
+        out.writeUTF(stat.getStatName());
+        writeString(out, stat.getGraphName());
+        writeString(out, stat.getHeaderStr());
+        out.writeBoolean(stat.canDuplicateTime());
+      }
+      out.writeInt(os.getGraphHash().size());
+      for (GraphConfig graph : os.getGraphHash().values()) {
+        writeString(out, graph.getName());
+        writeString(out, graph.getTitle());
+        writeString(out, graph.getType());
+        writePlots(out, graph.getPlotlist().values());
+        writePlots(out, graph.getStacklist().values());
+        out.writeInt(graph.getDerivedlist().size());
+        for (Map.Entry<String, String> derived : graph.getDerivedlist().entrySet()) {
+          out.writeUTF(derived.getKey());
+          out.writeUTF(derived.getValue());
+        }
+      }
+    }
+    out.flush();
+  }
+
+  private static void writePlots(DataOutputStream out, Collection<PlotStackConfig> plots)
+      throws IOException {
+    out.writeInt(plots.size());
+    for (PlotStackConfig plot : plots) {
+      writeString(out, plot.getTitle());
+      writeString(out, plot.getHeaderStr());
+      out.writeInt(plot.getSize());
+      out.writeInt(plot.getBase());
+      out.writeDouble(plot.getFactor());
+      Range range = plot.getRange();
+      out.writeBoolean(range != null);
+      if (range != null) {
+        out.writeDouble(range.getLowerBound());
+        out.writeDouble(range.getUpperBound());
+      }
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    out.writeBoolean(s != null);
+    if (s != null) {
+      out.writeUTF(s);
+    }
+  }
+
+  /**
+   * Loads the snapshot bundled with kSar into the given maps.
+   *
+   * @return the resources the snapshot was made of, empty if there is no usable snapshot
+   */
+  static Set<String> load(Map<String, ColumnConfig> colors, Map<String, OSConfig> oslist) {
+    try (InputStream is = ConfigSnapshot.class.getResourceAsStream(RESOURCE)) {
+      if (is == null) {
+        log.debug("no {}, the configuration is read from XML", RESOURCE);
+        return new HashSet<>();
+      }
+      return read(is.readAllBytes(), colors, oslist);
+    } catch (IOException ex) {
+      log.warn("unable to read {}, the configuration is read from XML", RESOURCE, ex);
+      return new HashSet<>();
+    }
+  }
+
+  /**
+   * Reads a snapshot. The maps are left untouched when it is not valid.
+   */
+  static Set<String> read(byte[] bytes, Map<String, ColumnConfig> colors,
+      Map<String, OSConfig> oslist) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      log.warn("{} has an unknown format, the configuration is read from XML", RESOURCE);
+      return new HashSet<>();
+    }
+    Set<String> resources = new HashSet<>();
+    for (int i = in.readInt(); i > 0; i--) {
+      resources.add(in.readUTF());
+    }
+    Map<String, ColumnConfig> newColors = new HashMap<>();
+    for (int i = in.readInt(); i > 0; i--) {
+      ColumnConfig color = new ColumnConfig(in.readUTF());
+      if (in.readBoolean()) {
+        Color c = new Color(in.readInt());
+        color.setData_color(c.getRed() + "," + c.getGreen() + "," + c.getBlue());
+      }
+      color.setType(in.readByte());
+      newColors.put(color.getData_title(), color);
+    }
+    Map<String, OSConfig> newOslist = new HashMap<>();
+    for (int i = in.readInt(); i > 0; i--) {
+      OSConfig os = new OSConfig(in.readUTF());
+      for (int j = in.readInt(); j > 0; j--) {
+        StatConfig stat = new StatConfig(in.readUTF());
+        stat.setGraphName(readString(in));
+        stat.setHeaderStr(readString(in));
+        if (in.readBoolean()) {
+          stat.setDuplicateTime("yes");
+        }
+        os.addStat(stat);
+      }
+      for (int j = in.readInt(); j > 0; j--) {
+        GraphConfig graph = new GraphConfig(readString(in), readString(in), readString(in));
+        for (int k = in.readInt(); k > 0; k--) {
+          graph.addPlot(readPlot(in));
+        }
+        for (int k = in.readInt(); k > 0; k--) {
+          graph.addStack(readPlot(in));
+        }
+        for (int k = in.readInt(); k > 0; k--) {
+          graph.addDerived(in.readUTF(), in.readUTF());
+        }
+        os.addGraph(graph);
+      }
+      newOslist.put(os.getOsName(), os);
+    }
+    colors.putAll(newColors);
+    oslist.putAll(newOslist);
+    return resources;
+  }
+
+  private static PlotStackConfig readPlot(DataInputStream in) throws IOException {
+    PlotStackConfig plot = new PlotStackConfig(readString(in));
+    String headerStr = readString(in);
+    if (headerStr != null) {
+      plot.setHeaderStr(headerStr);
+    }
+    plot.setSize(in.readInt());
+    plot.setBase(Integer.toUnsignedString(in.readInt()));
+    plot.setFactor(Double.toString(in.readDouble()));
+    if (in.readBoolean()) {
+      plot.setRange(in.readDouble() + "," + in.readDouble());
+    }
+    return plot;
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import java.util.Locale;
+
+/**
+ * What {@link DialectSniffer} found out about sar output from its first lines. Every property
+ * may be unknown, parsers then fall back to their own detection.
+ */
+public final class Dialect {
+
+  public static final Dialect UNKNOWN = new Dialect(null, null, null, null, 0, (char) 0);
+
+  Dialect(ParserFactory factory, String release, Locale locale, String dateFormat,
+      int timeColumns, char decimalSeparator) {
+    this.factory = factory;
+    this.release = release;
+    this.locale = locale;
+    this.dateFormat = dateFormat;
+    this.timeColumns = timeColumns;
+    this.decimalSeparator = decimalSeparator;
+  }
+
+  /**
+   * Returns the parser of the output, or null.
+   */
+  public ParserFactory getFactory() {
+    return factory;
+  }
+
+  /**
+   * Returns the release printed after the OS name in the header, e.g. the Linux kernel version,
+   * or null.
+   */
+  public String getRelease() {
+    return release;
+  }
+
+  /**
+   * Returns the language of the messages, from words like {@code Average:} or
+   * {@code Moyenne :}, or null.
+   */
+  public Locale getLocale() {
+    return locale;
+  }
+
+  /**
+   * Returns the pattern of the header date, or null when the date can be read in several ways.
+   */
+  public String getDateFormat() {
+    return dateFormat;
+  }
+
+  /**
+   * Returns the number of columns taken by the time of a data line: 1 for a 24-hour clock,
+   * 2 for a 12-hour clock followed by AM or PM, 0 if unknown.
+   */
+  public int getTimeColumns() {
+    return timeColumns;
+  }
+
+  /**
+   * Returns the decimal separator of the values, or 0 if unknown.
+   */
+  public char getDecimalSeparator() {
+    return decimalSeparator;
+  }
+
+  @Override
+  public String toString() {
+    return "Dialect{parser=" + (factory == null ? null : factory.getName())
+        + ", release=" + release
+        + ", locale=" + locale
+        + ", dateFormat=" + dateFormat
+        + ", timeColumns=" + timeColumns
+        + ", decimalSeparator=" + (decimalSeparator == 0 ? "?" : String.valueOf(decimalSeparator))
+        + "}";
+  }
+
+  private final ParserFactory factory;
+  private final String release;
+  private final Locale locale;
+  private final String dateFormat;
+  private final int timeColumns;
+  private final char decimalSeparator;
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Looks at the first few KB of sar output before it is parsed, to find out its {@link Dialect}
+ * once instead of on every line.
+ *
+ * <p>sar does not print the sysstat version; the release in the header, e.g. the kernel
+ * version, is reported instead.
+ */
+public final class DialectSniffer {
+
+  private static final Logger log = LoggerFactory.getLogger(DialectSniffer.class);
+
+  static final int SNIFF_CHARS = 4096;
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern TIME = Pattern.compile("\\d{1,2}:\\d\\d:\\d\\d");
+  private static final Pattern COMMA_NUMBER = Pattern.compile("-?\\d+,\\d+");
+  private static final Pattern DOT_NUMBER = Pattern.compile("-?\\d+\\.\\d+");
+
+  private DialectSniffer() {
+  }
+
+  /**
+   * Reads the beginning of the input and rewinds it.
+   *
+   * <p>Only what the source has ready is looked at once the first characters arrived, so a
+   * command that prints slowly, e.g. {@code sar 5 10}, is not waited for.
+   */
+  public static Dialect sniff(BufferedReader reader) {
+    char[] buf = new char[SNIFF_CHARS];
+    int length = 0;
+    boolean eof = false;
+    try {
+      reader.mark(SNIFF_CHARS);
+      try {
+        while (length < buf.length) {
+          if (length > 0 && !reader.ready()) {
+            break;
+          }
+          int read = reader.read(buf, length, buf.length - length);
+          if (read < 0) {
+            eof = true;
+            break;
+          }
+          length += read;
+        }
+      } finally {
+        reader.reset();
+      }
+    } catch (IOException ex) {
+      log.debug("unable to sample the input", ex);
+      return Dialect.UNKNOWN;
+    }
+    String sample = new String(buf, 0, length);
+    // the last line may be cut
+    int end = sample.lastIndexOf('\n');
+    if (end >= 0 && !eof) {
+      sample = sample.substring(0, end);
+    }
+    Dialect dialect = sniff(sample.split("\\r?\\n"));
+    log.debug("sniffed {}", dialect);
+    return dialect;
+  }
+
+  static Dialect sniff(String[] lines) {
+    ParserFactory factory = null;
+    String release = null;
+    String dateFormat = null;
+    Locale locale = null;
+    int timeColumns = 0;
+    int commas = 0;
+    int dots = 0;
+
+    for (String line : lines) {
+      String[] columns = WHITESPACE.split(line.trim());
+      if (columns.length == 0 || columns[0].isEmpty()) {
+        continue;
+      }
+      if (factory == null) {
+        factory = GlobalOptions.findParser(columns[0]);
+        if (factory != null) {
+          if (columns.length > 1 && Character.isDigit(columns[1].charAt(0))) {
+            release = columns[1];
+          }
+          for (int i = 1; i < columns.length && dateFormat == null; i++) {
+            dateFormat = AllParser.uniqueDatePattern(columns[i]);
+          }
+          continue;
+        }
+      }
+      if (locale == null) {
+        locale = localeOf(columns[0]);
+      }
+      if (!TIME.matcher(columns[0]).matches()) {
+        continue;
+      }
+      int first = 1;
+      if (columns.length > 1 && ("AM".equals(columns[1]) || "PM".equals(columns[1]))) {
+        first = 2;
+      }
+      if (timeColumns == 0) {
+        timeColumns = first;
+      }
+      for (int i = first; i < columns.length; i++) {
+        if (COMMA_NUMBER.matcher(columns[i]).matches()) {
+          commas++;
+        } else if (DOT_NUMBER.matcher(columns[i]).matches()) {
+          dots++;
+        }
+      }
+    }
+
+    char decimalSeparator = 0;
+    if (commas > dots) {
+      decimalSeparator = ',';
+    } else if (dots > 0) {
+      decimalSeparator = '.';
+    }
+    return new Dialect(factory, release, locale, dateFormat, timeColumns, decimalSeparator);
+  }
+
+  // the words sysstat translates, see the Linux parser
+  private static Locale localeOf(String word) {
+    switch (word) {
+      case "Average:":
+      case "Summary:":
+        return Locale.ENGLISH;
+      case "Moyenne":
+      case "Résumé:":
+        return Locale.FRENCH;
+      case "Durchschn.:":
+      case "Zusammenfassung:":
+        return Locale.GERMAN;
+      case "Media:":
+      case "Resumen:":
+        return new Locale("es");
+      default:
+        return null;
+    }
+  }
+}
@@ -13,7 +13,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import javax.swing.JFileChooser;
 
-public class FileRead extends Thread {
+public class FileRead implements Runnable {
 
   private static final org.slf4j.Logger log = LoggerFactory.getLogger(FileRead.class);
 
@@ -61,6 +61,7 @@ public class FileRead extends Thread {
     }
   }
 
+  @Override
   public void run() {
     if (sarfilename == null) {
       return;
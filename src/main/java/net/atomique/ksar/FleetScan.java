@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import net.atomique.ksar.graph.Aggregation;
+import net.atomique.ksar.graph.ColumnStore;
+import net.atomique.ksar.graph.Graph;
+import net.atomique.ksar.graph.LineHandler;
+import net.atomique.ksar.graph.List;
+import net.atomique.ksar.ui.SortedTreeNode;
+import net.atomique.ksar.ui.TreeNodeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.function.IntConsumer;
+
+/**
+ * Ranks many sar files by some metrics, e.g. the hosts with the highest p99 of
+ * {@code %iowait}.
+ *
+ * <p>Files are parsed on {@link Workers#compute()}, no more at once than it has threads. Each
+ * is reduced to one value per metric as soon as it is parsed and then dropped, so the heap holds
+ * a few parsed files and the current top entries, whatever the number of files. A metric names
+ * a graph by title, e.g. {@code CPU all}, or a stat with devices, e.g. {@code DEV}; for the
+ * latter a host scores with its highest device, which is kept for the drill-down.
+ */
+public class FleetScan {
+
+  private static final Logger log = LoggerFactory.getLogger(FleetScan.class);
+
+  // highest first, then by file so that the order does not depend on the scan
+  private static final Comparator<Ranking> ORDER = Comparator
+      .comparingDouble((Ranking r) -> r.getValue()).reversed()
+      .thenComparing(Ranking::getFile);
+
+  public FleetScan(java.util.List<Comparison.Metric> metrics, Aggregation aggregation,
+      int top) {
+    this.metrics = new ArrayList<>(metrics);
+    this.aggregation = aggregation;
+    this.top = top;
+  }
+
+  /**
+   * Limits the scan to samples between two times, both inclusive; null for no limit.
+   */
+  public void setWindow(LocalDateTime from, LocalDateTime to) {
+    this.from = from == null ? Long.MIN_VALUE : ColumnStore.toKey(from);
+    this.to = to == null ? Long.MAX_VALUE : ColumnStore.toKey(to);
+  }
+
+  public Aggregation getAggregation() {
+    return aggregation;
+  }
+
+  public java.util.List<Comparison.Metric> getMetrics() {
+    return metrics;
+  }
+
+  public Map<Comparison.Metric, java.util.List<Ranking>> scan(java.util.List<String> files)
+      throws InterruptedException {
+    return scan(files, null);
+  }
+
+  /**
+   * Returns the top hosts of each metric, highest first. Hosts without a value for a metric are
+   * not ranked for it. Must not be called from a thread of {@link Workers#compute()}.
+   *
+   * @param progress told the number of files done so far; may be null
+   */
+  public Map<Comparison.Metric, java.util.List<Ranking>> scan(java.util.List<String> files,
+      IntConsumer progress) throws InterruptedException {
+    Map<Comparison.Metric, PriorityQueue<Ranking>> best = new LinkedHashMap<>();
+    for (Comparison.Metric metric : metrics) {
+      best.put(metric, new PriorityQueue<>(ORDER.reversed()));
+    }
+
+    CompletionService<Ranking[]> done = new ExecutorCompletionService<>(Workers.compute());
+    for (String file : files) {
+      done.submit(() -> score(file));
+    }
+    for (int i = 0; i < files.size(); i++) {
+      try {
+        Ranking[] scores = done.take().get();
+        for (int m = 0; m < scores.length; m++) {
+          if (scores[m] != null) {
+            PriorityQueue<Ranking> queue = best.get(metrics.get(m));
+            queue.add(scores[m]);
+            if (queue.size() > top) {
+              queue.poll();
+            }
+          }
+        }
+      } catch (ExecutionException ex) {
+        log.error("Unable to scan a file", ex.getCause());
+      }
+      if (progress != null) {
+        progress.accept(i + 1);
+      }
+    }
+
+    Map<Comparison.Metric, java.util.List<Ranking>> rankings = new LinkedHashMap<>();
+    for (Map.Entry<Comparison.Metric, PriorityQueue<Ranking>> entry : best.entrySet()) {
+      java.util.List<Ranking> sorted = new ArrayList<>(entry.getValue());
+      sorted.sort(ORDER);
+      rankings.put(entry.getKey(), sorted);
+    }
+    return rankings;
+  }
+
+  // one value per metric, null when the host has none
+  private Ranking[] score(String file) {
+    kSar host = new kSar();
+    new FileRead(host, file).run();
+    Ranking[] scores = new Ranking[metrics.size()];
+    if (host.myparser == null) {
+      log.warn("no sar data in {}", file);
+      return scores;
+    }
+    String name = host.myparser.gethostName();
+    if (name == null) {
+      name = new File(file).getName();
+    }
+    for (int m = 0; m < scores.length; m++) {
+      Comparison.Metric metric = metrics.get(m);
+      for (Graph graph : graphs(host, metric.getGraph())) {
+        ColumnStore store = graph.getStore();
+        int column = store.indexOf(metric.getColumn());
+        if (column < 0) {
+          continue;
+        }
+        double value = store.aggregate(column, from, to, aggregation);
+        if (!Double.isNaN(value) && (scores[m] == null || value > scores[m].getValue())) {
+          scores[m] = new Ranking(file, name, graph.getTitle(), value);
+        }
+      }
+    }
+    return scores;
+  }
+
+  private static java.util.List<Graph> graphs(kSar host, String name) {
+    java.util.List<Graph> graphs = new ArrayList<>();
+    LineHandler obj = host.myparser.getGraphObject(name);
+    if (obj instanceof Graph) {
+      graphs.add((Graph) obj);
+    } else if (obj instanceof List) {
+      List list = (List) obj;
+      for (String key : list.getKeys()) {
+        graphs.add(list.getGraph(key));
+      }
+    } else {
+      // the device of a stat, e.g. "CPU all"
+      find_treenode(host.graphtree, name, graphs);
+    }
+    return graphs;
+  }
+
+  private static void find_treenode(SortedTreeNode node, String title,
+      java.util.List<Graph> graphs) {
+    int num = node.getChildCount();
+    if (num > 0) {
+      for (int i = 0; i < num; i++) {
+        find_treenode((SortedTreeNode) node.getChildAt(i), title, graphs);
+      }
+    } else {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof TreeNodeInfo) {
+        Graph graph = ((TreeNodeInfo) obj1).getNode_object();
+        if (title.equals(graph.getTitle())) {
+          graphs.add(graph);
+        }
+      }
+    }
+  }
+
+  /**
+   * The value of a metric for one file, with the graph it comes from.
+   */
+  public static final class Ranking {
+
+    public Ranking(String file, String host, String graph, double value) {
+      this.file = file;
+      this.host = host;
+      this.graph = graph;
+      this.value = value;
+    }
+
+    public String getFile() {
+      return file;
+    }
+
+    public String getHost() {
+      return host;
+    }
+
+    /**
+     * Returns the title of the graph the value comes from, e.g. the device of a {@link List}.
+     */
+    public String getGraph() {
+      return graph;
+    }
+
+    public double getValue() {
+      return value;
+    }
+
+    @Override
+    public String toString() {
+      return host + " " + graph + " " + value;
+    }
+
+    private final String file;
+    private final String host;
+    private final String graph;
+    private final double value;
+  }
+
+  private final java.util.List<Comparison.Metric> metrics;
+  private final Aggregation aggregation;
+  private final int top;
+  private long from = Long.MIN_VALUE;
+  private long to = Long.MAX_VALUE;
+}
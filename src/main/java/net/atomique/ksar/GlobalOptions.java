@@ -14,13 +14,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.awt.Color;
+import java.awt.GraphicsEnvironment;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
+import java.util.ServiceLoader;
+import java.util.Set;
 
 public class GlobalOptions {
 
@@ -36,11 +41,18 @@ public class GlobalOptions {
     return (UI != null);
   }
 
+  /**
+   * Tells whether the user can be asked something with a modal dialog. Never true in headless
+   * mode, where a dialog would block the load.
+   */
+  public static boolean canAsk() {
+    return hasUI() && !GraphicsEnvironment.isHeadless();
+  }
+
   private GlobalOptions() {
 
     log.trace("load GlobalOptions");
 
-    String[] OSParserNames = {"AIX", "HPUX", "Linux", "SunOS"};
     String filename;
     XMLConfig tmp;
     systemprops = System.getProperties();
@@ -49,22 +61,23 @@ public class GlobalOptions {
     fileseparator = (String) systemprops.get("file.separator");
     columnlist = new HashMap<>();
     OSlist = new HashMap<>();
-    ParserMap = new HashMap<>();
+    ParserFactories = new ArrayList<>();
     HistoryList = new HashMap<>();
     HostInfoList = new HashMap<>();
     tmp = new XMLConfig();
-    tmp.loadFromResources("/Config.xml");
-    for (String OSName : OSParserNames) {
-      try {
-        Class tmpclass = Class.forName("net.atomique.ksar.parser." + OSName);
-        ParserMap.put(OSName, tmpclass);
-      } catch (ClassNotFoundException ex) {
-        log.error("Parser class not found", ex);
-      }
-
+    // the bundled files, compiled at build time, see ConfigSnapshot
+    Set<String> compiled = ConfigSnapshot.load(columnlist, OSlist);
+    configSnapshotLoaded = !compiled.isEmpty();
+    if (!compiled.contains("/Config.xml")) {
+      tmp.loadFromResources("/Config.xml");
     }
-    for (String parsername : ParserMap.keySet()) {
-      tmp.loadFromResources("/" + parsername + ".xml");
+    for (ParserFactory factory : ServiceLoader.load(ParserFactory.class,
+        GlobalOptions.class.getClassLoader())) {
+      log.debug("found parser {}", factory.getName());
+      ParserFactories.add(factory);
+      if (!compiled.contains(factory.getConfigResource())) {
+        tmp.loadFromResources(factory.getConfigResource());
+      }
     }
 
     filename = userhome + ".ksarcfg" + fileseparator + "Config.xml";
@@ -77,6 +90,9 @@ public class GlobalOptions {
     if (file.canRead()) {
       tmp.loadConfig(file);
     }
+    for (OSConfig os : OSlist.values()) {
+      os.compile();
+    }
 
   }
 
@@ -137,12 +153,27 @@ public class GlobalOptions {
     return fileseparator;
   }
 
-  static Class getParser(String s) {
-    String tmp = s.replaceAll("-", "");
-    if (ParserMap.isEmpty()) {
-      return null;
+  /**
+   * Returns the parser of the output starting with the given header word, or null.
+   */
+  static ParserFactory findParser(String firstColumn) {
+    for (ParserFactory factory : ParserFactories) {
+      if (factory.accepts(firstColumn)) {
+        return factory;
+      }
     }
-    return ParserMap.get(tmp);
+    return null;
+  }
+
+  static List<ParserFactory> getParserFactories() {
+    return ParserFactories;
+  }
+
+  /**
+   * Tells whether the bundled configuration was read from its binary snapshot.
+   */
+  static boolean isConfigSnapshotLoaded() {
+    return configSnapshotLoaded;
   }
 
   static HashMap<String, HostInfo> getHostInfoList() {
@@ -245,6 +276,7 @@ public class GlobalOptions {
   private static HashMap<String, CnxHistory> HistoryList;
   private static HashMap<String, HostInfo> HostInfoList;
   private static String CLfilename = null;
-  private static HashMap<String, Class> ParserMap;
+  private static List<ParserFactory> ParserFactories;
+  private static boolean configSnapshotLoaded;
   private static boolean firstrun = true;
 }
@@ -17,7 +17,7 @@ import java.util.Arrays;
 import java.util.List;
 import javax.swing.JOptionPane;
 
-public class LocalCommand extends Thread {
+public class LocalCommand implements Runnable {
 
   private static final Logger log = LoggerFactory.getLogger(LocalCommand.class);
 
@@ -71,6 +71,7 @@ public class LocalCommand extends Thread {
     }
   }
 
+  @Override
   public void run() {
 
     if (in == null) {
@@ -79,7 +80,8 @@ public class LocalCommand extends Thread {
 
     try {
       BufferedReader myfilereader = new BufferedReader(new InputStreamReader(in));
-      mysar.parse(myfilereader);
+      // killing the command unblocks a reader waiting for output that never comes
+      mysar.parse(myfilereader, this::close);
       myfilereader.close();
     } catch (IOException ex) {
       log.error("IO Exception", ex);
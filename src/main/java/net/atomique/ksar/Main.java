@@ -31,6 +31,7 @@ public class Main {
     log.info("Usage: ksar [OPTIONS]");
     log.info("OPTIONS:");
     log.info("  -input INPUTFILE    load INPUTFILE sa sar data");
+    log.info("  -resolution SECONDS roll exported data up to SECONDS wide buckets");
     log.info("  -debug              enable debug level output");
     log.info("  -test               an alist for -debug option");
     log.info("  -trace              enable trace level  output");
@@ -117,6 +118,18 @@ public class Main {
             exit_error(resource.getString("INPUT_REQUIRE_ARG"));
           }
         }
+        if ("-resolution".equals(arg)) {
+          if (i < args.length) {
+            try {
+              Config.setExportResolution(Integer.parseInt(args[i++]));
+              continue;
+            } catch (NumberFormatException ex) {
+              exit_error(resource.getString("RESOLUTION_REQUIRE_ARG"));
+            }
+          } else {
+            exit_error(resource.getString("RESOLUTION_REQUIRE_ARG"));
+          }
+        }
         exit_error(resource.getString("UNKNOWN_OPTION"), arg);
       }
 
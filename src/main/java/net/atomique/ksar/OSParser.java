@@ -5,6 +5,11 @@
 
 package net.atomique.ksar;
 
+import net.atomique.ksar.graph.Graph;
+import net.atomique.ksar.graph.LineHandler;
+import net.atomique.ksar.graph.List;
+import net.atomique.ksar.xml.CompiledStat;
+import net.atomique.ksar.xml.GraphConfig;
 import net.atomique.ksar.xml.OSConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -124,6 +129,72 @@ public abstract class OSParser extends AllParser {
   }
 
 
+  /**
+   * Returns the {@link net.atomique.ksar.graph.Graph} or {@link net.atomique.ksar.graph.List} of
+   * a stat, looked up by stat name (e.g. {@code CPU}) or by graph title; null if there is none.
+   */
+  public LineHandler getGraphObject(String name) {
+    LineHandler obj = ListofGraph.get(name);
+    if (obj != null) {
+      return obj;
+    }
+    for (LineHandler o : ListofGraph.values()) {
+      if (name.equals(o.getTitle())) {
+        return o;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Tells whether the user can be asked about the data. Sources loaded without a window, such as
+   * those of a {@link Comparison}, are parsed without questions.
+   */
+  protected boolean canAsk() {
+    return mysar.getDataView() != null && GlobalOptions.canAsk();
+  }
+
+  /**
+   * Makes the stat of a header line the current one, creating its graph the first time.
+   * Data lines then go straight to {@link #currentStatObj}.
+   *
+   * @return false if the stat has no graph
+   */
+  protected boolean setCurrentStat(CompiledStat stat, String line) {
+    currentStat = stat.getName();
+    currentCompiledStat = stat;
+    currentStatObj = ListofGraph.get(currentStat);
+    if (currentStatObj == null && stat.getKind() != CompiledStat.NO_GRAPH) {
+      GraphConfig mygraphinfo = stat.getGraphConfig();
+      if (stat.getKind() == CompiledStat.UNIQUE) {
+        currentStatObj = new Graph(mysar, mygraphinfo, mygraphinfo.getTitle(), line,
+            firstdatacolumn, mysar.graphtree);
+      } else {
+        currentStatObj = new List(mysar, mygraphinfo, mygraphinfo.getTitle(), line,
+            firstdatacolumn);
+      }
+      ListofGraph.put(currentStat, currentStatObj);
+    }
+    return currentStatObj != null;
+  }
+
+  /**
+   * Returns the stat of the last header line, or null.
+   */
+  public CompiledStat getCurrentCompiledStat() {
+    return currentCompiledStat;
+  }
+
+  /**
+   * Redraws the charts shown while parsing with all parsed samples; they are otherwise only
+   * redrawn every now and then.
+   */
+  public void refreshGraphs() {
+    for (LineHandler o : ListofGraph.values()) {
+      o.refresh();
+    }
+  }
+
   public String gethostName() {
     return Hostname;
   }
@@ -168,10 +239,11 @@ public abstract class OSParser extends AllParser {
     }
   }
 
-  protected Map<String, Object> ListofGraph = new HashMap<String, Object>();
+  protected Map<String, LineHandler> ListofGraph = new HashMap<>();
 
   protected String lastStat = null;
-  protected Object currentStatObj = null;
+  protected LineHandler currentStatObj = null;
+  private CompiledStat currentCompiledStat = null;
 
   protected String ostype = null;
   protected String Hostname = null;
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Reads and tokenizes sar output on an {@link Workers#io()} task and hands it over to the parsing thread
+ * through a bounded queue.
+ *
+ * <p>The queue holds at most {@link #QUEUE_BATCHES} batches of {@link #BATCH_LINES} lines, so a
+ * fast source is throttled instead of piling up in memory. {@link #cancel()} stops the consumer
+ * right away and closes the source, which unblocks a reader stuck on a stalled process or ssh
+ * stream.
+ */
+public class ParsePipeline {
+
+  private static final Logger log = LoggerFactory.getLogger(ParsePipeline.class);
+
+  static final int BATCH_LINES = 512;
+  static final int QUEUE_BATCHES = 32;
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final String[] NO_COLUMNS = new String[0];
+  private static final Batch END = new Batch(0);
+
+  private static final class Batch {
+    final String[] lines;
+    final String[][] columns;
+    int size;
+
+    Batch(int capacity) {
+      lines = new String[capacity];
+      columns = new String[capacity][];
+    }
+  }
+
+  public ParsePipeline(BufferedReader reader, Closeable source) {
+    this.reader = reader;
+    this.source = source;
+  }
+
+  public void start() {
+    readerTask = Workers.io().submit(this::readLoop);
+  }
+
+  private void readLoop() {
+    try {
+      Batch batch = new Batch(BATCH_LINES);
+      String line;
+      while (!cancelled && (line = reader.readLine()) != null) {
+        batch.lines[batch.size] = line;
+        batch.columns[batch.size] = line.isEmpty() ? NO_COLUMNS : WHITESPACE.split(line);
+        // hand over a partial batch when the source stalls, so a slow ssh or sar process
+        // still shows progress
+        if (++batch.size == BATCH_LINES || !reader.ready()) {
+          queue.put(batch);
+          batch = new Batch(BATCH_LINES);
+        }
+      }
+      if (batch.size > 0 && !cancelled) {
+        queue.put(batch);
+      }
+    } catch (IOException ex) {
+      if (!cancelled) {
+        failure = ex;
+      }
+    } catch (InterruptedException ex) {
+      log.trace("reader interrupted");
+    } finally {
+      // on cancel() the end marker has already been queued
+      if (!cancelled) {
+        try {
+          queue.put(END);
+        } catch (InterruptedException ex) {
+          queue.offer(END);
+        }
+      }
+    }
+  }
+
+  /**
+   * Moves to the next line, waiting for the reader if needed.
+   *
+   * @return false at the end of the input or once the pipeline is cancelled
+   */
+  public boolean next() throws IOException {
+    if (cancelled) {
+      return false;
+    }
+    if (current != null && ++position < current.size) {
+      return true;
+    }
+    current = null;
+    try {
+      current = queue.take();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      cancel();
+      return false;
+    }
+    if (current == END || cancelled) {
+      current = null;
+      finished = !cancelled;
+      if (failure != null) {
+        throw failure;
+      }
+      return false;
+    }
+    position = 0;
+    return true;
+  }
+
+  public String line() {
+    return current.lines[position];
+  }
+
+  public String[] columns() {
+    return current.columns[position];
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Tells whether the consumer has seen the end of the input. Otherwise the reader stage may
+   * still be running, and should be cancelled when the consumer gives up early.
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * Stops the pipeline. Safe to call from any thread, e.g. the UI's Stop button.
+   */
+  public void cancel() {
+    if (cancelled) {
+      return;
+    }
+    cancelled = true;
+    closeSource();
+    if (readerTask != null) {
+      readerTask.cancel(true);
+    }
+    // wake up a consumer blocked on an empty queue
+    queue.clear();
+    queue.offer(END);
+  }
+
+  private void closeSource() {
+    if (source == null) {
+      return;
+    }
+    try {
+      source.close();
+    } catch (IOException ex) {
+      log.debug("unable to close source", ex);
+    }
+  }
+
+  private final BufferedReader reader;
+  private final Closeable source;
+  private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+  private volatile boolean cancelled = false;
+  private volatile IOException failure = null;
+  private volatile Future<?> readerTask = null;
+  private boolean finished = false;
+  private Batch current = null;
+  private int position = 0;
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+/**
+ * Creates the parser of one kind of sar output.
+ *
+ * <p>Factories are found with {@link java.util.ServiceLoader}: a parser shipped in another jar
+ * lists its factory in {@code META-INF/services/net.atomique.ksar.ParserFactory} and puts its
+ * graph configuration next to it, see {@link #getConfigResource()}. The factory is picked once,
+ * from the first header line of the input.
+ */
+public interface ParserFactory {
+
+  /**
+   * Returns the name of the parser, e.g. {@code Linux}.
+   */
+  String getName();
+
+  /**
+   * Tells whether a header line starting with the given word begins output of this parser. By
+   * default the word is the name, dashes ignored ({@code HP-UX} for {@code HPUX}).
+   */
+  default boolean accepts(String firstColumn) {
+    return getName().equals(firstColumn.replace("-", ""));
+  }
+
+  /**
+   * Returns the resource holding the stats and graphs of this parser.
+   */
+  default String getConfigResource() {
+    return "/" + getName() + ".xml";
+  }
+
+  OSParser create();
+}
@@ -7,9 +7,12 @@ package net.atomique.ksar;
 
 import com.jcraft.jsch.Channel;
 import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.ChannelSftp;
 import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
 import com.jcraft.jsch.UIKeyboardInteractive;
 import com.jcraft.jsch.UserInfo;
 import net.atomique.ksar.xml.CnxHistory;
@@ -22,9 +25,13 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.Iterator;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.JComboBox;
@@ -35,10 +42,16 @@ import javax.swing.JPanel;
 import javax.swing.JPasswordField;
 import javax.swing.JTextField;
 
-public class SSHCommand extends Thread {
+public class SSHCommand implements Runnable {
 
   private static final Logger log = LoggerFactory.getLogger(SSHCommand.class);
 
+  /**
+   * Commands starting with this prefix name a remote binary sa file. It is fetched over SFTP
+   * and converted by the local sar, so the monitored host does not spend CPU on formatting.
+   */
+  static final String SFTP_PREFIX = "sftp:";
+
   public SSHCommand(kSar hissar, String cmd) {
     mysar = hissar;
     command = cmd;
@@ -194,9 +207,14 @@ public class SSHCommand extends Thread {
       }
     } else {
       commandModel.addElement("sar -A");
+      commandModel.addElement(SFTP_PREFIX + defaultSaFile());
     }
   }
 
+  private static String defaultSaFile() {
+    return String.format("/var/log/sa/sa%02d", LocalDate.now().getDayOfMonth());
+  }
+
   private void connect() {
     CnxHistory tmp = new CnxHistory((String) HostComboBox.getSelectedItem());
     tmp.addCommand((String) commandComboBox.getSelectedItem());
@@ -235,6 +253,20 @@ public class SSHCommand extends Thread {
       }
       return;
     }
+    String selectedCommand = (String) commandComboBox.getSelectedItem();
+    if (selectedCommand != null && selectedCommand.startsWith(SFTP_PREFIX)) {
+      if (!fetchSaFile(tmp.getHostname(), selectedCommand.substring(SFTP_PREFIX.length()))) {
+        return;
+      }
+    } else if (!openExecChannel()) {
+      return;
+    }
+    command = tmp.getUsername() + "@" + tmp.getHostname() + "=" + commandComboBox.getSelectedItem();
+    GlobalOptions.addHistory(tmp);
+
+  }
+
+  private boolean openExecChannel() {
     try {
       channel = session.openChannel("exec");
     } catch (JSchException ex) {
@@ -245,7 +277,7 @@ public class SSHCommand extends Thread {
       } else {
         log.error("Err: unable to open Channel");
       }
-      return;
+      return false;
     }
     ((ChannelExec) channel).setCommand("LC_ALL=C " + commandComboBox.getSelectedItem() + "\n");
     channel.setInputStream(null);
@@ -263,7 +295,7 @@ public class SSHCommand extends Thread {
       } else {
         log.error("Err: unable to open pipe");
       }
-      return;
+      return false;
     }
     try {
       channel.connect();
@@ -275,7 +307,7 @@ public class SSHCommand extends Thread {
       } else {
         log.error("Err: unable to connect Channel");
       }
-      return;
+      return false;
     }
     if (channel.isClosed()) {
       log.info("exit {}", channel.getExitStatus());
@@ -287,14 +319,75 @@ public class SSHCommand extends Thread {
         } else {
           log.error("Err: Problem during ssh connection");
         }
-        return;
+        return false;
       }
     }
-    command = tmp.getUsername() + "@" + tmp.getHostname() + "=" + commandComboBox.getSelectedItem();
-    GlobalOptions.addHistory(tmp);
+    return true;
+  }
+
+  private boolean fetchSaFile(String host, String remotePath) {
+    ChannelSftp sftp;
+    try {
+      sftp = (ChannelSftp) session.openChannel("sftp");
+      sftp.connect();
+    } catch (JSchException ex) {
+      showError("Unable to open SFTP Channel", ex);
+      return false;
+    }
 
+    SaFileCache cache = new SaFileCache();
+    File safile;
+    try {
+      SftpATTRS attrs = sftp.stat(remotePath);
+      long mtime = attrs.getMTime();
+      long size = attrs.getSize();
+      if (cache.isCached(host, remotePath, mtime, size)) {
+        safile = cache.getCacheFile(host, remotePath, mtime, size);
+        log.info("{}:{} unchanged, using cached {}", host, remotePath, safile);
+      } else {
+        File download = cache.createTempFile(host);
+        try (OutputStream out = new FileOutputStream(download)) {
+          sftp.get(remotePath, out);
+        } catch (SftpException | IOException ex) {
+          download.delete();
+          throw ex;
+        }
+        safile = cache.store(host, remotePath, mtime, size, download);
+        log.info("fetched {}:{} ({} bytes) to {}", host, remotePath, size, safile);
+      }
+    } catch (SftpException | IOException ex) {
+      showError("Unable to fetch " + remotePath, ex);
+      return false;
+    } finally {
+      sftp.disconnect();
+    }
+    // the file is local now, the remote host is no longer needed
+    session.disconnect();
+    session = null;
+
+    try {
+      ProcessBuilder pb = new ProcessBuilder("sar", "-A", "-f", safile.getAbsolutePath());
+      pb.environment().put("LC_ALL", "C");
+      localsar = pb.start();
+      in = localsar.getInputStream();
+      err = localsar.getErrorStream();
+    } catch (IOException ex) {
+      showError("Unable to run local sar on " + safile, ex);
+      return false;
+    }
+    return true;
   }
 
+  private void showError(String message, Exception ex) {
+    log.error("Err: {}", message, ex);
+    if (GlobalOptions.hasUI()) {
+      JOptionPane.showMessageDialog(GlobalOptions.getUI(), message, "SSH error",
+          JOptionPane.ERROR_MESSAGE);
+      mysar.cleared();
+    }
+  }
+
+  @Override
   public void run() {
     StringBuilder tmpmessage = new StringBuilder();
     int max_waitdata = 10;
@@ -320,7 +413,7 @@ public class SSHCommand extends Thread {
       BufferedReader myfile = new BufferedReader(tmpin);
       BufferedReader myerror = new BufferedReader(tmperr);
 
-      mysar.parse(myfile);
+      mysar.parse(myfile, this::abort);
       String current_line;
 
       while ((current_line = myerror.readLine()) != null) {
@@ -341,10 +434,18 @@ public class SSHCommand extends Thread {
       in.close();
       err.close();
 
-      channel.disconnect();
-      session.disconnect();
-      channel = null;
-      session = null;
+      if (channel != null) {
+        channel.disconnect();
+        channel = null;
+      }
+      if (session != null) {
+        session.disconnect();
+        session = null;
+      }
+      if (localsar != null) {
+        localsar.destroy();
+        localsar = null;
+      }
 
     } catch (Exception ex) {
       ex.printStackTrace();
@@ -352,6 +453,21 @@ public class SSHCommand extends Thread {
     }
   }
 
+  /**
+   * Called from the UI thread when parsing is stopped: tearing down the channel or the local sar
+   * unblocks the reader.
+   */
+  private void abort() {
+    Channel c = channel;
+    if (c != null) {
+      c.disconnect();
+    }
+    Process p = localsar;
+    if (p != null) {
+      p.destroy();
+    }
+  }
+
   public class MyUserInfo implements UserInfo, UIKeyboardInteractive {
 
     public boolean promptYesNo(String str) {
@@ -506,7 +622,8 @@ public class SSHCommand extends Thread {
   private JDialog dialog = new JDialog();
   private JSch jsch = null;
   private Session session = null;
-  private Channel channel = null;
+  private volatile Channel channel = null;
+  private volatile Process localsar = null;
   private int num_try = 0;
   private InputStream in = null;
   private InputStream err = null;
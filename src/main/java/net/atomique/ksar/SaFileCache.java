@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Local cache of binary sa files fetched from remote hosts.
+ * A cached copy is identified by host, remote path, remote mtime and size, so an unchanged
+ * file is never transferred twice and a grown file (sadc still appending to today's file)
+ * is fetched again.
+ */
+public class SaFileCache {
+
+  private static final Logger log = LoggerFactory.getLogger(SaFileCache.class);
+
+  public SaFileCache(File cachedir) {
+    this.cachedir = cachedir;
+  }
+
+  public SaFileCache() {
+    this(new File(GlobalOptions.getUserhome() + ".ksarcfg" + GlobalOptions.getFileseparator()
+        + "sacache"));
+  }
+
+  public File getCacheFile(String host, String remotePath, long mtime, long size) {
+    return new File(getHostDir(host), prefix(remotePath) + mtime + "-" + size);
+  }
+
+  public boolean isCached(String host, String remotePath, long mtime, long size) {
+    File f = getCacheFile(host, remotePath, mtime, size);
+    return f.isFile() && f.length() == size;
+  }
+
+  /**
+   * Moves a freshly downloaded file into the cache and drops older copies of the same remote
+   * file.
+   *
+   * @return the cached file
+   */
+  public File store(String host, String remotePath, long mtime, long size, File downloaded)
+      throws IOException {
+    File target = getCacheFile(host, remotePath, mtime, size);
+    File[] stale = getHostDir(host).listFiles(
+        (dir, name) -> name.startsWith(prefix(remotePath)) && !name.equals(target.getName()));
+    if (stale != null) {
+      for (File f : stale) {
+        log.debug("drop stale cached sa file {}", f);
+        Files.deleteIfExists(f.toPath());
+      }
+    }
+    Files.move(downloaded.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    return target;
+  }
+
+  public File createTempFile(String host) throws IOException {
+    Path dir = getHostDir(host).toPath();
+    Files.createDirectories(dir);
+    return Files.createTempFile(dir, "fetch", ".tmp").toFile();
+  }
+
+  private File getHostDir(String host) {
+    return new File(cachedir, escape(host));
+  }
+
+  private static String prefix(String remotePath) {
+    return escape(remotePath) + "@";
+  }
+
+  /**
+   * Returns a file name for a host or path that no other one maps to: lower case letters,
+   * digits, '-' and all but a leading '.' are kept, any other byte becomes {@code _xx} in
+   * hex, so {@code /a_b} and {@code /a/b} stay apart, even on case-insensitive file systems.
+   */
+  static String escape(String s) {
+    StringBuilder name = new StringBuilder(s.length() + 8);
+    for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+      char c = (char) (b & 0xff);
+      if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-'
+          || (c == '.' && name.length() > 0)) {
+        name.append(c);
+      } else {
+        name.append('_').append(Character.forDigit(c >> 4, 16))
+            .append(Character.forDigit(c & 0xf, 16));
+      }
+    }
+    return name.toString();
+  }
+
+  private final File cachedir;
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executors for background work.
+ *
+ * <p>{@link #io()} runs tasks that mostly wait: reading files, process pipes and ssh channels.
+ * It uses a virtual thread per task when the runtime supports it (Java 21+), and a cached pool
+ * of daemon threads otherwise. {@link #compute()} is a bounded pool for CPU-heavy work such as
+ * exports; its size defaults to the number of processors and can be set with the
+ * {@code ksar.compute.threads} system property.
+ */
+public final class Workers {
+
+  private static final Logger log = LoggerFactory.getLogger(Workers.class);
+
+  private static final ExecutorService IO = createIoExecutor();
+  private static final ThreadPoolExecutor COMPUTE = createComputeExecutor();
+
+  private Workers() {
+  }
+
+  public static ExecutorService io() {
+    return IO;
+  }
+
+  public static ExecutorService compute() {
+    return COMPUTE;
+  }
+
+  public static boolean isVirtual() {
+    return virtual;
+  }
+
+  public static int getComputeThreads() {
+    return COMPUTE.getMaximumPoolSize();
+  }
+
+  public static int getComputeActiveCount() {
+    return COMPUTE.getActiveCount();
+  }
+
+  public static int getComputeQueued() {
+    return COMPUTE.getQueue().size();
+  }
+
+  private static ExecutorService createIoExecutor() {
+    ExecutorService executor = createVirtualExecutor();
+    if (executor != null) {
+      virtual = true;
+      log.debug("io tasks run on virtual threads");
+      return executor;
+    }
+    log.debug("io tasks run on a cached thread pool");
+    return Executors.newCachedThreadPool(new NamedFactory("kSar io-"));
+  }
+
+  // Thread.ofVirtual() is not available on the Java 17 baseline, so look it up at runtime
+  private static ExecutorService createVirtualExecutor() {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder = builderClass.getMethod("name", String.class, long.class)
+          .invoke(builder, "kSar io-", 0L);
+      ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+      return (ExecutorService) perTask.invoke(null, factory);
+    } catch (ReflectiveOperationException | RuntimeException ex) {
+      return null;
+    }
+  }
+
+  private static ThreadPoolExecutor createComputeExecutor() {
+    int threads = Integer.getInteger("ksar.compute.threads",
+        Runtime.getRuntime().availableProcessors());
+    if (threads < 1) {
+      threads = 1;
+    }
+    log.debug("compute pool size {}", threads);
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), new NamedFactory("kSar compute-"));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static final class NamedFactory implements ThreadFactory {
+    private final String prefix;
+    private final AtomicInteger count = new AtomicInteger();
+
+    NamedFactory(String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread t = new Thread(r, prefix + count.getAndIncrement());
+      t.setDaemon(true);
+      return t;
+    }
+  }
+
+  // no initializer: it would run after IO is created and reset the flag
+  private static boolean virtual;
+}
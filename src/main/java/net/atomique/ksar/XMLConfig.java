@@ -5,6 +5,7 @@
 
 package net.atomique.ksar;
 
+import net.atomique.ksar.graph.GraphSchema;
 import net.atomique.ksar.xml.CnxHistory;
 import net.atomique.ksar.xml.ColumnConfig;
 import net.atomique.ksar.xml.GraphConfig;
@@ -73,7 +74,8 @@ public class XMLConfig extends DefaultHandler {
       fabric = SAXParserFactory.newInstance();
       parser = fabric.newSAXParser();
       parser.parse(source, this);
-
+      // schemas copied the graphs and types of the previous configuration
+      GraphSchema.clearCache();
     } catch (ParserConfigurationException | SAXException ex) {
       log.warn("XML error while parsing " + id, ex);
     } catch (IOException ioe) {
@@ -188,6 +190,18 @@ public class XMLConfig extends DefaultHandler {
               attributes.getValue("type"));
           currentOS.addGraph(currentGraph);
         }
+        if ("derived".equals(qName)) {
+          // inside a graph, or next to it naming it, to add to a graph from a user file
+          derivedGraph = currentGraph;
+          if (derivedGraph == null) {
+            derivedGraph = currentOS.getGraphHash().get(attributes.getValue("graph"));
+            if (derivedGraph == null) {
+              log.warn("derived {}: no graph {} in {}", attributes.getValue("name"),
+                  attributes.getValue("graph"), currentOS.getOsName());
+            }
+          }
+          derivedName = attributes.getValue("name");
+        }
         if (currentGraph != null) {
           if ("Plot".equals(qName)) {
             currentPlot = new PlotStackConfig(attributes.getValue("Title"));
@@ -269,6 +283,14 @@ public class XMLConfig extends DefaultHandler {
       }
     }
 
+    if ("derived".equals(qName)) {
+      if (derivedGraph != null && derivedName != null) {
+        derivedGraph.addDerived(derivedName, tempval);
+      }
+      derivedGraph = null;
+      derivedName = null;
+    }
+
     if ("cols".equals(qName)) {
       if (currentPlot != null) {
         currentPlot.setHeaderStr(tempval);
@@ -303,6 +325,9 @@ public class XMLConfig extends DefaultHandler {
       if ("color".equals(qName) && currentColor != null) {
         currentColor.setData_color(tempval);
       }
+      if ("type".equals(qName) && currentColor != null) {
+        currentColor.setType(tempval);
+      }
     }
 
     if (in_cnx) {
@@ -351,6 +376,8 @@ public class XMLConfig extends DefaultHandler {
   private GraphConfig currentGraph = null;
   private PlotStackConfig currentPlot = null;
   private PlotStackConfig currentStack = null;
+  private GraphConfig derivedGraph = null;
+  private String derivedName = null;
   private CnxHistory currentCnx = null;
   private HostInfo currentHost = null;
 
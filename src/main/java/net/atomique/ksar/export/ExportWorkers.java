@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.export;
+
+import net.atomique.ksar.Workers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs the per-graph work of an export on the {@link Workers#compute()} pool.
+ *
+ * <p>The thread walking the graph tree submits items into a bounded queue. When the queue is
+ * full it does the work itself, so it never runs far ahead of the workers and an export running
+ * on the only compute thread cannot deadlock. Each worker, the submitting thread included, gets
+ * its own consumer from the supplier, e.g. to reuse an image buffer.
+ */
+final class ExportWorkers<T> {
+
+  private static final Logger log = LoggerFactory.getLogger(ExportWorkers.class);
+
+  ExportWorkers(Supplier<Consumer<T>> workers) {
+    int threads = Math.max(1, Workers.getComputeThreads());
+    queue = new ArrayBlockingQueue<>(2 * threads);
+    own = workers.get();
+    // the submitting thread may hold one of the compute threads, it works too
+    for (int i = 1; i < threads; i++) {
+      consumers.add(Workers.compute().submit(() -> consume(workers.get())));
+    }
+  }
+
+  void submit(T item) {
+    if (!queue.offer(item)) {
+      own.accept(item);
+    }
+  }
+
+  /**
+   * Does what is left in the queue and waits for the workers.
+   */
+  void finish() {
+    producing = false;
+    T item;
+    while ((item = queue.poll()) != null) {
+      own.accept(item);
+    }
+    for (Future<?> consumer : consumers) {
+      // a worker that did not start has nothing left to do
+      if (!consumer.cancel(false)) {
+        try {
+          consumer.get();
+        } catch (CancellationException | ExecutionException ex) {
+          log.error("Export worker failed", ex);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private void consume(Consumer<T> worker) {
+    try {
+      while (producing || !queue.isEmpty()) {
+        T item = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (item != null) {
+          worker.accept(item);
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private final BlockingQueue<T> queue;
+  private final Consumer<T> own;
+  private final ArrayList<Future<?>> consumers = new ArrayList<>();
+  private volatile boolean producing = true;
+}
@@ -5,12 +5,12 @@
 
 package net.atomique.ksar.export;
 
+import net.atomique.ksar.Config;
+import net.atomique.ksar.graph.ColumnStore;
 import net.atomique.ksar.graph.Graph;
 import net.atomique.ksar.kSar;
 import net.atomique.ksar.ui.SortedTreeNode;
 import net.atomique.ksar.ui.TreeNodeInfo;
-import org.jfree.data.time.RegularTimePeriod;
-import org.jfree.data.time.Second;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,6 +21,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.function.Function;
 import javax.swing.JDialog;
 import javax.swing.JProgressBar;
 
@@ -50,21 +51,31 @@ public class FileCSV implements Runnable {
 
     DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yy HH:mm:ss");
 
-    for (LocalDateTime tmpLDT : mysar.myparser.getDateSamples()) {
-
-      String text = tmpLDT.format(formatter);
-      tmpcsv.append(text).append(";");
+    long step = Config.getExportResolution();
+    if (step > 0) {
+      // one line per bucket, from the rollups of each graph
+      long previous = Long.MIN_VALUE;
+      for (long time : mysar.myparser.getTimeline().getSortedTimes()) {
+        long bucket = Math.floorDiv(time, step) * step;
+        if (bucket == previous) {
+          continue;
+        }
+        previous = bucket;
+        LocalDateTime bucketLDT = ColumnStore.toLocalDateTime(bucket);
+        tmpcsv.append(bucketLDT.format(formatter)).append(";");
+        export_treenode_data(mysar.graphtree, graph -> graph.getCsvLine(bucketLDT, step));
+        tmpcsv.append("\n");
+      }
+    } else {
+      for (LocalDateTime tmpLDT : mysar.myparser.getTimeline()) {
 
-      Second tmp = new Second(tmpLDT.getSecond(),
-              tmpLDT.getMinute(),
-              tmpLDT.getHour(),
-              tmpLDT.getDayOfMonth(),
-              tmpLDT.getMonthValue(),
-              tmpLDT.getYear());
+        String text = tmpLDT.format(formatter);
+        tmpcsv.append(text).append(";");
 
-      export_treenode_data(mysar.graphtree, tmp);
-      tmpcsv.append("\n");
+        export_treenode_data(mysar.graphtree, graph -> graph.getCsvLine(tmpLDT));
+        tmpcsv.append("\n");
 
+      }
     }
 
     try (BufferedWriter out = Files.newBufferedWriter( Paths.get(csvfilename), StandardCharsets.UTF_8)) {
@@ -106,7 +117,7 @@ public class FileCSV implements Runnable {
     }
   }
 
-  private void export_treenode_data(SortedTreeNode node, RegularTimePeriod time) {
+  private void export_treenode_data(SortedTreeNode node, Function<Graph, String> line) {
     int num = node.getChildCount();
 
     if (num > 0) {
@@ -117,7 +128,7 @@ public class FileCSV implements Runnable {
       }*/
       for (int i = 0; i < num; i++) {
         SortedTreeNode l = (SortedTreeNode) node.getChildAt(i);
-        export_treenode_data(l, time);
+        export_treenode_data(l, line);
       }
     } else {
       Object obj1 = node.getUserObject();
@@ -125,7 +136,7 @@ public class FileCSV implements Runnable {
         TreeNodeInfo tmpnode = (TreeNodeInfo) obj1;
         Graph nodeobj = tmpnode.getNode_object();
         if (nodeobj.doPrint()) {
-          tmpcsv.append(nodeobj.getCsvLine(time));
+          tmpcsv.append(line.apply(nodeobj));
           update_ui();
 
         }
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.export;
+
+import net.atomique.ksar.VersionNumber;
+import net.atomique.ksar.graph.ColumnStore;
+import net.atomique.ksar.graph.Graph;
+import net.atomique.ksar.graph.GraphSchema;
+import net.atomique.ksar.graph.List;
+import net.atomique.ksar.graph.Rollup;
+import net.atomique.ksar.kSar;
+import net.atomique.ksar.ui.ParentNodeInfo;
+import net.atomique.ksar.ui.SortedTreeNode;
+import net.atomique.ksar.ui.TreeNodeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import javax.swing.JDialog;
+import javax.swing.JProgressBar;
+
+/**
+ * Writes the print-selected graphs into a columnar binary file, {@code .ksarc}, that analytics
+ * jobs load without parsing text.
+ *
+ * <p>The layout follows Parquet: the data first, the description at the end.
+ * <pre>
+ * "KSARC\0\0\1"                      magic, the last byte is the version
+ * per graph, 8-byte aligned:
+ *   int64[rows]                      times, milliseconds since the epoch
+ *   float64[rows] per column         values, NaN for a missing sample
+ * footer                             UTF-8 JSON, see below
+ * int64                              offset of the footer
+ * "KSARC\0\0\1"
+ * </pre>
+ * All numbers are little-endian. The footer describes the host and, for each graph, its name,
+ * the device for the graphs of a {@link List}, the number of rows, the offset of its times and
+ * its columns with their type, {@code gauge}, {@code counter}, {@code delta} or
+ * {@code unknown}. Columns of a graph follow each other, so a column starts at
+ * {@code offset + 8 * rows * (1 + index)}.
+ *
+ * <p>Graphs are written one column at a time from their {@link ColumnStore} through a small
+ * buffer, whatever their size.
+ */
+public class FileColumnar implements Runnable {
+
+  private static final Logger log = LoggerFactory.getLogger(FileColumnar.class);
+
+  public static final String EXTENSION = ".ksarc";
+
+  static final byte[] MAGIC = {'K', 'S', 'A', 'R', 'C', 0, 0, 1};
+
+  private static final int BUFFER_VALUES = 8192;
+
+  public FileColumnar(String filename, kSar hissar) {
+    this.filename = filename;
+    mysar = hissar;
+  }
+
+  public FileColumnar(String filename, kSar hissar, JProgressBar g, JDialog d) {
+    this(filename, hissar);
+
+    progress_bar = g;
+    dialog = d;
+  }
+
+  public void run() {
+    try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      out = channel;
+      footer.append("{\"format\":\"ksarc\",\"version\":").append(MAGIC[7])
+          .append(",\"creator\":").append(FileHTML.json("kSar " + VersionNumber.getVersionString()))
+          .append(",\"host\":").append(json_or_null(mysar.myparser.gethostName()))
+          .append(",\"os\":").append(json_or_null(mysar.myparser.getOstype()))
+          .append(",\"graphs\":[");
+      write(ByteBuffer.wrap(MAGIC));
+      export_treenode(mysar.graphtree, null);
+      footer.append("]}");
+
+      long footerOffset = position;
+      write(ByteBuffer.wrap(footer.toString().getBytes(StandardCharsets.UTF_8)));
+      ByteBuffer tail = ByteBuffer.allocate(8 + MAGIC.length).order(ByteOrder.LITTLE_ENDIAN);
+      tail.putLong(footerOffset).put(MAGIC).flip();
+      write(tail);
+    } catch (IOException ex) {
+      log.error("Columnar export IO Exception", ex);
+    }
+
+    if (dialog != null) {
+      dialog.dispose();
+    }
+  }
+
+  private void export_treenode(SortedTreeNode node, List parent) throws IOException {
+    int num = node.getChildCount();
+    if (num > 0) {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof ParentNodeInfo) {
+        ParentNodeInfo tmpnode = (ParentNodeInfo) obj1;
+        parent = tmpnode.getNode_object();
+      }
+      for (int i = 0; i < num; i++) {
+        SortedTreeNode l = (SortedTreeNode) node.getChildAt(i);
+        export_treenode(l, parent);
+      }
+    } else {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof TreeNodeInfo) {
+        TreeNodeInfo tmpnode = (TreeNodeInfo) obj1;
+        Graph nodeobj = tmpnode.getNode_object();
+        if (nodeobj.isPrintSelected()) {
+          if (parent == null) {
+            write_graph(nodeobj.getTitle(), null, nodeobj);
+          } else {
+            write_graph(parent.getTitle(), tmpnode.getNode_title(), nodeobj);
+          }
+          update_ui();
+        }
+      }
+    }
+  }
+
+  private void write_graph(String name, String device, Graph graph) throws IOException {
+    ColumnStore store = graph.getStore();
+    GraphSchema schema = graph.getSchema();
+    int rows = store.size();
+    int columns = store.getColumnCount();
+
+    if (graphs++ > 0) {
+      footer.append(',');
+    }
+    footer.append("{\"graph\":").append(FileHTML.json(name));
+    if (device != null) {
+      footer.append(",\"device\":").append(FileHTML.json(device));
+    }
+    footer.append(",\"title\":").append(FileHTML.json(graph.getTitle()))
+        .append(",\"rows\":").append(rows)
+        .append(",\"offset\":").append(position)
+        .append(",\"columns\":[");
+    for (int c = 0; c < columns; c++) {
+      footer.append(c > 0 ? "," : "").append("{\"name\":")
+          .append(FileHTML.json(store.getColumnName(c)))
+          .append(",\"type\":\"").append(kind(schema.getType(c))).append("\"}");
+    }
+    footer.append("]}");
+
+    buffer.clear();
+    for (int r = 0; r < rows; r++) {
+      if (!buffer.hasRemaining()) {
+        flush();
+      }
+      buffer.putLong(store.getMillis(r));
+    }
+    flush();
+    for (int c = 0; c < columns; c++) {
+      for (int r = 0; r < rows; r++) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        buffer.putDouble(store.get(r, c));
+      }
+      flush();
+    }
+  }
+
+  static String kind(int type) {
+    switch (type) {
+      case Rollup.GAUGE:
+        return "gauge";
+      case Rollup.COUNTER:
+        return "counter";
+      case Rollup.DELTA:
+        return "delta";
+      default:
+        return "unknown";
+    }
+  }
+
+  private static String json_or_null(String s) {
+    return s == null ? "null" : FileHTML.json(s);
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    write(buffer);
+    buffer.clear();
+  }
+
+  private void write(ByteBuffer bytes) throws IOException {
+    while (bytes.hasRemaining()) {
+      position += out.write(bytes);
+    }
+  }
+
+  private void update_ui() {
+    if (progress_bar != null) {
+      progress_bar.setValue(++progress_info);
+      progress_bar.repaint();
+    }
+  }
+
+  private final String filename;
+  private final kSar mysar;
+  private final ByteBuffer buffer = ByteBuffer.allocate(8 * BUFFER_VALUES)
+      .order(ByteOrder.LITTLE_ENDIAN);
+  private final StringBuilder footer = new StringBuilder();
+  private FileChannel out;
+  private long position = 0;
+  private int graphs = 0;
+  private int progress_info = 0;
+  private JProgressBar progress_bar = null;
+  private JDialog dialog = null;
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.export;
+
+import net.atomique.ksar.VersionNumber;
+import net.atomique.ksar.graph.ColumnStore;
+import net.atomique.ksar.graph.Graph;
+import net.atomique.ksar.graph.List;
+import net.atomique.ksar.kSar;
+import net.atomique.ksar.ui.ParentNodeInfo;
+import net.atomique.ksar.ui.SortedTreeNode;
+import net.atomique.ksar.ui.TreeNodeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JDialog;
+import javax.swing.JProgressBar;
+
+/**
+ * Writes an HTML report of the print-selected graphs into a directory: an {@code index.html}
+ * with a sparkline per graph, and the samples of each graph in its own {@code data/*.js} chunk.
+ * The bundled viewer loads a chunk and draws the full chart only when its graph is opened, so
+ * the report opens fast whatever the number of graphs, even from the file system.
+ *
+ * <p>Chunks are written in parallel by {@link ExportWorkers}, each straight from the
+ * {@link ColumnStore} of its graph, so no more than one graph per worker is held as text.
+ */
+public class FileHTML implements Runnable {
+
+  private static final Logger log = LoggerFactory.getLogger(FileHTML.class);
+
+  static final String VIEWER = "ksar-report.js";
+
+  static final int SPARK_WIDTH = 160;
+  static final int SPARK_HEIGHT = 32;
+
+  public FileHTML(String directory, kSar hissar) {
+    this.directory = new File(directory);
+    mysar = hissar;
+  }
+
+  public FileHTML(String directory, kSar hissar, JProgressBar g, JDialog d) {
+    this(directory, hissar);
+
+    progress_bar = g;
+    dialog = d;
+  }
+
+  public void run() {
+    File data = new File(directory, "data");
+    if (!data.isDirectory() && !data.mkdirs()) {
+      log.error("Unable to create directory {}", data);
+      close_dialog();
+      return;
+    }
+
+    ExportWorkers<Entry> workers = new ExportWorkers<>(() -> this::write_chunk);
+    try {
+      export_treenode(mysar.graphtree, null, workers);
+    } finally {
+      workers.finish();
+    }
+
+    try (InputStream viewer = getClass().getResourceAsStream(VIEWER)) {
+      Files.copy(viewer, new File(directory, VIEWER).toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+      write_index();
+    } catch (IOException ex) {
+      log.error("HTML IO Exception", ex);
+    }
+    log.info("exported {} graphs to {}", entries.size(), directory);
+    close_dialog();
+  }
+
+  private void export_treenode(SortedTreeNode node, String section,
+      ExportWorkers<Entry> workers) {
+    int num = node.getChildCount();
+    if (num > 0) {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof ParentNodeInfo) {
+        ParentNodeInfo tmpnode = (ParentNodeInfo) obj1;
+        List nodeobj = tmpnode.getNode_object();
+        section = nodeobj.getTitle();
+      }
+      for (int i = 0; i < num; i++) {
+        SortedTreeNode l = (SortedTreeNode) node.getChildAt(i);
+        export_treenode(l, section, workers);
+      }
+    } else {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof TreeNodeInfo) {
+        TreeNodeInfo tmpnode = (TreeNodeInfo) obj1;
+        Graph nodeobj = tmpnode.getNode_object();
+        if (nodeobj.isPrintSelected()) {
+          int n = entries.size() + 1;
+          Entry entry = new Entry(nodeobj, section, String.format("g%04d", n),
+              "data/" + FileImages.file_name(n, nodeobj.getTitle(), "js"));
+          entries.add(entry);
+          workers.submit(entry);
+        }
+      }
+    }
+  }
+
+  private void write_chunk(Entry entry) {
+    File file = new File(directory, entry.chunk);
+    try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      ColumnStore store = entry.graph.getStore();
+      String[] colors = new String[store.getColumnCount()];
+      for (int c = 0; c < colors.length; c++) {
+        colors[c] = color(entry.graph.getSchema().getColor(c));
+      }
+      entry.sparkline = write_chunk(out, entry.id, entry.graph.getTitle(), store, colors);
+    } catch (IOException | RuntimeException ex) {
+      log.error("Unable to write to : {}", entry.chunk, ex);
+    }
+    update_ui();
+  }
+
+  /**
+   * Writes the samples of a graph as a call of the viewer, times in seconds from the previous
+   * sample and missing samples as null, and returns its sparkline.
+   */
+  static String write_chunk(Writer out, String id, String title, ColumnStore store,
+      String[] colors) throws IOException {
+    int rows = store.size();
+    int columns = store.getColumnCount();
+    out.write("ksarData(\"" + id + "\",{\"title\":" + json(title) + ",\"columns\":[");
+    for (int c = 0; c < columns; c++) {
+      out.write((c > 0 ? "," : "") + json(store.getColumnName(c)));
+    }
+    out.write("],\"colors\":[");
+    for (int c = 0; c < columns; c++) {
+      out.write((c > 0 ? ",\"" : "\"") + colors[c] + "\"");
+    }
+    out.write("],\"start\":" + (rows > 0 ? store.getMillis(0) : 0) + ",\"times\":[");
+    long previous = rows > 0 ? store.getTime(0) : 0;
+    for (int r = 0; r < rows; r++) {
+      long time = store.getTime(r);
+      out.write((r > 0 ? "," : "") + (time - previous));
+      previous = time;
+    }
+    out.write("],\"values\":[");
+
+    // the largest value of each column in each pixel of the sparkline
+    int buckets = Math.min(rows, SPARK_WIDTH);
+    double[][] spark = new double[columns][buckets];
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    StringBuilder line = new StringBuilder();
+    for (int c = 0; c < columns; c++) {
+      Arrays.fill(spark[c], Double.NaN);
+      out.write(c > 0 ? ",[" : "[");
+      for (int r = 0; r < rows; r++) {
+        double value = store.get(r, c);
+        line.setLength(0);
+        if (r > 0) {
+          line.append(',');
+        }
+        appendNumber(line, value);
+        out.append(line);
+        if (!Double.isNaN(value)) {
+          int b = (int) ((long) r * buckets / rows);
+          if (Double.isNaN(spark[c][b]) || value > spark[c][b]) {
+            spark[c][b] = value;
+          }
+          min = Math.min(min, value);
+          max = Math.max(max, value);
+        }
+      }
+      out.write("]");
+    }
+    out.write("]});\n");
+    return sparkline(colors, spark, Math.min(min, 0), max);
+  }
+
+  private static String sparkline(String[] colors, double[][] spark, double min, double max) {
+    StringBuilder svg = new StringBuilder();
+    svg.append("<svg width=\"").append(SPARK_WIDTH).append("\" height=\"").append(SPARK_HEIGHT)
+        .append("\">");
+    if (max > min) {
+      for (int c = 0; c < spark.length; c++) {
+        svg.append("<polyline fill=\"none\" stroke=\"").append(colors[c])
+            .append("\" points=\"");
+        for (int b = 0; b < spark[c].length; b++) {
+          if (Double.isNaN(spark[c][b])) {
+            continue;
+          }
+          long y = Math.round((SPARK_HEIGHT - 1) * (max - spark[c][b]) / (max - min));
+          svg.append(b).append(',').append(y).append(' ');
+        }
+        svg.append("\"/>");
+      }
+    }
+    svg.append("</svg>");
+    return svg.toString();
+  }
+
+  private static String color(Color c) {
+    if (c == null) {
+      return "#808080";
+    }
+    return String.format("#%06x", c.getRGB() & 0xffffff);
+  }
+
+  static void appendNumber(StringBuilder out, double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      out.append("null");
+    } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      out.append((long) value);
+    } else {
+      out.append(value);
+    }
+  }
+
+  static String json(String s) {
+    StringBuilder tmp = new StringBuilder(s.length() + 2).append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\') {
+        tmp.append('\\').append(c);
+      } else if (c < ' ' || c == '<') {
+        // '<' so that "</script>" in a title cannot end the chunk
+        tmp.append(String.format("\\u%04x", (int) c));
+      } else {
+        tmp.append(c);
+      }
+    }
+    return tmp.append('"').toString();
+  }
+
+  private void write_index() throws IOException {
+    File index = new File(directory, "index.html");
+    try (BufferedWriter out = Files.newBufferedWriter(index.toPath(), StandardCharsets.UTF_8)) {
+      String title = FileImages.escape(mysar.myparser.gethostName() + " "
+          + mysar.myparser.getDate());
+      out.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>" + title
+          + "</title>\n<script src=\"" + VIEWER + "\"></script>\n<style>\n"
+          + "summary svg { vertical-align: middle; margin-left: 1em; }\n"
+          + ".chart { min-height: 320px; }\n</style>\n</head>\n<body>\n<h1>" + title + "</h1>\n"
+          + "<p>kSar " + FileImages.escape(VersionNumber.getVersionString()) + "</p>\n");
+      String section = null;
+      for (Entry entry : entries) {
+        if (entry.section != null && !entry.section.equals(section)) {
+          out.write("<h2>" + FileImages.escape(entry.section) + "</h2>\n");
+        }
+        section = entry.section;
+        String graphTitle = FileImages.escape(entry.graph.getTitle());
+        if (entry.sparkline == null) {
+          out.write("<p>" + graphTitle + ": not exported</p>\n");
+          continue;
+        }
+        out.write("<details class=\"graph\"><summary>" + graphTitle + entry.sparkline
+            + "</summary><div class=\"chart\" id=\"" + entry.id + "\" data-src=\""
+            + entry.chunk + "\"></div></details>\n");
+      }
+      out.write("</body>\n</html>\n");
+    }
+  }
+
+  private void update_ui() {
+    int value = done.incrementAndGet();
+    if (progress_bar != null) {
+      progress_bar.setValue(value);
+      progress_bar.repaint();
+    }
+  }
+
+  private void close_dialog() {
+    if (dialog != null) {
+      dialog.dispose();
+    }
+  }
+
+  private static final class Entry {
+    final Graph graph;
+    final String section;
+    final String id;
+    final String chunk;
+    volatile String sparkline;
+
+    Entry(Graph graph, String section, String id, String chunk) {
+      this.graph = graph;
+      this.section = section;
+      this.id = id;
+      this.chunk = chunk;
+    }
+  }
+
+  private final File directory;
+  private final kSar mysar;
+  private final ArrayList<Entry> entries = new ArrayList<>();
+  private final AtomicInteger done = new AtomicInteger();
+  private JProgressBar progress_bar = null;
+  private JDialog dialog = null;
+}
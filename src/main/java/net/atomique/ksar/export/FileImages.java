@@ -0,0 +1,244 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.export;
+
+import net.atomique.ksar.Config;
+import net.atomique.ksar.graph.Graph;
+import net.atomique.ksar.graph.List;
+import net.atomique.ksar.kSar;
+import net.atomique.ksar.ui.ParentNodeInfo;
+import net.atomique.ksar.ui.SortedTreeNode;
+import net.atomique.ksar.ui.TreeNodeInfo;
+import org.jfree.chart.JFreeChart;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.imageio.ImageIO;
+import javax.swing.JDialog;
+import javax.swing.JProgressBar;
+
+/**
+ * Writes every print-selected graph, including the devices of a {@link List}, as an image into
+ * a directory, with an {@code index.html} showing them in tree order.
+ *
+ * <p>Graphs are rendered in parallel by {@link ExportWorkers}, each worker drawing into its own
+ * reused {@link BufferedImage}. Files are named after the position of the graph in the tree and
+ * its title, so an export of the same data gives the same names.
+ */
+public class FileImages implements Runnable {
+
+  private static final Logger log = LoggerFactory.getLogger(FileImages.class);
+
+  public static final String PNG = "png";
+  public static final String JPG = "jpg";
+
+  public FileImages(String directory, kSar hissar, String format) {
+    this.directory = new File(directory);
+    mysar = hissar;
+    this.format = format;
+    width = Config.getImageWidth();
+    height = Config.getImageHeight();
+  }
+
+  public FileImages(String directory, kSar hissar, String format, JProgressBar g, JDialog d) {
+    this(directory, hissar, format);
+
+    progress_bar = g;
+    dialog = d;
+  }
+
+  public void run() {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      log.error("Unable to create directory {}", directory);
+      close_dialog();
+      return;
+    }
+    start = mysar.myparser.getStartOfGraph();
+    end = mysar.myparser.getEndOfGraph();
+
+    ExportWorkers<Entry> workers = new ExportWorkers<>(Renderer::new);
+    try {
+      export_treenode(mysar.graphtree, null, workers);
+    } finally {
+      workers.finish();
+    }
+
+    try {
+      write_index();
+    } catch (IOException ex) {
+      log.error("Unable to write index of {}", directory, ex);
+    }
+    log.info("exported {} graphs to {}", entries.size(), directory);
+    close_dialog();
+  }
+
+  private void export_treenode(SortedTreeNode node, String section,
+      ExportWorkers<Entry> workers) {
+    int num = node.getChildCount();
+    if (num > 0) {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof ParentNodeInfo) {
+        ParentNodeInfo tmpnode = (ParentNodeInfo) obj1;
+        List nodeobj = tmpnode.getNode_object();
+        section = nodeobj.getTitle();
+      }
+      for (int i = 0; i < num; i++) {
+        SortedTreeNode l = (SortedTreeNode) node.getChildAt(i);
+        export_treenode(l, section, workers);
+      }
+    } else {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof TreeNodeInfo) {
+        TreeNodeInfo tmpnode = (TreeNodeInfo) obj1;
+        Graph nodeobj = tmpnode.getNode_object();
+        if (nodeobj.isPrintSelected()) {
+          Entry entry = new Entry(nodeobj, section,
+              file_name(entries.size() + 1, nodeobj.getTitle(), format));
+          entries.add(entry);
+          workers.submit(entry);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the name of the image of the n-th exported graph, e.g. {@code 0003-CPU_all.png}.
+   */
+  static String file_name(int n, String title, String format) {
+    String name = title.replaceAll("[^A-Za-z0-9._-]+", "_");
+    return String.format("%04d-%s.%s", n, name, format);
+  }
+
+  private void write_index() throws IOException {
+    File index = new File(directory, "index.html");
+    try (BufferedWriter out = Files.newBufferedWriter(index.toPath(), StandardCharsets.UTF_8)) {
+      String title = escape(mysar.myparser.gethostName() + " " + mysar.myparser.getDate());
+      out.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>" + title
+          + "</title>\n</head>\n<body>\n<h1>" + title + "</h1>\n");
+      String section = null;
+      for (Entry entry : entries) {
+        if (entry.section != null && !entry.section.equals(section)) {
+          out.write("<h2>" + escape(entry.section) + "</h2>\n");
+        }
+        section = entry.section;
+        String graphTitle = escape(entry.graph.getTitle());
+        if (entry.failed) {
+          out.write("<p>" + graphTitle + ": not exported</p>\n");
+        } else {
+          out.write("<p><img src=\"" + entry.file + "\" alt=\"" + graphTitle + "\" width=\""
+              + width + "\" height=\"" + height + "\"></p>\n");
+        }
+      }
+      out.write("</body>\n</html>\n");
+    }
+  }
+
+  static String escape(String s) {
+    StringBuilder tmp = new StringBuilder(s.length());
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '<':
+          tmp.append("&lt;");
+          break;
+        case '>':
+          tmp.append("&gt;");
+          break;
+        case '&':
+          tmp.append("&amp;");
+          break;
+        case '"':
+          tmp.append("&quot;");
+          break;
+        default:
+          tmp.append(c);
+      }
+    }
+    return tmp.toString();
+  }
+
+  private void update_ui() {
+    int value = done.incrementAndGet();
+    if (progress_bar != null) {
+      progress_bar.setValue(value);
+      progress_bar.repaint();
+    }
+  }
+
+  private void close_dialog() {
+    if (dialog != null) {
+      dialog.dispose();
+    }
+  }
+
+  private static final class Entry {
+    final Graph graph;
+    final String section;
+    final String file;
+    volatile boolean failed;
+
+    Entry(Graph graph, String section, String file) {
+      this.graph = graph;
+      this.section = section;
+      this.file = file;
+    }
+  }
+
+  // one per worker, the image is drawn over for each graph
+  private final class Renderer implements Consumer<Entry> {
+    private final BufferedImage image = new BufferedImage(width, height,
+        BufferedImage.TYPE_INT_RGB);
+    private final Rectangle2D area = new Rectangle2D.Double(0, 0, width, height);
+
+    @Override
+    public void accept(Entry entry) {
+      try {
+        JFreeChart chart = entry.graph.getgraph(start, end, Config.getExportResolution());
+        Graphics2D g2 = image.createGraphics();
+        try {
+          g2.setColor(Color.WHITE);
+          g2.fillRect(0, 0, width, height);
+          chart.draw(g2, area);
+        } finally {
+          g2.dispose();
+        }
+        File file = new File(directory, entry.file);
+        if (!ImageIO.write(image, JPG.equals(format) ? "jpeg" : format, file)) {
+          throw new IOException("no writer for " + format);
+        }
+      } catch (IOException | RuntimeException ex) {
+        entry.failed = true;
+        log.error("Unable to write to : {}", entry.file, ex);
+      }
+      update_ui();
+    }
+  }
+
+  private final File directory;
+  private final kSar mysar;
+  private final String format;
+  private final int width;
+  private final int height;
+  private final ArrayList<Entry> entries = new ArrayList<>();
+  private final AtomicInteger done = new AtomicInteger();
+  private LocalDateTime start;
+  private LocalDateTime end;
+  private JProgressBar progress_bar = null;
+  private JDialog dialog = null;
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.export;
+
+import net.atomique.ksar.graph.ColumnStore;
+import net.atomique.ksar.graph.Graph;
+import net.atomique.ksar.graph.List;
+import net.atomique.ksar.graph.Rollup;
+import net.atomique.ksar.kSar;
+import net.atomique.ksar.ui.ParentNodeInfo;
+import net.atomique.ksar.ui.SortedTreeNode;
+import net.atomique.ksar.ui.TreeNodeInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.swing.JDialog;
+import javax.swing.JProgressBar;
+
+/**
+ * Exports the print-selected graphs as OpenMetrics text, to backfill a time series database.
+ *
+ * <p>Each column of a graph is a metric family named {@code sar_<graph>_<column>}, with a
+ * {@code host} label and, for the devices of a {@link List}, a {@code device} label. Columns
+ * typed {@code gauge} in the configuration are gauges. Columns typed {@code counter} hold the
+ * per-second rates printed by sar; they are exported as counters, the rate times the interval
+ * summed from the first sample, so that {@code rate()} gives the sar value back. Other columns
+ * are of unknown type.
+ *
+ * <p>The target is a file, written as one exposition that {@code promtool tsdb
+ * create-blocks-from openmetrics} accepts, or an {@code http://} URL that gets one POST per
+ * time window of {@link #getChunkSeconds()}. Samples are streamed from the {@link ColumnStore}
+ * of each graph, so memory does not grow with the size of the input: a file is written family
+ * after family, a POST holds one window.
+ */
+public class FileOpenMetrics implements Runnable {
+
+  private static final Logger log = LoggerFactory.getLogger(FileOpenMetrics.class);
+
+  static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  public FileOpenMetrics(String target, kSar hissar) {
+    this.target = target;
+    mysar = hissar;
+  }
+
+  public FileOpenMetrics(String target, kSar hissar, JProgressBar g, JDialog d) {
+    this(target, hissar);
+
+    progress_bar = g;
+    dialog = d;
+  }
+
+  public int getChunkSeconds() {
+    return chunkSeconds;
+  }
+
+  public void setChunkSeconds(int chunkSeconds) {
+    this.chunkSeconds = chunkSeconds;
+  }
+
+  public void run() {
+    String host = mysar.myparser.gethostName();
+    hostLabel = "host=\"" + label_value(host == null ? "" : host) + "\"";
+    export_treenode(mysar.graphtree, null);
+
+    try {
+      if (is_url(target)) {
+        post_batches();
+      } else {
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(target),
+            StandardCharsets.UTF_8)) {
+          set_progress_maximum(families.size());
+          for (Family family : families.values()) {
+            family.write(out, Long.MAX_VALUE, true);
+            update_ui();
+          }
+          out.write("# EOF\n");
+        }
+      }
+    } catch (IOException ex) {
+      log.error("OpenMetrics export failed", ex);
+    }
+
+    if (dialog != null) {
+      dialog.dispose();
+    }
+  }
+
+  static boolean is_url(String target) {
+    String t = target.toLowerCase(Locale.ROOT);
+    return t.startsWith("http://") || t.startsWith("https://");
+  }
+
+  private void export_treenode(SortedTreeNode node, List parent) {
+    int num = node.getChildCount();
+    if (num > 0) {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof ParentNodeInfo) {
+        ParentNodeInfo tmpnode = (ParentNodeInfo) obj1;
+        parent = tmpnode.getNode_object();
+      }
+      for (int i = 0; i < num; i++) {
+        SortedTreeNode l = (SortedTreeNode) node.getChildAt(i);
+        export_treenode(l, parent);
+      }
+    } else {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof TreeNodeInfo) {
+        TreeNodeInfo tmpnode = (TreeNodeInfo) obj1;
+        Graph nodeobj = tmpnode.getNode_object();
+        if (nodeobj.isPrintSelected()) {
+          if (parent == null) {
+            add_series(nodeobj.getTitle(), hostLabel, nodeobj);
+          } else {
+            add_series(parent.getTitle(), hostLabel + ",device=\""
+                + label_value(tmpnode.getNode_title()) + "\"", nodeobj);
+          }
+        }
+      }
+    }
+  }
+
+  private void add_series(String graphName, String labels, Graph graph) {
+    ColumnStore store = graph.getStore();
+    for (int c = 0; c < store.getColumnCount(); c++) {
+      int type = graph.getSchema().getType(c);
+      String base = metric_name(graphName, store.getColumnName(c));
+      Family family = family(base, type, labels);
+      if (!family.name.equals(base)) {
+        log.warn("{} {} exported as {}, {} is taken by another column", graphName,
+            store.getColumnName(c), family.name, base);
+      }
+      family.add(new Series(labels, store, c));
+    }
+  }
+
+  /**
+   * Returns the family a series of the given type and labels goes to. When another column
+   * sanitized to the same name with another type or the same labels, this is a new family
+   * with the next free numeric suffix.
+   */
+  Family family(String base, int type, String labels) {
+    String name = base;
+    Family family = families.get(name);
+    for (int n = 2; family != null && !family.accepts(type, labels); n++) {
+      name = base + "_" + n;
+      family = families.get(name);
+    }
+    if (family == null) {
+      family = new Family(name, type);
+      families.put(name, family);
+    }
+    return family;
+  }
+
+  // one POST per time window, each a complete exposition
+  private void post_batches() throws IOException {
+    long first = Long.MAX_VALUE;
+    long last = Long.MIN_VALUE;
+    for (Family family : families.values()) {
+      for (Series series : family.series) {
+        int rows = series.store.size();
+        if (rows > 0) {
+          first = Math.min(first, series.store.getMillis(0));
+          last = Math.max(last, series.store.getMillis(rows - 1));
+        }
+      }
+    }
+    if (first > last) {
+      return;
+    }
+    long window = chunkSeconds * 1000L;
+    set_progress_maximum((int) ((last - first) / window + 1));
+    ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    for (long from = first; from <= last; from += window) {
+      batch.reset();
+      Writer out = new OutputStreamWriter(batch, StandardCharsets.UTF_8);
+      for (Family family : families.values()) {
+        family.write(out, from + window, true);
+      }
+      out.write("# EOF\n");
+      out.flush();
+      post(batch);
+      update_ui();
+    }
+  }
+
+  private void post(ByteArrayOutputStream batch) throws IOException {
+    HttpURLConnection cnx = (HttpURLConnection) new URL(target).openConnection();
+    try {
+      cnx.setRequestMethod("POST");
+      cnx.setDoOutput(true);
+      cnx.setRequestProperty("Content-Type", CONTENT_TYPE);
+      cnx.setFixedLengthStreamingMode(batch.size());
+      try (OutputStream body = cnx.getOutputStream()) {
+        batch.writeTo(body);
+      }
+      int code = cnx.getResponseCode();
+      if (code / 100 != 2) {
+        throw new IOException("POST to " + target + " returned " + code);
+      }
+    } finally {
+      cnx.disconnect();
+    }
+  }
+
+  /**
+   * Returns a valid metric name for a column of a graph, e.g. {@code sar_cpu_all_pct_user}
+   * for {@code %user} of {@code CPU all}.
+   */
+  static String metric_name(String graphName, String column) {
+    String name = "sar_" + graphName + "_" + column.replace("%", "pct_").replace("/", "_per_");
+    name = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]+", "_").replaceAll("_+", "_");
+    return name.endsWith("_") ? name.substring(0, name.length() - 1) : name;
+  }
+
+  static String label_value(String s) {
+    return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  static void append_timestamp(StringBuilder line, long millis) {
+    line.append(Math.floorDiv(millis, 1000));
+    long ms = Math.floorMod(millis, 1000);
+    if (ms != 0) {
+      line.append('.').append(ms / 100).append(ms / 10 % 10).append(ms % 10);
+    }
+  }
+
+  private void set_progress_maximum(int maximum) {
+    if (progress_bar != null) {
+      progress_bar.setMaximum(maximum);
+    }
+  }
+
+  private void update_ui() {
+    if (progress_bar != null) {
+      progress_bar.setValue(++progress_info);
+      progress_bar.repaint();
+    }
+  }
+
+  // the columns of one graph, or of all devices of a List
+  static final class Family {
+    final String name;
+    final int type;
+    final ArrayList<Series> series = new ArrayList<>();
+    private final HashSet<String> labels = new HashSet<>();
+
+    Family(String name, int type) {
+      this.name = name;
+      this.type = type;
+    }
+
+    void add(Series s) {
+      series.add(s);
+      labels.add(s.labels);
+    }
+
+    // a series of this type with these labels would not clash with the existing ones
+    boolean accepts(int type, String labels) {
+      return this.type == type && !this.labels.contains(labels);
+    }
+
+    /**
+     * Writes the samples of all series up to the given time, from where the previous call
+     * stopped, after the type line if asked for.
+     */
+    void write(Writer out, long to, boolean header) throws IOException {
+      // rates and per-interval amounts are both exported as running totals
+      boolean counter = type == Rollup.COUNTER || type == Rollup.DELTA;
+      String sample = counter ? name + "_total" : name;
+      if (header) {
+        out.write("# TYPE " + name + " "
+            + (counter ? "counter" : type == Rollup.GAUGE ? "gauge" : "unknown") + "\n");
+      }
+      StringBuilder line = new StringBuilder();
+      for (Series s : series) {
+        ColumnStore store = s.store;
+        int rows = store.size();
+        for (; s.next < rows; s.next++) {
+          long millis = store.getMillis(s.next);
+          if (millis >= to) {
+            break;
+          }
+          double value = store.get(s.next, s.column);
+          if (Double.isNaN(value)) {
+            // the rate during a gap is unknown, count from the next sample
+            s.previous = Long.MIN_VALUE;
+            continue;
+          }
+          long time = store.getTime(s.next);
+          if (type == Rollup.COUNTER) {
+            if (s.previous != Long.MIN_VALUE) {
+              s.total += value * (time - s.previous);
+            }
+            s.previous = time;
+            value = s.total;
+          } else if (type == Rollup.DELTA) {
+            s.total += value;
+            value = s.total;
+          }
+          line.setLength(0);
+          line.append(sample).append('{').append(s.labels).append("} ");
+          FileHTML.appendNumber(line, value);
+          line.append(' ');
+          append_timestamp(line, millis);
+          line.append('\n');
+          out.append(line);
+        }
+      }
+    }
+  }
+
+  // one column of one graph, with where its export got to
+  static final class Series {
+    final String labels;
+    final ColumnStore store;
+    final int column;
+    int next = 0;
+    long previous = Long.MIN_VALUE;
+    double total = 0;
+
+    Series(String labels, ColumnStore store, int column) {
+      this.labels = labels;
+      this.store = store;
+      this.column = column;
+    }
+  }
+
+  private final String target;
+  private final kSar mysar;
+  private final Map<String, Family> families = new LinkedHashMap<>();
+  private String hostLabel;
+  private int chunkSeconds = 3600;
+  private int progress_info = 0;
+  private JProgressBar progress_bar = null;
+  private JDialog dialog = null;
+}
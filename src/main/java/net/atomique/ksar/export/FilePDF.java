@@ -8,6 +8,8 @@ package net.atomique.ksar.export;
 import static com.itextpdf.text.FontFactory.COURIER;
 import static com.itextpdf.text.FontFactory.getFont;
 
+import com.itextpdf.awt.DefaultFontMapper;
+import com.itextpdf.awt.FontMapper;
 import com.itextpdf.awt.PdfGraphics2D;
 import com.itextpdf.text.BaseColor;
 import com.itextpdf.text.Document;
@@ -19,6 +21,7 @@ import com.itextpdf.text.pdf.PdfContentByte;
 import com.itextpdf.text.pdf.PdfDestination;
 import com.itextpdf.text.pdf.PdfOutline;
 import com.itextpdf.text.pdf.PdfPageEventHelper;
+import com.itextpdf.text.pdf.PdfStream;
 import com.itextpdf.text.pdf.PdfTemplate;
 import com.itextpdf.text.pdf.PdfWriter;
 import net.atomique.ksar.Config;
@@ -89,7 +92,8 @@ public class FilePDF extends PdfPageEventHelper implements Runnable {
       writer = PdfWriter.getInstance(document, new FileOutputStream(pdffilename));
 
       writer.setPageEvent(this);
-      writer.setCompressionLevel(0);
+      writer.setCompressionLevel(PdfStream.BEST_COMPRESSION);
+      writer.setFullCompression();
 
       // document parameter before open
       document.addTitle("kSar Grapher");
@@ -191,10 +195,12 @@ public class FilePDF extends PdfPageEventHelper implements Runnable {
   }
 
   private void addchart(PdfWriter writer, Graph graph) {
-    JFreeChart chart =
-        graph.getgraph(mysar.myparser.getStartOfGraph(), mysar.myparser.getEndOfGraph());
+    // no more samples than can be seen at the print resolution, see Decimator
+    int dots = (int) Math.ceil(pagewidth / 72 * Config.getPDFResolution());
+    JFreeChart chart = graph.getgraph(mysar.myparser.getStartOfGraph(),
+        mysar.myparser.getEndOfGraph(), Config.getExportResolution(), dots);
     PdfTemplate pdftpl = pdfcb.createTemplate(pagewidth, pageheight);
-    Graphics2D g2d = new PdfGraphics2D(pdftpl, pagewidth, pageheight);
+    Graphics2D g2d = new PdfGraphics2D(pdftpl, pagewidth, pageheight, fontMapper);
     Double r2d = new Rectangle2D.Double(0, 0, pagewidth, pageheight);
     chart.draw(g2d, r2d);
     g2d.dispose();
@@ -251,6 +257,8 @@ public class FilePDF extends PdfPageEventHelper implements Runnable {
   private PdfContentByte pdfcb;
   private kSar mysar;
   private BaseFont bf = getFont(COURIER).getCalculatedBaseFont(false);
+  // one for all charts, so that their fonts are embedded once
+  private final FontMapper fontMapper = new DefaultFontMapper();
   private JProgressBar progress_bar = null;
   private JDialog dialog = null;
 }
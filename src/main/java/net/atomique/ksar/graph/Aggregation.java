@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import java.util.Arrays;
+
+/**
+ * How the samples falling into one time bucket are combined. NaN samples are skipped; a bucket
+ * without any value gives NaN.
+ */
+public enum Aggregation {
+  AVG {
+    @Override
+    double apply(double[] v, int from, int to) {
+      double sum = 0;
+      int count = 0;
+      for (int i = from; i < to; i++) {
+        if (!Double.isNaN(v[i])) {
+          sum += v[i];
+          count++;
+        }
+      }
+      return count == 0 ? Double.NaN : sum / count;
+    }
+  },
+  MIN {
+    @Override
+    double apply(double[] v, int from, int to) {
+      double min = Double.NaN;
+      for (int i = from; i < to; i++) {
+        if (Double.isNaN(min) || v[i] < min) {
+          min = v[i];
+        }
+      }
+      return min;
+    }
+  },
+  MAX {
+    @Override
+    double apply(double[] v, int from, int to) {
+      double max = Double.NaN;
+      for (int i = from; i < to; i++) {
+        if (Double.isNaN(max) || v[i] > max) {
+          max = v[i];
+        }
+      }
+      return max;
+    }
+  },
+  SUM {
+    @Override
+    double apply(double[] v, int from, int to) {
+      double sum = Double.NaN;
+      for (int i = from; i < to; i++) {
+        if (!Double.isNaN(v[i])) {
+          sum = Double.isNaN(sum) ? v[i] : sum + v[i];
+        }
+      }
+      return sum;
+    }
+  },
+  LAST {
+    @Override
+    double apply(double[] v, int from, int to) {
+      for (int i = to - 1; i >= from; i--) {
+        if (!Double.isNaN(v[i])) {
+          return v[i];
+        }
+      }
+      return Double.NaN;
+    }
+  },
+  P95 {
+    @Override
+    double apply(double[] v, int from, int to) {
+      return percentile(v, from, to, 95);
+    }
+  },
+  P99 {
+    @Override
+    double apply(double[] v, int from, int to) {
+      return percentile(v, from, to, 99);
+    }
+  };
+
+  abstract double apply(double[] values, int from, int to);
+
+  static double percentile(double[] v, int from, int to, double p) {
+    double[] sorted = new double[to - from];
+    int n = 0;
+    for (int i = from; i < to; i++) {
+      if (!Double.isNaN(v[i])) {
+        sorted[n++] = v[i];
+      }
+    }
+    if (n == 0) {
+      return Double.NaN;
+    }
+    Arrays.sort(sorted, 0, n);
+    return percentile(sorted, n, p);
+  }
+
+  // nearest rank over the first n sorted values: the smallest value with at least p percent of
+  // the values at or below it
+  static double percentile(double[] sorted, int n, double p) {
+    int rank = (int) Math.ceil(p / 100 * n);
+    return sorted[Math.min(n, Math.max(rank, 1)) - 1];
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import java.time.LocalDateTime;
+
+/**
+ * A time window where a column of a graph strays from its recent samples, see
+ * {@link AnomalyDetector}.
+ */
+public final class Anomaly {
+
+  Anomaly(String graph, String column, long start, long end, long startMillis, long endMillis,
+      double score, double value) {
+    this.graph = graph;
+    this.column = column;
+    this.start = start;
+    this.end = end;
+    this.startMillis = startMillis;
+    this.endMillis = endMillis;
+    this.score = score;
+    this.value = value;
+  }
+
+  /**
+   * Returns the title of the graph.
+   */
+  public String getGraph() {
+    return graph;
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  public LocalDateTime getStart() {
+    return ColumnStore.toLocalDateTime(start);
+  }
+
+  public LocalDateTime getEnd() {
+    return ColumnStore.toLocalDateTime(end);
+  }
+
+  /**
+   * Returns the time of the first sample, in the milliseconds charts are drawn with.
+   */
+  public long getStartMillis() {
+    return startMillis;
+  }
+
+  public long getEndMillis() {
+    return endMillis;
+  }
+
+  /**
+   * Returns the largest robust z-score in the window, in absolute value; the higher, the
+   * stranger.
+   */
+  public double getScore() {
+    return score;
+  }
+
+  /**
+   * Returns the sample with the largest score.
+   */
+  public double getValue() {
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return graph + " " + column + " " + getStart() + " - " + getEnd() + " score " + score;
+  }
+
+  private final String graph;
+  private final String column;
+  private final long start;
+  private final long end;
+  private final long startMillis;
+  private final long endMillis;
+  private final double score;
+  private final double value;
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Finds the samples of a {@link ColumnStore} that stray from the ones just before them.
+ *
+ * <p>Each sample of a column is scored against the previous {@link #WINDOW} samples with a
+ * robust z-score, its distance to their median over their median absolute deviation. Samples
+ * scoring {@link #THRESHOLD} or more, up or down, are anomalous; consecutive ones, with up to
+ * {@link #GAP} normal samples between them, make one {@link Anomaly}. The median and the
+ * deviation are not moved by the spikes they are meant to find, unlike a mean and a standard
+ * deviation. A column that was constant over the whole window is not scored, as it gives no
+ * scale to judge by. Derived columns are not scored, their anomalies are those of the columns
+ * they are computed from.
+ *
+ * <p>The detector keeps its place: {@link #update(boolean)} only scores the samples after the
+ * last one it scored, so it can follow a parse that is still running. The place is a time, not
+ * a row, as a late sample inserted by the store shifts the rows after it; such a sample, older
+ * than the last scored one, is not scored.
+ */
+public class AnomalyDetector {
+
+  static final int WINDOW = 60;
+  // samples needed before scoring starts
+  static final int WARMUP = 10;
+  static final double THRESHOLD = 3.5;
+  static final int GAP = 2;
+
+  // 0.6745 makes the deviation of normal data comparable to a standard deviation
+  private static final double MAD_SCALE = 0.6745;
+
+  private static final Comparator<Anomaly> BY_SCORE =
+      Comparator.comparingDouble(Anomaly::getScore).reversed();
+
+  public AnomalyDetector(String graph, ColumnStore store) {
+    this.graph = graph;
+    this.store = store;
+    columns = new Column[store.getParsedCount()];
+    for (int c = 0; c < columns.length; c++) {
+      columns[c] = new Column(c);
+    }
+  }
+
+  /**
+   * Scores the samples added since the previous call.
+   *
+   * @param complete false while parsing, the last row is then left for the next call as its
+   *     values may still be coming
+   * @return the number of anomalies found so far
+   */
+  public synchronized int update(boolean complete) {
+    int rows = store.size();
+    if (!complete) {
+      rows--;
+    }
+    int row = last == Long.MIN_VALUE ? 0 : store.lowerBound(last + 1);
+    for (; row < rows; row++) {
+      long time = store.getTime(row);
+      if (time <= last) {
+        // a sample inserted meanwhile shifted this one
+        continue;
+      }
+      long millis = store.getMillis(row);
+      for (Column column : columns) {
+        column.add(time, millis, store.get(row, column.index));
+      }
+      last = time;
+    }
+    int count = found.size();
+    for (Column column : columns) {
+      if (column.openStart != Long.MIN_VALUE) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the anomalies found so far, highest score first, including those still open at
+   * the last sample.
+   */
+  public synchronized java.util.List<Anomaly> getAnomalies() {
+    ArrayList<Anomaly> anomalies = new ArrayList<>(found);
+    for (Column column : columns) {
+      if (column.openStart != Long.MIN_VALUE) {
+        anomalies.add(column.anomaly());
+      }
+    }
+    anomalies.sort(BY_SCORE);
+    return anomalies;
+  }
+
+  public synchronized boolean hasAnomalies() {
+    if (!found.isEmpty()) {
+      return true;
+    }
+    for (Column column : columns) {
+      if (column.openStart != Long.MIN_VALUE) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // distance of a value to the samples in history, 0 when they give no scale
+  private double score(double[] history, int count, double x) {
+    System.arraycopy(history, 0, scratch, 0, count);
+    Arrays.sort(scratch, 0, count);
+    double median = median(scratch, count);
+    double mean = 0;
+    for (int i = 0; i < count; i++) {
+      scratch[i] = Math.abs(scratch[i] - median);
+      mean += scratch[i];
+    }
+    Arrays.sort(scratch, 0, count);
+    double mad = median(scratch, count);
+    if (mad > 0) {
+      return MAD_SCALE * (x - median) / mad;
+    }
+    // more than half the samples are equal, use the mean deviation of the others
+    mean /= count;
+    if (mean > 0) {
+      return 0.7979 * (x - median) / mean;
+    }
+    return 0;
+  }
+
+  private static double median(double[] sorted, int count) {
+    int half = count / 2;
+    return count % 2 == 1 ? sorted[half] : (sorted[half - 1] + sorted[half]) / 2;
+  }
+
+  // history and open window of one column
+  private final class Column {
+    final int index;
+    final double[] history = new double[WINDOW];
+    int count = 0;
+    int pos = 0;
+    long openStart = Long.MIN_VALUE;
+    long openStartMillis;
+    long openEnd;
+    long openEndMillis;
+    double peakScore;
+    double peakValue;
+    int quiet;
+
+    Column(int index) {
+      this.index = index;
+    }
+
+    void add(long time, long millis, double x) {
+      if (Double.isNaN(x)) {
+        return;
+      }
+      if (count >= WARMUP) {
+        double z = Math.abs(score(history, count, x));
+        if (z >= THRESHOLD) {
+          if (openStart == Long.MIN_VALUE) {
+            openStart = time;
+            openStartMillis = millis;
+            peakScore = 0;
+          }
+          openEnd = time;
+          openEndMillis = millis;
+          quiet = 0;
+          if (z > peakScore) {
+            peakScore = z;
+            peakValue = x;
+          }
+        } else if (openStart != Long.MIN_VALUE) {
+          if (quiet++ == 0) {
+            // the window lasts until the first normal sample
+            openEnd = time;
+            openEndMillis = millis;
+          }
+          if (quiet > GAP) {
+            found.add(anomaly());
+            openStart = Long.MIN_VALUE;
+          }
+        }
+      }
+      history[pos] = x;
+      pos = (pos + 1) % WINDOW;
+      if (count < WINDOW) {
+        count++;
+      }
+    }
+
+    Anomaly anomaly() {
+      return new Anomaly(graph, store.getColumnName(index), openStart, openEnd, openStartMillis,
+          openEndMillis, peakScore, peakValue);
+    }
+  }
+
+  private final String graph;
+  private final ColumnStore store;
+  private final Column[] columns;
+  private final ArrayList<Anomaly> found = new ArrayList<>();
+  private final double[] scratch = new double[WINDOW];
+  // time of the last scored sample
+  private long last = Long.MIN_VALUE;
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Primitive storage of the samples of one graph: the ids of its timestamps in a {@link Timeline},
+ * sorted by time, and one array of values per column.
+ *
+ * <p>Timestamps are the sar wall-clock time in seconds, as returned by {@link #toKey}. Rows
+ * normally arrive in order and are appended; an out-of-order row is inserted with a binary
+ * search. Missing values are NaN.
+ *
+ * <p>The parsing thread is the only writer and takes no lock. A new row is published by a
+ * volatile write of the size once its arrays are in place; arrays are replaced rather than
+ * changed in place when they grow or when a row is inserted, so a reader sees consistent
+ * arrays up to the size it read, without a lock. Only {@link #query}, {@link #aggregate} and the
+ * evaluation of derived columns lock.
+ *
+ * <p>The last columns may be derived from the others, see {@link GraphSchema}. They are not
+ * written by the parser but evaluated when read: {@link #size()}, {@link #find}, {@link #query}
+ * and {@link #aggregate} first bring them up to date over the rows changed since the last read.
+ */
+public class ColumnStore {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  public ColumnStore(String[] columnNames) {
+    this(columnNames.clone(), new Timeline(), INITIAL_CAPACITY);
+  }
+
+  ColumnStore(GraphSchema schema, Timeline timeline) {
+    this(schema.columns(), timeline, INITIAL_CAPACITY, schema.derived());
+  }
+
+  // the names are not copied, callers pass an array nobody modifies
+  ColumnStore(String[] columnNames, Timeline timeline, int capacity) {
+    this(columnNames, timeline, capacity, new Expression[0]);
+  }
+
+  private ColumnStore(String[] columnNames, Timeline timeline, int capacity,
+      Expression[] derived) {
+    this.columnNames = columnNames;
+    this.timeline = timeline;
+    this.derived = derived;
+    parsedCount = columnNames.length - derived.length;
+    rows = new Rows(new int[capacity], new double[parsedCount][capacity], 0);
+    derivedValues = new double[derived.length][0];
+  }
+
+  public static long toKey(LocalDateTime ldt) {
+    return ldt.toEpochSecond(ZoneOffset.UTC);
+  }
+
+  public static LocalDateTime toLocalDateTime(long key) {
+    return LocalDateTime.ofEpochSecond(key, 0, ZoneOffset.UTC);
+  }
+
+  /**
+   * Returns the row of the given time, adding an empty one if needed. Only the parsing thread
+   * calls it.
+   */
+  public int row(long time) {
+    int id = timeline.intern(time);
+    Rows r = rows;
+    int n = size;
+    if (n > 0 && r.ids[n - 1] == id) {
+      return n - 1;
+    }
+    if (n == 0 || timeline.getTime(r.ids[n - 1]) < time) {
+      if (n == r.ids.length) {
+        r = r.grow(n, Math.max(INITIAL_CAPACITY, n * 2));
+        rows = r;
+      }
+      // past the published size, no reader looks at it yet
+      r.ids[n] = id;
+      size = n + 1;
+      version.lazySet(version.get() + 1);
+      return n;
+    }
+    int pos = search(r.ids, n, time);
+    if (pos >= 0) {
+      return pos;
+    }
+    // sar went back in time, e.g. at a day rollover: copy, readers keep the old arrays
+    pos = -pos - 1;
+    rows = r.insert(n, pos, id);
+    size = n + 1;
+    changed(pos);
+    return pos;
+  }
+
+  /**
+   * Sets a value. Only the parsing thread calls it.
+   */
+  public void set(int row, int column, double value) {
+    rows.values[column][row] = value;
+    if (row < size - 1) {
+      // the last row is always evaluated again, others have to be marked
+      changed(row);
+    } else {
+      version.lazySet(version.get() + 1);
+    }
+  }
+
+  public double get(int row, int column) {
+    if (column >= parsedCount) {
+      return derivedValues[column - parsedCount][row];
+    }
+    return rows.values[column][row];
+  }
+
+  public long getTime(int row) {
+    return timeline.getTime(rows.ids[row]);
+  }
+
+  /**
+   * Returns the time of a row as milliseconds since the epoch, see {@link Timeline#getMillis}.
+   */
+  public long getMillis(int row) {
+    return timeline.getMillis(rows.ids[row]);
+  }
+
+  public Timeline getTimeline() {
+    return timeline;
+  }
+
+  public int size() {
+    if (derived.length == 0) {
+      return size;
+    }
+    synchronized (this) {
+      return derive();
+    }
+  }
+
+  /**
+   * Returns a number that changes whenever the content changes, so that results computed from
+   * the store can be cached.
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  public int getColumnCount() {
+    return columnNames.length;
+  }
+
+  /**
+   * Returns the number of columns read from the input, the first ones; the others are derived.
+   */
+  public int getParsedCount() {
+    return parsedCount;
+  }
+
+  public String getColumnName(int column) {
+    return columnNames[column];
+  }
+
+  /**
+   * Returns the index of the given column, or -1.
+   */
+  public int indexOf(String columnName) {
+    for (int i = 0; i < columnNames.length; i++) {
+      if (columnNames[i].equals(columnName)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the first row at or after the given time; {@link #size()} if there is none.
+   */
+  public int lowerBound(long time) {
+    int n = size;
+    int pos = search(rows.ids, n, time);
+    return pos >= 0 ? pos : -pos - 1;
+  }
+
+  /**
+   * Returns the first row after the given time; {@link #size()} if there is none.
+   */
+  public int upperBound(long time) {
+    int n = size;
+    int pos = search(rows.ids, n, time);
+    return pos >= 0 ? pos + 1 : -pos - 1;
+  }
+
+  /**
+   * Returns the row of the given time, or -1.
+   */
+  public int find(long time) {
+    int n = size();
+    int pos = search(rows.ids, n, time);
+    return pos >= 0 ? pos : -1;
+  }
+
+  // same contract as Arrays.binarySearch over the first n rows; timestamps are unique
+  private int search(int[] ids, int n, long time) {
+    int low = 0;
+    int high = n - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long t = timeline.getTime(ids[mid]);
+      if (t < time) {
+        low = mid + 1;
+      } else if (t > time) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * Reads the given columns between two times, both inclusive.
+   *
+   * @param columns column indexes; all columns when null
+   * @param step bucket width in seconds; 0 returns the raw samples
+   * @param aggregation how samples in a bucket are combined, ignored for raw samples
+   */
+  public synchronized QueryResult query(int[] columns, long from, long to, long step,
+      Aggregation aggregation) {
+    int n = derive();
+    if (columns == null) {
+      columns = new int[columnNames.length];
+      for (int i = 0; i < columns.length; i++) {
+        columns[i] = i;
+      }
+    }
+    String[] names = new String[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      names[i] = columnNames[columns[i]];
+    }
+    Rows r = rows;
+    int start = bound(r.ids, n, from, false);
+    int end = bound(r.ids, n, to, true);
+    if (end < start) {
+      end = start;
+    }
+
+    if (step <= 0) {
+      long[] t = new long[end - start];
+      for (int row = start; row < end; row++) {
+        t[row - start] = timeline.getTime(r.ids[row]);
+      }
+      double[][] v = new double[columns.length][];
+      for (int i = 0; i < columns.length; i++) {
+        v[i] = Arrays.copyOfRange(column(r, columns[i]), start, end);
+      }
+      return new QueryResult(names, t, v);
+    }
+
+    // buckets are aligned on multiples of step, so consecutive queries line up
+    int buckets = 0;
+    long[] t = new long[end - start];
+    int[] bucketStart = new int[end - start + 1];
+    long current = Long.MIN_VALUE;
+    for (int row = start; row < end; row++) {
+      long bucket = Math.floorDiv(timeline.getTime(r.ids[row]), step) * step;
+      if (bucket != current) {
+        current = bucket;
+        t[buckets] = bucket;
+        bucketStart[buckets++] = row;
+      }
+    }
+    bucketStart[buckets] = end;
+    t = Arrays.copyOf(t, buckets);
+
+    double[][] v = new double[columns.length][buckets];
+    for (int i = 0; i < columns.length; i++) {
+      double[] src = column(r, columns[i]);
+      for (int b = 0; b < buckets; b++) {
+        v[i][b] = aggregation.apply(src, bucketStart[b], bucketStart[b + 1]);
+      }
+    }
+    return new QueryResult(names, t, v);
+  }
+
+  /**
+   * Combines the samples of one column between two times, both inclusive, into one value;
+   * NaN when there is none.
+   */
+  public synchronized double aggregate(int column, long from, long to, Aggregation aggregation) {
+    int n = derive();
+    Rows r = rows;
+    int start = bound(r.ids, n, from, false);
+    int end = bound(r.ids, n, to, true);
+    if (end <= start) {
+      return Double.NaN;
+    }
+    return aggregation.apply(column(r, column), start, end);
+  }
+
+  // values of a column for the expressions of the derived ones, under the lock
+  double[] copyOf(int column, int from, int to) {
+    return Arrays.copyOfRange(column(rows, column), from, to);
+  }
+
+  private double[] column(Rows r, int column) {
+    return column >= parsedCount ? derivedValues[column - parsedCount] : r.values[column];
+  }
+
+  // first row at or after the time, or after it when past is set
+  private int bound(int[] ids, int n, long time, boolean past) {
+    int pos = search(ids, n, time);
+    if (pos < 0) {
+      return -pos - 1;
+    }
+    return past ? pos + 1 : pos;
+  }
+
+  // a row other than the last one was written or inserted
+  private synchronized void changed(int row) {
+    dirty = Math.min(dirty, row);
+    version.lazySet(version.get() + 1);
+  }
+
+  // under the lock, returns the number of rows readable in all columns; the parser may append
+  // rows meanwhile, they are taken on the next call
+  private int derive() {
+    long start = version.get();
+    if (derived.length == 0) {
+      return size;
+    }
+    if (derivedVersion == start) {
+      return derivedRows;
+    }
+    int n = size;
+    // the last row may have been read while the parser was still filling it
+    int from = Math.max(0, Math.min(dirty, derivedRows - 1));
+    // reset first, so that rows written meanwhile stay dirty
+    dirty = n;
+    if (derivedValues.length > 0 && derivedValues[0].length < n) {
+      double[][] grown = new double[derived.length][];
+      for (int d = 0; d < derived.length; d++) {
+        grown[d] = Arrays.copyOf(derivedValues[d], Math.max(n, derivedValues[d].length * 2));
+      }
+      derivedValues = grown;
+    }
+    // a derived column may use the ones before it, so they are stored one by one
+    for (int d = 0; d < derived.length; d++) {
+      double[] v = derived[d].evaluate(this, from, n);
+      System.arraycopy(v, 0, derivedValues[d], from, v.length);
+    }
+    derivedRows = n;
+    derivedVersion = start;
+    return n;
+  }
+
+  // the row ids and the parsed values, replaced as a whole
+  private static final class Rows {
+
+    Rows(int[] ids, double[][] values, int filled) {
+      this.ids = ids;
+      this.values = values;
+      for (double[] v : values) {
+        Arrays.fill(v, filled, v.length, Double.NaN);
+      }
+    }
+
+    Rows grow(int n, int capacity) {
+      double[][] grown = new double[values.length][];
+      for (int c = 0; c < values.length; c++) {
+        grown[c] = Arrays.copyOf(values[c], capacity);
+      }
+      return new Rows(Arrays.copyOf(ids, capacity), grown, n);
+    }
+
+    // a copy with an empty row at pos
+    Rows insert(int n, int pos, int id) {
+      int capacity = Math.max(ids.length, n + 1);
+      int[] newIds = new int[capacity];
+      System.arraycopy(ids, 0, newIds, 0, pos);
+      newIds[pos] = id;
+      System.arraycopy(ids, pos, newIds, pos + 1, n - pos);
+      double[][] newValues = new double[values.length][capacity];
+      for (int c = 0; c < values.length; c++) {
+        System.arraycopy(values[c], 0, newValues[c], 0, pos);
+        newValues[c][pos] = Double.NaN;
+        System.arraycopy(values[c], pos, newValues[c], pos + 1, n - pos);
+      }
+      return new Rows(newIds, newValues, n + 1);
+    }
+
+    final int[] ids;
+    final double[][] values;
+  }
+
+  private final String[] columnNames;
+  private final Timeline timeline;
+  private final Expression[] derived;
+  private final int parsedCount;
+  private volatile Rows rows;
+  private volatile int size = 0;
+  // bumped by the parser with an ordered write, cheaper than a volatile one
+  private final AtomicLong version = new AtomicLong();
+  // written under the lock
+  private volatile double[][] derivedValues;
+  // first row whose derived columns may be out of date
+  private int dirty = 0;
+  private int derivedRows = 0;
+  private long derivedVersion = -1;
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Correlation of every pair of columns of some graphs over a time window, to see which metrics
+ * moved together, e.g. {@code %iowait} with the {@code await} of a disk.
+ *
+ * <p>The graphs of a parse share their timestamps, so the columns are lined up on the union of
+ * their times, a missing sample being NaN; a pair is correlated over the times where both have
+ * a sample. Derived columns are left out, they would only correlate with their own sources.
+ * Spearman ranks each column once over all its samples, then correlates the ranks like Pearson.
+ * Rows of the matrix are computed in parallel on the common fork-join pool; the work is a few
+ * multiply-adds per pair and time, so hundreds of columns over a day take well under a second.
+ */
+public final class Correlation {
+
+  public enum Method {
+    PEARSON, SPEARMAN
+  }
+
+  private static final Comparator<Pair> STRONGEST_FIRST =
+      Comparator.comparingDouble((Pair p) -> Math.abs(p.getValue())).reversed();
+
+  private Correlation(String[] graphs, String[] columns, double[][] matrix, int[][] counts) {
+    this.graphs = graphs;
+    this.columns = columns;
+    this.matrix = matrix;
+    this.counts = counts;
+  }
+
+  /**
+   * Correlates all columns of the given graphs between two times, both inclusive.
+   *
+   * @param from first time; the first sample when null
+   * @param to last time; the last sample when null
+   */
+  public static Correlation compute(java.util.List<Graph> selected, LocalDateTime from,
+      LocalDateTime to, Method method) {
+    String[] titles = new String[selected.size()];
+    ColumnStore[] stores = new ColumnStore[selected.size()];
+    for (int i = 0; i < titles.length; i++) {
+      titles[i] = selected.get(i).getTitle();
+      stores[i] = selected.get(i).getStore();
+    }
+    return compute(titles, stores, from, to, method);
+  }
+
+  static Correlation compute(String[] titles, ColumnStore[] stores, LocalDateTime from,
+      LocalDateTime to, Method method) {
+    long fromKey = from == null ? Long.MIN_VALUE : ColumnStore.toKey(from);
+    long toKey = to == null ? Long.MAX_VALUE : ColumnStore.toKey(to);
+
+    ArrayList<QueryResult> results = new ArrayList<>();
+    ArrayList<String> graphs = new ArrayList<>();
+    ArrayList<String> columns = new ArrayList<>();
+    long[] times = new long[0];
+    for (int g = 0; g < stores.length; g++) {
+      // a derived column only repeats the columns it is computed from
+      int[] parsed = new int[stores[g].getParsedCount()];
+      for (int c = 0; c < parsed.length; c++) {
+        parsed[c] = c;
+      }
+      QueryResult r = stores[g].query(parsed, fromKey, toKey, 0, Aggregation.AVG);
+      results.add(r);
+      for (String column : r.getColumns()) {
+        graphs.add(titles[g]);
+        columns.add(column);
+      }
+      times = union(times, r.getTimes());
+    }
+
+    // one array per column on the shared times
+    double[][] aligned = new double[columns.size()][];
+    int c = 0;
+    for (QueryResult r : results) {
+      long[] t = r.getTimes();
+      for (double[] values : r.getValues()) {
+        double[] row = new double[times.length];
+        Arrays.fill(row, Double.NaN);
+        int j = 0;
+        for (int i = 0; i < t.length; i++) {
+          while (times[j] < t[i]) {
+            j++;
+          }
+          row[j] = values[i];
+        }
+        aligned[c++] = method == Method.SPEARMAN ? ranks(row) : row;
+      }
+    }
+
+    int n = aligned.length;
+    double[][] matrix = new double[n][n];
+    int[][] counts = new int[n][n];
+    IntStream.range(0, n).parallel().forEach(a -> {
+      for (int b = a; b < n; b++) {
+        pearson(aligned[a], aligned[b], matrix, counts, a, b);
+      }
+    });
+    // the lower half mirrors the upper one
+    for (int a = 0; a < n; a++) {
+      for (int b = 0; b < a; b++) {
+        matrix[a][b] = matrix[b][a];
+        counts[a][b] = counts[b][a];
+      }
+    }
+    return new Correlation(graphs.toArray(new String[0]), columns.toArray(new String[0]),
+        matrix, counts);
+  }
+
+  private static void pearson(double[] x, double[] y, double[][] matrix, int[][] counts, int a,
+      int b) {
+    int count = 0;
+    double sx = 0;
+    double sy = 0;
+    for (int i = 0; i < x.length; i++) {
+      if (!Double.isNaN(x[i]) && !Double.isNaN(y[i])) {
+        count++;
+        sx += x[i];
+        sy += y[i];
+      }
+    }
+    counts[a][b] = count;
+    if (count < 2) {
+      matrix[a][b] = Double.NaN;
+      return;
+    }
+    double mx = sx / count;
+    double my = sy / count;
+    double sxy = 0;
+    double sxx = 0;
+    double syy = 0;
+    for (int i = 0; i < x.length; i++) {
+      if (!Double.isNaN(x[i]) && !Double.isNaN(y[i])) {
+        double dx = x[i] - mx;
+        double dy = y[i] - my;
+        sxy += dx * dy;
+        sxx += dx * dx;
+        syy += dy * dy;
+      }
+    }
+    // a constant column correlates with nothing
+    matrix[a][b] = sxx == 0 || syy == 0 ? Double.NaN : sxy / Math.sqrt(sxx * syy);
+  }
+
+  // ranks from 1, ties get the mean of their ranks, NaN stays NaN
+  static double[] ranks(double[] values) {
+    Integer[] order = new Integer[values.length];
+    int n = 0;
+    for (int i = 0; i < values.length; i++) {
+      if (!Double.isNaN(values[i])) {
+        order[n++] = i;
+      }
+    }
+    Arrays.sort(order, 0, n, Comparator.comparingDouble(i -> values[i]));
+    double[] ranks = new double[values.length];
+    Arrays.fill(ranks, Double.NaN);
+    for (int i = 0; i < n; ) {
+      int j = i;
+      while (j + 1 < n && values[order[j + 1]] == values[order[i]]) {
+        j++;
+      }
+      double rank = (i + j) / 2.0 + 1;
+      for (int k = i; k <= j; k++) {
+        ranks[order[k]] = rank;
+      }
+      i = j + 1;
+    }
+    return ranks;
+  }
+
+  private static long[] union(long[] a, long[] b) {
+    long[] merged = new long[a.length + b.length];
+    int i = 0;
+    int j = 0;
+    int n = 0;
+    while (i < a.length || j < b.length) {
+      long next;
+      if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+        next = a[i++];
+      } else {
+        next = b[j++];
+      }
+      if (n == 0 || merged[n - 1] != next) {
+        merged[n++] = next;
+      }
+    }
+    return Arrays.copyOf(merged, n);
+  }
+
+  public int size() {
+    return columns.length;
+  }
+
+  /**
+   * Returns the title of the graph of a column.
+   */
+  public String getGraph(int column) {
+    return graphs[column];
+  }
+
+  public String getColumn(int column) {
+    return columns[column];
+  }
+
+  public String getLabel(int column) {
+    return graphs[column] + " " + columns[column];
+  }
+
+  /**
+   * Returns the correlation of two columns, NaN when they have less than two samples in common
+   * or one of them is constant.
+   */
+  public double get(int a, int b) {
+    return matrix[a][b];
+  }
+
+  /**
+   * Returns the number of times both columns have a sample.
+   */
+  public int getCount(int a, int b) {
+    return counts[a][b];
+  }
+
+  /**
+   * Returns the pairs of different columns with a correlation, strongest first whatever its
+   * sign.
+   */
+  public java.util.List<Pair> getPairs() {
+    ArrayList<Pair> pairs = new ArrayList<>();
+    for (int a = 0; a < matrix.length; a++) {
+      for (int b = a + 1; b < matrix.length; b++) {
+        if (!Double.isNaN(matrix[a][b])) {
+          pairs.add(new Pair(a, b, matrix[a][b]));
+        }
+      }
+    }
+    pairs.sort(STRONGEST_FIRST);
+    return pairs;
+  }
+
+  /**
+   * Two columns, by index, and their correlation.
+   */
+  public static final class Pair {
+
+    Pair(int first, int second, double value) {
+      this.first = first;
+      this.second = second;
+      this.value = value;
+    }
+
+    public int getFirst() {
+      return first;
+    }
+
+    public int getSecond() {
+      return second;
+    }
+
+    public double getValue() {
+      return value;
+    }
+
+    private final int first;
+    private final int second;
+    private final double value;
+  }
+
+  private final String[] graphs;
+  private final String[] columns;
+  private final double[][] matrix;
+  private final int[][] counts;
+}
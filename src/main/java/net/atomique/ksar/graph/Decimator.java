@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import java.util.Arrays;
+
+/**
+ * Reduces the samples of a {@link ColumnStore} to what can be seen at a given width, for
+ * vector output where every sample would otherwise become a path segment.
+ *
+ * <p>The time range is split into as many buckets as there are dots across. A bucket keeps two
+ * rows: the smallest value of each column at the time of its first sample, and the largest at
+ * the time of its last one. Lines drawn through them cover the same dots as the full series,
+ * peaks included, whatever the number of samples.
+ *
+ * <p>Columns drawn stacked are not taken apart: peaks of different columns at different times
+ * would add up to a total that never happened, e.g. a CPU stack above 100%. The columns of a
+ * stack keep the values of the sample where their total is the smallest, and of the one where
+ * it is the largest.
+ */
+public final class Decimator {
+
+  private Decimator() {
+  }
+
+  /**
+   * Returns the decimated samples, or the source itself when it has no more than two samples
+   * per bucket.
+   */
+  public static ColumnStore decimate(ColumnStore source, int buckets) {
+    return decimate(source, buckets, null);
+  }
+
+  /**
+   * Like {@link #decimate(ColumnStore, int)}, keeping the columns of a stack together.
+   *
+   * @param stackOf the stack of each column, or -1, as {@link GraphSchema#getStackOf}; null
+   *     when nothing is stacked
+   */
+  public static ColumnStore decimate(ColumnStore source, int buckets, int[] stackOf) {
+    synchronized (source) {
+      int rows = source.size();
+      if (buckets <= 0 || rows <= 2 * buckets) {
+        return source;
+      }
+      int columns = source.getColumnCount();
+      ColumnStore target = new ColumnStore(columnNames(source), new Timeline(), 2 * buckets);
+      long first = source.getTime(0);
+      double width = (double) (source.getTime(rows - 1) - first + 1) / buckets;
+
+      int stacks = 0;
+      if (stackOf != null) {
+        for (int s : stackOf) {
+          stacks = Math.max(stacks, s + 1);
+        }
+      }
+      double[] min = new double[columns];
+      double[] max = new double[columns];
+      // per stack, the rows of the smallest and largest totals in the bucket
+      int[] minRow = new int[stacks];
+      int[] maxRow = new int[stacks];
+      double[] minTotal = new double[stacks];
+      double[] maxTotal = new double[stacks];
+      double[] total = new double[stacks];
+      int start = 0;
+      while (start < rows) {
+        int bucket = (int) ((source.getTime(start) - first) / width);
+        int end = start;
+        Arrays.fill(min, Double.NaN);
+        Arrays.fill(max, Double.NaN);
+        Arrays.fill(minRow, -1);
+        Arrays.fill(maxRow, -1);
+        while (end < rows && (int) ((source.getTime(end) - first) / width) == bucket) {
+          Arrays.fill(total, Double.NaN);
+          for (int c = 0; c < columns; c++) {
+            double value = source.get(end, c);
+            if (Double.isNaN(value)) {
+              continue;
+            }
+            int stack = stackOf == null || c >= stackOf.length ? -1 : stackOf[c];
+            if (stack >= 0) {
+              total[stack] = Double.isNaN(total[stack]) ? value : total[stack] + value;
+              continue;
+            }
+            if (Double.isNaN(min[c]) || value < min[c]) {
+              min[c] = value;
+            }
+            if (Double.isNaN(max[c]) || value > max[c]) {
+              max[c] = value;
+            }
+          }
+          for (int s = 0; s < stacks; s++) {
+            if (Double.isNaN(total[s])) {
+              continue;
+            }
+            if (minRow[s] < 0 || total[s] < minTotal[s]) {
+              minRow[s] = end;
+              minTotal[s] = total[s];
+            }
+            if (maxRow[s] < 0 || total[s] > maxTotal[s]) {
+              maxRow[s] = end;
+              maxTotal[s] = total[s];
+            }
+          }
+          end++;
+        }
+        for (int c = 0; c < columns && stacks > 0; c++) {
+          int stack = c < stackOf.length ? stackOf[c] : -1;
+          if (stack >= 0 && minRow[stack] >= 0) {
+            min[c] = source.get(minRow[stack], c);
+            max[c] = source.get(maxRow[stack], c);
+          }
+        }
+        int row = target.row(source.getTime(start));
+        for (int c = 0; c < columns; c++) {
+          target.set(row, c, min[c]);
+        }
+        if (end - start > 1) {
+          row = target.row(source.getTime(end - 1));
+          for (int c = 0; c < columns; c++) {
+            target.set(row, c, max[c]);
+          }
+        }
+        start = end;
+      }
+      return target;
+    }
+  }
+
+  private static String[] columnNames(ColumnStore source) {
+    String[] names = new String[source.getColumnCount()];
+    for (int c = 0; c < names.length; c++) {
+      names[c] = source.getColumnName(c);
+    }
+    return names;
+  }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Arithmetic over the columns of a graph, the definition of a derived column, e.g.
+ * {@code rkB/s + wkB/s} or {@code kbmemused * 100 / (kbmemused + kbmemfree)}.
+ *
+ * <p>It has numbers, column names, {@code + - * /}, parentheses and the functions
+ * {@code rate(x)}, the change of a counter per second, {@code abs(x)}, {@code min(a, b)} and
+ * {@code max(a, b)}. Column names may hold {@code /}, {@code %} or {@code -}, so the longest
+ * known column name at a position is taken; a name can also be written in brackets,
+ * {@code [r/s]}. A division by zero, a missing sample or a counter going backwards gives NaN.
+ *
+ * <p>An expression is evaluated over a range of rows at once, one array per operand, rather
+ * than row by row.
+ */
+public final class Expression {
+
+  private Expression(String text, Node root) {
+    this.text = text;
+    this.root = root;
+  }
+
+  /**
+   * Compiles an expression.
+   *
+   * @param columns the columns it may use, by name; their index is their position
+   * @throws IllegalArgumentException if the text does not parse or names an unknown column
+   */
+  public static Expression parse(String text, Collection<String> columns) {
+    Parser parser = new Parser(text, columns.toArray(new String[0]));
+    Node root = parser.expression();
+    parser.skipSpaces();
+    if (parser.pos < text.length()) {
+      throw parser.error("unexpected '" + text.charAt(parser.pos) + "'");
+    }
+    return new Expression(text, root);
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * Returns the values of rows from, inclusive, to to, exclusive. The caller holds the lock of
+   * the store.
+   */
+  double[] evaluate(ColumnStore store, int from, int to) {
+    return root.evaluate(store, from, to);
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+
+  // one operand or operation, evaluated over a range of rows
+  private interface Node {
+    double[] evaluate(ColumnStore store, int from, int to);
+  }
+
+  private interface Operator {
+    double apply(double a, double b);
+  }
+
+  private static Node map(Node operand, DoubleUnaryOperator function) {
+    return (store, from, to) -> {
+      double[] a = operand.evaluate(store, from, to);
+      for (int i = 0; i < a.length; i++) {
+        a[i] = function.applyAsDouble(a[i]);
+      }
+      return a;
+    };
+  }
+
+  private static Node binary(Node left, Node right, Operator operator) {
+    return (store, from, to) -> {
+      double[] a = left.evaluate(store, from, to);
+      double[] b = right.evaluate(store, from, to);
+      for (int i = 0; i < a.length; i++) {
+        a[i] = operator.apply(a[i], b[i]);
+      }
+      return a;
+    };
+  }
+
+  private static double divide(double a, double b) {
+    return b == 0 ? Double.NaN : a / b;
+  }
+
+  private static Node rate(Node counter) {
+    return (store, from, to) -> {
+      // the first row needs the one before it
+      int start = Math.max(0, from - 1);
+      double[] x = counter.evaluate(store, start, to);
+      double[] rate = new double[to - from];
+      for (int row = from; row < to; row++) {
+        int i = row - start;
+        if (i == 0) {
+          rate[row - from] = Double.NaN;
+          continue;
+        }
+        double delta = x[i] - x[i - 1];
+        long seconds = store.getTime(row) - store.getTime(row - 1);
+        // a negative delta is a counter reset
+        rate[row - from] = delta < 0 || seconds <= 0 ? Double.NaN : delta / seconds;
+      }
+      return rate;
+    };
+  }
+
+  private static final class Parser {
+
+    Parser(String text, String[] columns) {
+      this.text = text;
+      this.columns = columns;
+    }
+
+    Node expression() {
+      Node node = term();
+      while (true) {
+        if (accept('+')) {
+          node = binary(node, term(), (a, b) -> a + b);
+        } else if (accept('-')) {
+          node = binary(node, term(), (a, b) -> a - b);
+        } else {
+          return node;
+        }
+      }
+    }
+
+    Node term() {
+      Node node = unary();
+      while (true) {
+        if (accept('*')) {
+          node = binary(node, unary(), (a, b) -> a * b);
+        } else if (accept('/')) {
+          node = binary(node, unary(), Expression::divide);
+        } else {
+          return node;
+        }
+      }
+    }
+
+    Node unary() {
+      if (accept('-')) {
+        return map(unary(), a -> -a);
+      }
+      return primary();
+    }
+
+    Node primary() {
+      skipSpaces();
+      if (pos >= text.length()) {
+        throw error("missing operand");
+      }
+      char c = text.charAt(pos);
+      if (accept('(')) {
+        Node node = expression();
+        expect(')');
+        return node;
+      }
+      if (c == '[') {
+        int end = text.indexOf(']', pos);
+        if (end < 0) {
+          throw error("missing ']'");
+        }
+        String name = text.substring(pos + 1, end);
+        int column = indexOf(name);
+        if (column < 0) {
+          throw error("unknown column " + name);
+        }
+        pos = end + 1;
+        return column(column);
+      }
+      if (isFunction()) {
+        return function();
+      }
+      // a column before a number: names like 1min exist
+      int column = longestColumn();
+      if (column >= 0) {
+        pos += columns[column].length();
+        return column(column);
+      }
+      if (Character.isDigit(c) || c == '.') {
+        return number();
+      }
+      if (Character.isLetter(c)) {
+        return function();
+      }
+      throw error("unexpected '" + c + "'");
+    }
+
+    Node number() {
+      int start = pos;
+      while (pos < text.length()
+          && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+        pos++;
+      }
+      double value;
+      try {
+        value = Double.parseDouble(text.substring(start, pos));
+      } catch (NumberFormatException ex) {
+        pos = start;
+        throw error("bad number");
+      }
+      return (store, from, to) -> {
+        double[] a = new double[to - from];
+        Arrays.fill(a, value);
+        return a;
+      };
+    }
+
+    Node function() {
+      int start = pos;
+      while (pos < text.length() && Character.isLetter(text.charAt(pos))) {
+        pos++;
+      }
+      String name = text.substring(start, pos);
+      if (!accept('(')) {
+        pos = start;
+        throw error("unknown column or function " + name);
+      }
+      Node first = expression();
+      Node node;
+      switch (name) {
+        case "rate":
+          node = rate(first);
+          break;
+        case "abs":
+          node = map(first, Math::abs);
+          break;
+        case "min":
+          expect(',');
+          node = binary(first, expression(), Math::min);
+          break;
+        case "max":
+          expect(',');
+          node = binary(first, expression(), Math::max);
+          break;
+        default:
+          pos = start;
+          throw error("unknown function " + name);
+      }
+      expect(')');
+      return node;
+    }
+
+    // a name of letters followed by a parenthesis
+    boolean isFunction() {
+      int end = pos;
+      while (end < text.length() && Character.isLetter(text.charAt(end))) {
+        end++;
+      }
+      while (end < text.length() && Character.isWhitespace(text.charAt(end))) {
+        end++;
+      }
+      return end > pos && end < text.length() && text.charAt(end) == '(';
+    }
+
+    Node column(int column) {
+      return (store, from, to) -> store.copyOf(column, from, to);
+    }
+
+    int longestColumn() {
+      int found = -1;
+      for (int c = 0; c < columns.length; c++) {
+        if (text.startsWith(columns[c], pos)
+            && (found < 0 || columns[c].length() > columns[found].length())) {
+          found = c;
+        }
+      }
+      return found;
+    }
+
+    int indexOf(String name) {
+      for (int c = 0; c < columns.length; c++) {
+        if (columns[c].equals(name)) {
+          return c;
+        }
+      }
+      return -1;
+    }
+
+    boolean accept(char c) {
+      skipSpaces();
+      if (pos < text.length() && text.charAt(pos) == c) {
+        pos++;
+        return true;
+      }
+      return false;
+    }
+
+    void expect(char c) {
+      if (!accept(c)) {
+        throw error("expected '" + c + "'");
+      }
+    }
+
+    void skipSpaces() {
+      while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+        pos++;
+      }
+    }
+
+    IllegalArgumentException error(String message) {
+      return new IllegalArgumentException(message + " at " + pos + " in " + text);
+    }
+
+    private final String text;
+    private final String[] columns;
+    private int pos = 0;
+  }
+
+  private final String text;
+  private final Node root;
+}
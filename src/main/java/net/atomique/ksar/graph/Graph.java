@@ -6,14 +6,13 @@
 package net.atomique.ksar.graph;
 
 import net.atomique.ksar.Config;
-import net.atomique.ksar.GlobalOptions;
 import net.atomique.ksar.kSar;
 import net.atomique.ksar.ui.SortedTreeNode;
 import net.atomique.ksar.ui.TreeNodeInfo;
 import net.atomique.ksar.xml.ColumnConfig;
+import net.atomique.ksar.xml.CompiledStat;
 import net.atomique.ksar.xml.GraphConfig;
 import net.atomique.ksar.xml.PlotStackConfig;
-import net.atomique.ksar.xml.StatConfig;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.ChartUtils;
 import org.jfree.chart.JFreeChart;
@@ -21,14 +20,14 @@ import org.jfree.chart.LegendItem;
 import org.jfree.chart.axis.DateAxis;
 import org.jfree.chart.axis.NumberAxis;
 import org.jfree.chart.plot.CombinedDomainXYPlot;
+import org.jfree.chart.plot.IntervalMarker;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.renderer.xy.StackedXYAreaRenderer2;
 import org.jfree.chart.renderer.xy.StandardXYItemRenderer;
 import org.jfree.chart.renderer.xy.XYItemRenderer;
-import org.jfree.data.general.SeriesException;
-import org.jfree.data.time.*;
-import org.jfree.data.xy.XYDataset;
+import org.jfree.chart.ui.Layer;
+import org.jfree.data.time.Second;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,76 +36,58 @@ import java.awt.event.ItemEvent;
 import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import javax.swing.*;
 
-public class Graph {
+public class Graph implements LineHandler {
 
   private static final Logger log = LoggerFactory.getLogger(Graph.class);
 
+  // how often a chart shown while parsing is redrawn
+  private static final long REFRESH_MILLIS = 500;
+
+  private static final Color ANOMALY_COLOR = new Color(255, 80, 80);
+
   public Graph(kSar hissar, GraphConfig g, String Title, String hdrs, int firstdatacolumn,
       SortedTreeNode pp) {
     mysar = hissar;
     graphtitle = Title;
     graphconfig = g;
-    printCheckBox = new JCheckBox(graphtitle, printSelected);
-    printCheckBox.addItemListener((ItemEvent evt) -> {
-
-      if (evt.getSource() == printCheckBox) {
-        printSelected = printCheckBox.isSelected();
-      }
-
-    });
-    firstDataColumn = firstdatacolumn;
+    schema = GraphSchema.of(g, hdrs, firstdatacolumn);
+    // values are only rewritten when the input may use a decimal comma
+    decimalComma = mysar.myparser == null
+        || mysar.myparser.getDialect().getDecimalSeparator() != '.';
     if (pp != null) {
       TreeNodeInfo infotmp = new TreeNodeInfo(Title, this);
       SortedTreeNode nodetmp = new SortedTreeNode(infotmp);
       mysar.add2tree(pp, nodetmp);
     }
-    HeaderStr = hdrs.split("\\s+");
     create_DataStore();
   }
 
   private void create_DataStore() {
-    // create timeseries
-    for (int i = firstDataColumn; i < HeaderStr.length; i++) {
-      Stats.add(new TimeSeries(HeaderStr[i]));
-    }
-    // create stack
-    for (PlotStackConfig tmp : graphconfig.getStacklist().values()) {
-      TimeTableXYDataset tmp2 = new TimeTableXYDataset();
-      String[] s = tmp.getHeaderStr().split("\\s+");
-      for (String value : s) {
-        StackListbyCol.put(value, tmp2);
-      }
-      StackListbyName.put(tmp.getTitle(), tmp2);
-    }
-  }
-
-  public int parse_line(LocalDateTime ldt, String s) {
-
-    Second now = new Second(ldt.getSecond(),
-        ldt.getMinute(),
-        ldt.getHour(),
-        ldt.getDayOfMonth(),
-        ldt.getMonthValue(),
-        ldt.getYear());
-
-    parse_line(now, s);
-    return 0;
+    // all graphs of a parse share its timestamps
+    Timeline timeline = mysar.myparser != null ? mysar.myparser.getTimeline() : new Timeline();
+    store = new ColumnStore(schema, timeline);
   }
 
-  public int parse_line(Second now, String s) {
-    String[] cols = s.split("\\s+");
+  @Override
+  public int parse_line(LocalDateTime ldt, String s, String[] cols) {
+    long key = ColumnStore.toKey(ldt);
     double colvalue;
+    int row = -1;
+    int firstDataColumn = schema.getFirstDataColumn();
     //log.debug("graph parsing: {}", s);
-    for (int i = firstDataColumn; i < HeaderStr.length; i++) {
+    for (int c = 0; c < schema.getParsedCount(); c++) {
+      int i = firstDataColumn + c;
       try {
         //ToDo: refactor "replace decimal separator" - allow local configuration for input file
-        colvalue = Double.parseDouble(cols[i].replace(',','.'));
+        colvalue = Double.parseDouble(decimalComma ? cols[i].replace(',','.') : cols[i]);
       } catch (NumberFormatException ne) {
         log.error("{} {} is NaN", graphtitle, cols[i]);
         return 0;
@@ -119,113 +100,172 @@ public class Graph {
         return 0;
       }
 
-      add_datapoint_plot(now, i - firstDataColumn, HeaderStr[i - firstDataColumn], colvalue);
-
-
-      TimeTableXYDataset tmp = StackListbyCol.get(HeaderStr[i]);
-      if (tmp != null) {
-        add_datapoint_stack(tmp, now, i, HeaderStr[i], colvalue);
+      if (row < 0) {
+        row = store.row(key);
       }
+      add_datapoint_plot(row, c, colvalue);
     }
 
+    if (chartDatasets != null && System.currentTimeMillis() - lastRefresh >= REFRESH_MILLIS) {
+      refresh();
+    }
     return 0;
   }
 
-  private boolean add_datapoint_stack(TimeTableXYDataset dataset, Second now, int col,
-      String colheader, double value) {
-    try {
-      dataset.add(now, value, colheader);
-
+  private boolean add_datapoint_plot(int row, int col, double value) {
+    double oldval = store.get(row, col);
+    if (Double.isNaN(oldval)) {
+      store.set(row, col, value);
       return true;
-    } catch (SeriesException se) {
-      /*
-       *
-       * not update on stack
-       *
-      int indexcol = -1;
-      // add not working
-      // find timeseries index
-      for (int i = 0; i < dataset.getSeriesCount(); i++) {
-          String name = (String) dataset.getSeriesKey(i);
-          if (colheader.equals(name)) {
-              indexcol = i;
-              break;
-          }
-          log.debug("{}: {}" , dataset.indexOf(name), name);
-      }
-      if (indexcol == -1) {
+    }
+    // time already there, check if column can be updated
+    CompiledStat statconfig = mysar.myparser.getCurrentCompiledStat();
+    if (statconfig != null) {
+      if (statconfig.canDuplicateTime()) {
+        double tempval;
+        int type = schema.getType(col);
+        if (type == Rollup.GAUGE) {
+          tempval = ((oldval + value) / 2);
+        } else if (type == Rollup.COUNTER || type == Rollup.DELTA) {
+          tempval = (oldval + value);
+        } else {
           return false;
+        }
+        store.set(row, col, tempval);
+        return true;
       }
-      StatConfig statconfig = ((OSParser) mysar.myparser).get_OSConfig().getStat(mysar.myparser.getCurrentStat());
-      if (statconfig != null) {
-          if (statconfig.canDuplicateTime()) {
-              Number oldval = dataset.getXValue(indexcol, col);
-              double tempval;
-              if (oldval == null) {
-                  return false;
-              }
-              ColumnConfig colconfig = GlobalOptions.getColumnConfig(colheader);
-              if (colconfig.getType() == 1) {
-                  tempval = ((oldval.doubleValue() + value) / 2);
-              } else if (colconfig.getType() == 2) {
-                  tempval = (oldval.doubleValue() + value);
-              } else {
-                  return false;
-              }
-
-              try {
-                  ((TimeSeries) (Stats.get(col))).update(now, tempval);
-                  return true;
-              } catch (SeriesException se2) {
-                  return false;
-              }
-          }
+    }
+    return false;
+  }
+
+  /**
+   * Redraws the chart of this graph, if it has one, with the samples parsed so far.
+   */
+  @Override
+  public void refresh() {
+    StoreDataset[] datasets = chartDatasets;
+    if (datasets == null) {
+      return;
+    }
+    lastRefresh = System.currentTimeMillis();
+    for (StoreDataset dataset : datasets) {
+      dataset.refresh();
+    }
+  }
+
+  public ColumnStore getStore() {
+    return store;
+  }
+
+  /**
+   * Runs the anomaly detector from where it stopped, see {@link AnomalyDetector#update}. The
+   * detector is made on the first pass, so graphs nobody looks for anomalies in, e.g. the
+   * thousands of devices of a large host, do not keep its history.
+   *
+   * @return the number of anomalies found so far
+   */
+  public int detect_anomalies(boolean complete) {
+    AnomalyDetector detector;
+    synchronized (this) {
+      if (anomalies == null) {
+        anomalies = new AnomalyDetector(graphtitle, store);
       }
-      */
-      return false;
+      detector = anomalies;
     }
+    return detector.update(complete);
+  }
 
+  public boolean hasAnomalies() {
+    AnomalyDetector detector = anomalies;
+    return detector != null && detector.hasAnomalies();
   }
 
-  private boolean add_datapoint_plot(Second now, int col, String colheader, double value) {
-    try {
-      ((Stats.get(col))).add(now, value);
-      return true;
-    } catch (SeriesException se) {
-      // insert not possible
-      // check if column can be updated
-      StatConfig statconfig =
-          mysar.myparser.get_OSConfig().getStat(mysar.myparser.getCurrentStat());
-      if (statconfig != null) {
-        if (statconfig.canDuplicateTime()) {
-          Number oldval = ((Stats.get(col))).getValue(now);
-          double tempval;
-          if (oldval == null) {
-            return false;
-          }
-          ColumnConfig colconfig = GlobalOptions.getColumnConfig(colheader);
-          if (colconfig == null) {
-            return false;
-          }
-          if (colconfig.getType() == 1) {
-            tempval = ((oldval.doubleValue() + value) / 2);
-          } else if (colconfig.getType() == 2) {
-            tempval = (oldval.doubleValue() + value);
-          } else {
-            return false;
-          }
+  /**
+   * Returns the anomalies found so far, highest score first; none before the first pass.
+   */
+  public java.util.List<Anomaly> getAnomalies() {
+    AnomalyDetector detector = anomalies;
+    return detector == null ? new ArrayList<>() : detector.getAnomalies();
+  }
 
-          try {
-            ( (Stats.get(col))).update(now, tempval);
-            return true;
-          } catch (SeriesException se2) {
-            return false;
-          }
+  /**
+   * Marks the windows found by the anomaly detector on the chart, once it is drawn.
+   */
+  public void showAnomalies() {
+    JFreeChart chart = mygraph;
+    if (chart != null) {
+      SwingUtilities.invokeLater(() -> mark_anomalies(chart));
+    }
+  }
+
+  private void mark_anomalies(JFreeChart chart) {
+    java.util.List<Anomaly> found = getAnomalies();
+    for (Object subplot : ((CombinedDomainXYPlot) chart.getPlot()).getSubplots()) {
+      XYPlot plot = (XYPlot) subplot;
+      plot.clearDomainMarkers();
+      for (Anomaly anomaly : found) {
+        IntervalMarker marker = new IntervalMarker(anomaly.getStartMillis(),
+            anomaly.getEndMillis());
+        marker.setPaint(ANOMALY_COLOR);
+        marker.setAlpha(0.3F);
+        plot.addDomainMarker(marker, Layer.BACKGROUND);
+      }
+    }
+  }
+
+  /**
+   * Reads parsed values without going through JFreeChart.
+   *
+   * @param columns column names; all columns when null
+   * @param from first time, inclusive; the first sample when null
+   * @param to last time, inclusive; the last sample when null
+   * @param step bucket width in seconds; 0 returns the raw samples
+   * @param aggregation how samples in a bucket are combined
+   */
+  public QueryResult query(String[] columns, LocalDateTime from, LocalDateTime to, long step,
+      Aggregation aggregation) {
+    int[] indexes = null;
+    if (columns != null) {
+      indexes = new int[columns.length];
+      for (int i = 0; i < columns.length; i++) {
+        indexes[i] = store.indexOf(columns[i]);
+        if (indexes[i] < 0) {
+          throw new IllegalArgumentException(graphtitle + " has no column " + columns[i]);
         }
       }
-      return false;
     }
+    long fromKey = from == null ? Long.MIN_VALUE : ColumnStore.toKey(from);
+    long toKey = to == null ? Long.MAX_VALUE : ColumnStore.toKey(to);
+    return store.query(indexes, fromKey, toKey, step, aggregation);
+  }
 
+  /**
+   * Returns the column types from the color configuration, see {@link ColumnConfig#getType()}.
+   */
+  public int[] getColumnTypes() {
+    return schema.getTypes();
+  }
+
+  public GraphSchema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Returns the samples rolled up to the given resolution. Rollups are cached per resolution
+   * until new samples are parsed.
+   *
+   * @param step bucket width in seconds
+   */
+  public synchronized Rollup getRollup(long step) {
+    Rollup rollup = rollups.get(step);
+    if (rollup != null && rollup.isCurrent(store)) {
+      return rollup;
+    }
+    long begin = System.currentTimeMillis();
+    rollup = Rollup.compute(store, step, getColumnTypes(), Rollup.DEFAULT_PERCENTILES);
+    log.debug("{} rollup to {}s: {} ms", graphtitle, step, System.currentTimeMillis() - begin);
+    rollups.put(step, rollup);
+    return rollup;
   }
 
   public String make_csv() {
@@ -233,13 +273,11 @@ public class Graph {
     tmp.append("Date;");
     tmp.append(getCsvHeader());
     tmp.append("\n");
-    TimeSeries datelist = Stats.get(0);
 
-    for (Object o : datelist.getTimePeriods()) {
-      TimePeriod item = (TimePeriod) o;
-      tmp.append(item.toString());
+    for (int row = 0; row < store.size(); row++) {
+      tmp.append(new Date(store.getMillis(row)));
       tmp.append(";");
-      tmp.append(getCsvLine((RegularTimePeriod) item));
+      appendCsvValues(tmp, row);
       tmp.append("\n");
     }
 
@@ -248,31 +286,51 @@ public class Graph {
 
   public String getCsvHeader() {
     StringBuilder tmp = new StringBuilder();
-    for (int i = firstDataColumn; i < HeaderStr.length; i++) {
-      TimeSeries tmpseries = Stats.get(i - firstDataColumn);
-      tmp.append(graphtitle).append(" ").append(tmpseries.getKey());
+    for (int c = 0; c < schema.getColumnCount(); c++) {
+      tmp.append(graphtitle).append(" ").append(schema.getColumn(c));
       tmp.append(";");
     }
     return tmp.toString();
   }
 
-  public String getCsvLine(RegularTimePeriod t) {
+  public String getCsvLine(LocalDateTime t) {
     StringBuilder tmp = new StringBuilder();
-    for (int i = firstDataColumn; i < HeaderStr.length; i++) {
-      TimeSeries tmpseries = Stats.get(i - firstDataColumn);
-      tmp.append(tmpseries.getValue(t));
+    appendCsvValues(tmp, store.find(ColumnStore.toKey(t)));
+    return tmp.toString();
+  }
 
-      tmp.append(";");
+  /**
+   * Like {@link #getCsvLine(LocalDateTime)}, for the bucket of a rollup starting at the
+   * given time.
+   */
+  public String getCsvLine(LocalDateTime bucket, long step) {
+    Rollup rollup = getRollup(step);
+    int index = rollup.indexOf(ColumnStore.toKey(bucket));
+    StringBuilder tmp = new StringBuilder();
+    for (int c = 0; c < store.getColumnCount(); c++) {
+      appendCsvValue(tmp, index < 0 ? Double.NaN : rollup.getValue(c)[index]);
     }
     return tmp.toString();
   }
 
+  private void appendCsvValues(StringBuilder tmp, int row) {
+    for (int c = 0; c < store.getColumnCount(); c++) {
+      appendCsvValue(tmp, row < 0 ? Double.NaN : store.get(row, c));
+    }
+  }
+
+  private static void appendCsvValue(StringBuilder tmp, double value) {
+    // a missing sample
+    tmp.append(Double.isNaN(value) ? "null" : Double.toString(value));
+    tmp.append(";");
+  }
+
   public int savePNG(final String filename,
       final int width, final int height) {
     try {
       ChartUtils.saveChartAsPNG(new File(filename),
-          this.getgraph(mysar.myparser.getStartOfGraph(), mysar.myparser.getEndOfGraph()), width,
-          height);
+          this.getgraph(mysar.myparser.getStartOfGraph(), mysar.myparser.getEndOfGraph(),
+              Config.getExportResolution()), width, height);
     } catch (IOException e) {
       log.error("Unable to write to : {}", filename);
       return -1;
@@ -284,8 +342,8 @@ public class Graph {
       final int width, final int height) {
     try {
       ChartUtils.saveChartAsJPEG(new File(filename),
-          this.getgraph(mysar.myparser.getStartOfGraph(), mysar.myparser.getEndOfGraph()), width,
-          height);
+          this.getgraph(mysar.myparser.getStartOfGraph(), mysar.myparser.getEndOfGraph(),
+              Config.getExportResolution()), width, height);
     } catch (IOException e) {
       log.error("Unable to write to : {}", filename);
       return -1;
@@ -294,6 +352,17 @@ public class Graph {
   }
 
   public JCheckBox getprintform() {
+    // only built for the print dialog, most graphs never need one
+    if (printCheckBox == null) {
+      printCheckBox = new JCheckBox(graphtitle, printSelected);
+      printCheckBox.addItemListener((ItemEvent evt) -> {
+
+        if (evt.getSource() == printCheckBox) {
+          printSelected = printCheckBox.isSelected();
+        }
+
+      });
+    }
     return printCheckBox;
   }
 
@@ -322,6 +391,64 @@ public class Graph {
     return mygraph;
   }
 
+  /**
+   * Returns a new chart of the samples rolled up to the given resolution, or of the raw samples
+   * if step is 0. The chart is not kept: JFreeChart is not thread-safe, so an export drawing on
+   * other threads must not share the chart shown by the UI.
+   */
+  public JFreeChart getgraph(LocalDateTime start, LocalDateTime end, long step) {
+    ColumnStore source;
+    if (step > 0) {
+      synchronized (this) {
+        source = rollup_store(getRollup(step));
+      }
+    } else {
+      source = store;
+    }
+    JFreeChart chart = makegraph(start, end, source, new DateAxis(""), null);
+    if (chart != null && hasAnomalies()) {
+      mark_anomalies(chart);
+    }
+    return chart;
+  }
+
+  /**
+   * Returns a new chart whose series have no more than two points per bucket of the given
+   * count, see {@link Decimator}. Used for vector output, where the size grows with the number
+   * of points drawn. The chart is not kept.
+   */
+  public JFreeChart getgraph(LocalDateTime start, LocalDateTime end, long step, int buckets) {
+    ColumnStore source;
+    if (step > 0) {
+      synchronized (this) {
+        source = rollup_store(getRollup(step));
+      }
+    } else {
+      source = store;
+    }
+    int[] stackOf = new int[schema.getColumnCount()];
+    for (int c = 0; c < stackOf.length; c++) {
+      stackOf[c] = schema.getStackOf(c);
+    }
+    return makegraph(start, end, Decimator.decimate(source, buckets, stackOf), new DateAxis(""),
+        null);
+  }
+
+  // rollups have their own times, keep them out of the timeline of the parse; derived columns
+  // are rolled up with the others rather than computed again from rolled up values
+  private ColumnStore rollup_store(Rollup rollup) {
+    long[] times = rollup.getTimes();
+    ColumnStore rolled = new ColumnStore(schema.columns(), new Timeline(), times.length + 1);
+    for (int b = 0; b < times.length; b++) {
+      int row = rolled.row(times[b]);
+      for (int c = 0; c < schema.getColumnCount(); c++) {
+        rolled.set(row, c, rollup.getValue(c)[b]);
+      }
+    }
+    return rolled;
+  }
+
+  @Override
   public String getTitle() {
     return graphtitle;
   }
@@ -330,30 +457,11 @@ public class Graph {
     return printSelected;
   }
 
-  private XYDataset create_collection(ArrayList l) {
-    TimeSeriesCollection graphcollection = new TimeSeriesCollection();
-    TimeSeries found;
-    boolean hasdata = false;
-    for (Object o : l) {
-      found = null;
-      for (TimeSeries stat : Stats) {
-        found = stat;
-        if (found.getKey().equals(o)) {
-          break;
-        } else {
-          found = null;
-        }
-      }
-
-      if (found != null) {
-        graphcollection.addSeries(found);
-        hasdata = true;
-      }
-    }
-    if (!hasdata) {
+  private StoreDataset create_collection(int[] columns, ColumnStore source) {
+    if (columns.length == 0) {
       return null;
     }
-    return graphcollection;
+    return new StoreDataset(source, columns);
   }
 
   public ChartPanel get_ChartPanel() {
@@ -384,24 +492,47 @@ public class Graph {
   }
 
   private JFreeChart makegraph(LocalDateTime start, LocalDateTime end) {
+    if (axisofdate == null) {
+      axisofdate = new DateAxis("");
+    }
+    ArrayList<StoreDataset> datasets = new ArrayList<>();
+    JFreeChart chart = makegraph(start, end, store, axisofdate, datasets);
+    if (chart != null && hasAnomalies()) {
+      mark_anomalies(chart);
+    }
+    lastRefresh = System.currentTimeMillis();
+    chartDatasets = datasets.toArray(new StoreDataset[0]);
+    return chart;
+  }
+
+  private JFreeChart makegraph(LocalDateTime start, LocalDateTime end, ColumnStore source,
+      DateAxis axisofdate, ArrayList<StoreDataset> datasets) {
 
     long begingenerate = System.currentTimeMillis();
 
     CombinedDomainXYPlot plot = new CombinedDomainXYPlot(axisofdate);
     // do the stacked stuff
-    for (PlotStackConfig tmp : graphconfig.getStacklist().values()) {
-      if (tmp == null) {
-        continue;
+    for (int st = 0; st < schema.getStackCount(); st++) {
+      PlotStackConfig tmp = schema.getStack(st);
+      int[] members = new int[schema.getColumnCount()];
+      int count = 0;
+      for (int c = 0; c < members.length; c++) {
+        if (schema.getStackOf(c) == st) {
+          members[count++] = c;
+        }
       }
-      TimeTableXYDataset tmp2 = StackListbyName.get(tmp.getTitle());
+      StoreDataset tmp2 = create_collection(Arrays.copyOf(members, count), source);
 
       if (tmp2 != null) {
+        if (datasets != null) {
+          datasets.add(tmp2);
+        }
         StackedXYAreaRenderer2 renderer = new StackedXYAreaRenderer2();
         renderer.setDefaultStroke(new BasicStroke(1.0F));
         NumberAxis graphaxistitle = tmp.getAxis();
         XYPlot temp_plot = new XYPlot(tmp2, axisofdate, graphaxistitle, renderer);
         for (int i = 0; i < tmp2.getSeriesCount(); i++) {
-          Color color = GlobalOptions.getDataColor(tmp2.getSeriesKey(i).toString());
+          Color color = schema.getColor(tmp2.getSeriesKey(i).toString());
           if (color != null) {
             renderer.setSeriesPaint(i, color);
           }
@@ -410,7 +541,8 @@ public class Graph {
       }
     }
     // do the line stuff
-    for (PlotStackConfig tmp : graphconfig.getPlotlist().values()) {
+    for (int p = 0; p < schema.getPlotCount(); p++) {
+      PlotStackConfig tmp = schema.getPlot(p);
       XYItemRenderer renderer = new StandardXYItemRenderer() {
           @Override
           public LegendItem getLegendItem(int datasetIndex, int series) {
@@ -420,16 +552,17 @@ public class Graph {
           }
         };
       renderer.setDefaultStroke(new BasicStroke(1.0F));
-      ArrayList<String> t = new ArrayList<>();
-      String[] s = tmp.getHeaderStr().split("\\s+");
-      Collections.addAll(t, s);
+      int[] columns = schema.getPlotColumns(p);
 
-      XYDataset c = create_collection(t);
+      StoreDataset c = create_collection(columns, source);
+      if (c != null && datasets != null) {
+        datasets.add(c);
+      }
       NumberAxis graphaxistitle = tmp.getAxis();
       XYPlot tmpplot = new XYPlot(c, axisofdate, graphaxistitle, renderer);
 
-      for (int i = 0; i < s.length; i++) {
-        Color color = GlobalOptions.getDataColor(s[i]);
+      for (int i = 0; i < columns.length; i++) {
+        Color color = schema.getColor(columns[i]);
         if (color != null) {
           renderer.setSeriesPaint(i, color);
         }
@@ -468,19 +601,21 @@ public class Graph {
   }
 
 
-  private DateAxis axisofdate = new DateAxis("");
+  private DateAxis axisofdate = null;
   private kSar mysar;
   private JFreeChart mygraph = null;
   private ChartPanel chartpanel = null;
   private String graphtitle;
   private boolean printSelected = true;
-  private JCheckBox printCheckBox;
+  private JCheckBox printCheckBox = null;
   private GraphConfig graphconfig;
-  private int firstDataColumn;
-  private String[] HeaderStr;
-  private ArrayList<TimeSeries> Stats = new ArrayList<>();
-  private Map<String, TimeTableXYDataset> StackListbyName =
-      new HashMap<>();
-  private Map<String, TimeTableXYDataset> StackListbyCol =
-      new HashMap<>();
+  private final GraphSchema schema;
+  private final boolean decimalComma;
+  private ColumnStore store;
+  // made on the first detection pass
+  private volatile AnomalyDetector anomalies = null;
+  // datasets of mygraph, told about new samples while parsing
+  private volatile StoreDataset[] chartDatasets = null;
+  private long lastRefresh = 0;
+  private final Map<Long, Rollup> rollups = new HashMap<>();
 }
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import net.atomique.ksar.GlobalOptions;
+import net.atomique.ksar.xml.ColumnConfig;
+import net.atomique.ksar.xml.GraphConfig;
+import net.atomique.ksar.xml.PlotStackConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Column layout of a graph, shared by every {@link Graph} made from the same {@link GraphConfig}
+ * and header line, e.g. all disks of a host. It holds column names and indexes, stack and plot
+ * membership, colors and types. Colors are copied again on first use after the configuration
+ * changed, so a changed color shows up on the next chart; the rest never changes once built.
+ *
+ * <p>The columns of the header come first, then the derived ones of the configuration, see
+ * {@link GraphConfig#addDerived}. A derived column naming a column the header lacks is left out,
+ * as headers change between sysstat versions.
+ *
+ * <p>Schemas are cached until the configuration is loaded again, see {@link #clearCache()}.
+ *
+ * <p>Axes are still created per chart, see {@link PlotStackConfig#getAxis()}: their number
+ * formats are not thread-safe, so they are not shared.
+ */
+public final class GraphSchema {
+
+  private static final Logger log = LoggerFactory.getLogger(GraphSchema.class);
+
+  private static final Map<GraphConfig, Map<String, GraphSchema>> cache = new IdentityHashMap<>();
+
+  // bumped when the configuration is loaded again
+  private static volatile int generation = 0;
+
+  /**
+   * Returns the schema of a graph.
+   *
+   * @param config the graph configuration
+   * @param header the header line of the stat
+   * @param firstDataColumn index of the first value in the header, after time and device
+   */
+  public static GraphSchema of(GraphConfig config, String header, int firstDataColumn) {
+    synchronized (cache) {
+      Map<String, GraphSchema> byHeader = cache.computeIfAbsent(config, k -> new HashMap<>());
+      return byHeader.computeIfAbsent(firstDataColumn + " " + header,
+          k -> new GraphSchema(config, header.split("\\s+"), firstDataColumn));
+    }
+  }
+
+  /**
+   * Forgets the schemas built so far, so that graphs made afterwards see the current
+   * configuration. Graphs already made keep their schema, with the new colors.
+   */
+  public static void clearCache() {
+    synchronized (cache) {
+      cache.clear();
+      generation++;
+    }
+  }
+
+  private GraphSchema(GraphConfig config, String[] headers, int firstDataColumn) {
+    this.headers = headers;
+    this.firstDataColumn = firstDataColumn;
+    ArrayList<String> names = new ArrayList<>();
+    for (int c = firstDataColumn; c < headers.length; c++) {
+      names.add(headers[c]);
+    }
+    parsedCount = names.size();
+    ArrayList<Expression> expressions = new ArrayList<>();
+    for (Map.Entry<String, String> entry : config.getDerivedlist().entrySet()) {
+      if (names.contains(entry.getKey())) {
+        // sar has it already
+        continue;
+      }
+      try {
+        expressions.add(Expression.parse(entry.getValue(), names));
+        names.add(entry.getKey());
+      } catch (IllegalArgumentException ex) {
+        log.debug("{} {} not derived: {}", config.getName(), entry.getKey(), ex.getMessage());
+      }
+    }
+    derived = expressions.toArray(new Expression[0]);
+    columns = names.toArray(new String[0]);
+    int n = columns.length;
+
+    Map<String, Integer> index = new HashMap<>();
+    types = new int[n];
+    for (int c = 0; c < n; c++) {
+      index.putIfAbsent(columns[c], c);
+      ColumnConfig colconfig = GlobalOptions.getColumnConfig(columns[c]);
+      if (colconfig != null) {
+        types[c] = colconfig.getType();
+      }
+    }
+    columnIndex = Collections.unmodifiableMap(index);
+    colors = new Colors(generation, columns);
+
+    stackOfColumn = new int[n];
+    Arrays.fill(stackOfColumn, -1);
+    stacks = config.getStacklist().values().toArray(new PlotStackConfig[0]);
+    for (int s = 0; s < stacks.length; s++) {
+      for (String name : stacks[s].getHeader()) {
+        Integer c = index.get(name);
+        if (c != null) {
+          stackOfColumn[c] = s;
+        }
+      }
+    }
+
+    plots = config.getPlotlist().values().toArray(new PlotStackConfig[0]);
+    plotColumns = new int[plots.length][];
+    for (int p = 0; p < plots.length; p++) {
+      ArrayList<Integer> found = new ArrayList<>();
+      for (String name : plots[p].getHeader()) {
+        Integer c = index.get(name);
+        if (c != null) {
+          found.add(c);
+        }
+      }
+      plotColumns[p] = found.stream().mapToInt(Integer::intValue).toArray();
+    }
+  }
+
+  public String[] getHeaders() {
+    return headers.clone();
+  }
+
+  public int getFirstDataColumn() {
+    return firstDataColumn;
+  }
+
+  /**
+   * Returns the number of columns, parsed and derived.
+   */
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  /**
+   * Returns the number of columns read from the input, the first ones.
+   */
+  public int getParsedCount() {
+    return parsedCount;
+  }
+
+  public boolean isDerived(int column) {
+    return column >= parsedCount;
+  }
+
+  public String getColumn(int column) {
+    return columns[column];
+  }
+
+  /**
+   * Returns the index of a column, or -1.
+   */
+  public int indexOf(String column) {
+    Integer c = columnIndex.get(column);
+    return c == null ? -1 : c;
+  }
+
+  /**
+   * Returns the configured color of a column, or null.
+   */
+  public Color getColor(int column) {
+    Colors c = colors;
+    if (c.generation != generation) {
+      c = new Colors(generation, columns);
+      colors = c;
+    }
+    return c.colors[column];
+  }
+
+  public Color getColor(String column) {
+    int c = indexOf(column);
+    return c < 0 ? null : getColor(c);
+  }
+
+  /**
+   * Returns the type of a column, see {@link ColumnConfig#getType()}.
+   */
+  public int getType(int column) {
+    return types[column];
+  }
+
+  public int[] getTypes() {
+    return types.clone();
+  }
+
+  public int getStackCount() {
+    return stacks.length;
+  }
+
+  public PlotStackConfig getStack(int stack) {
+    return stacks[stack];
+  }
+
+  /**
+   * Returns the stack a column belongs to, or -1.
+   */
+  public int getStackOf(int column) {
+    return stackOfColumn[column];
+  }
+
+  public int getPlotCount() {
+    return plots.length;
+  }
+
+  public PlotStackConfig getPlot(int plot) {
+    return plots[plot];
+  }
+
+  /**
+   * Returns the columns drawn by a plot that are present in the header, in plot order.
+   */
+  public int[] getPlotColumns(int plot) {
+    return plotColumns[plot].clone();
+  }
+
+  String[] columns() {
+    return columns;
+  }
+
+  Expression[] derived() {
+    return derived;
+  }
+
+  // the colors of the columns in one generation of the configuration
+  private static final class Colors {
+
+    Colors(int generation, String[] columns) {
+      this.generation = generation;
+      colors = new Color[columns.length];
+      for (int c = 0; c < columns.length; c++) {
+        ColumnConfig colconfig = GlobalOptions.getColumnConfig(columns[c]);
+        if (colconfig != null) {
+          colors[c] = colconfig.getData_color();
+        }
+      }
+    }
+
+    final int generation;
+    final Color[] colors;
+  }
+
+  private final String[] headers;
+  private final int firstDataColumn;
+  private final String[] columns;
+  private final int parsedCount;
+  private final Expression[] derived;
+  private final Map<String, Integer> columnIndex;
+  private final int[] types;
+  private final PlotStackConfig[] stacks;
+  private final int[] stackOfColumn;
+  private final PlotStackConfig[] plots;
+  private final int[][] plotColumns;
+  private volatile Colors colors;
+}
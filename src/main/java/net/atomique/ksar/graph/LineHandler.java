@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import java.time.LocalDateTime;
+
+/**
+ * Receives the data lines of one stat: a {@link Graph}, or a {@link List} of graphs per device.
+ * Parsers keep the handler of the current stat, so a data line costs a single call.
+ */
+public interface LineHandler {
+
+  /**
+   * Stores a data line.
+   *
+   * @param ldt the time of the line
+   * @param s the line, for messages
+   * @param columns the line split on whitespace, as the parser got it
+   */
+  int parse_line(LocalDateTime ldt, String s, String[] columns);
+
+  String getTitle();
+
+  /**
+   * Redraws the charts with the samples parsed so far.
+   */
+  void refresh();
+}
@@ -11,16 +11,19 @@ import net.atomique.ksar.ui.ParentNodeInfo;
 import net.atomique.ksar.ui.SortedTreeNode;
 import net.atomique.ksar.ui.TreeNodeInfo;
 import net.atomique.ksar.xml.GraphConfig;
-import org.jfree.data.time.Second;
 
 import java.awt.LayoutManager;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import javax.swing.JPanel;
 import javax.swing.border.TitledBorder;
 
-public class List {
+public class List implements LineHandler {
 
   public List(kSar hissar, GraphConfig g, String stitle, String sheader, int firstdatacolumn) {
     mysar = hissar;
@@ -33,40 +36,71 @@ public class List {
     mysar.add2tree(mysar.graphtree, parentTreeNode);
   }
 
-  public int parse_line(LocalDateTime ldt, String s) {
-
-    Second now = new Second(ldt.getSecond(),
-        ldt.getMinute(),
-        ldt.getHour(),
-        ldt.getDayOfMonth(),
-        ldt.getMonthValue(),
-        ldt.getYear());
+  @Override
+  public int parse_line(LocalDateTime ldt, String s, String[] columns) {
+    return getGraph(columns).parse_line(ldt, s, columns);
+  }
 
-    return parse_line(now, s);
+  /**
+   * Redraws the charts of all devices with the samples parsed so far.
+   */
+  @Override
+  public void refresh() {
+    for (Graph graph : getSortedGraphs().values()) {
+      graph.refresh();
+    }
   }
 
-  public int parse_line(Second now, String s) {
-    String[] cols = s.split("\\s+");
-    Graph tmp;
-    if (!nodeHashList.containsKey(cols[FirstDataColumn])) {
+  private Graph getGraph(String[] cols) {
+    Graph tmp = deviceIndex.get(cols[FirstDataColumn]);
+    if (tmp == null) {
       tmp = new Graph(mysar, graphconfig, Title + " " + cols[FirstDataColumn], HeaderStr, FirstDataColumn + 1,
           null);
-      nodeHashList.put(cols[FirstDataColumn], tmp);
+      synchronized (deviceIndex) {
+        deviceIndex.put(cols[FirstDataColumn], tmp);
+        nodeHashList = null;
+      }
       TreeNodeInfo infotmp = new TreeNodeInfo(cols[FirstDataColumn], tmp);
       SortedTreeNode nodetmp = new SortedTreeNode(infotmp);
       mysar.add2tree(parentTreeNode, nodetmp);
-    } else {
-      tmp = nodeHashList.get(cols[FirstDataColumn]);
     }
+    return tmp;
+  }
+
+  /**
+   * Returns the graph of one device, e.g. a disk or a network interface, or null.
+   */
+  public Graph getGraph(String key) {
+    synchronized (deviceIndex) {
+      return deviceIndex.get(key);
+    }
+  }
+
+  public Set<String> getKeys() {
+    return getSortedGraphs().keySet();
+  }
 
-    return tmp.parse_line(now, s);
+  /**
+   * Returns the graphs in natural order of their device. The order is only built when asked
+   * for, data lines look their device up in a hash map.
+   */
+  protected SortedMap<String, Graph> getSortedGraphs() {
+    synchronized (deviceIndex) {
+      if (nodeHashList == null) {
+        SortedMap<String, Graph> sorted = new TreeMap<>(NaturalComparator.NULLS_FIRST);
+        sorted.putAll(deviceIndex);
+        nodeHashList = Collections.unmodifiableSortedMap(sorted);
+      }
+      return nodeHashList;
+    }
   }
 
 
   public JPanel run() {
     JPanel tmppanel = new JPanel();
     LayoutManager tmplayout;
-    int graphnumber = nodeHashList.size();
+    SortedMap<String, Graph> graphs = getSortedGraphs();
+    int graphnumber = graphs.size();
     int linenum = (int) Math.floor(graphnumber / 2);
     if (graphnumber % 2 != 0) {
       linenum++;
@@ -75,7 +109,7 @@ public class List {
     tmppanel.setLayout(tmplayout);
 
 
-    for (Graph graph : nodeHashList.values()) {
+    for (Graph graph : graphs.values()) {
       tmppanel.add(graph.get_ChartPanel());
     }
 
@@ -84,7 +118,7 @@ public class List {
 
   public boolean isPrintSelected() {
     boolean leaftoprint = false;
-    for (Graph graph : nodeHashList.values()) {
+    for (Graph graph : getSortedGraphs().values()) {
       if (graph.isPrintSelected()) {
         leaftoprint = true;
         break;
@@ -93,6 +127,7 @@ public class List {
     return leaftoprint;
   }
 
+  @Override
   public String getTitle() {
     return Title;
   }
@@ -109,7 +144,9 @@ public class List {
   protected SortedTreeNode parentTreeNode = null;
   protected kSar mysar = null;
   protected String HeaderStr = null;
-  protected SortedMap<String, Graph> nodeHashList = new TreeMap<>(NaturalComparator.NULLS_FIRST);
+  // the parsing thread is the only writer; it reads without locking, other threads lock
+  protected final Map<String, Graph> deviceIndex = new HashMap<>();
+  private SortedMap<String, Graph> nodeHashList = null;
   protected int FirstDataColumn = 0;
   protected String Title = null;
 
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+/**
+ * Result of a {@link ColumnStore#query}: timestamps as {@link ColumnStore#toKey} seconds and one
+ * value array per requested column, all of the same length.
+ */
+public class QueryResult {
+
+  public QueryResult(String[] columns, long[] times, double[][] values) {
+    this.columns = columns;
+    this.times = times;
+    this.values = values;
+  }
+
+  public String[] getColumns() {
+    return columns;
+  }
+
+  public long[] getTimes() {
+    return times;
+  }
+
+  public double[][] getValues() {
+    return values;
+  }
+
+  public double[] getValues(String column) {
+    for (int i = 0; i < columns.length; i++) {
+      if (columns[i].equals(column)) {
+        return values[i];
+      }
+    }
+    return null;
+  }
+
+  public int size() {
+    return times.length;
+  }
+
+  private final String[] columns;
+  private final long[] times;
+  private final double[][] values;
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import java.util.Arrays;
+
+/**
+ * Per-bucket statistics of all columns of a {@link ColumnStore}: count, sum, min, max, average
+ * and percentiles, computed in a single pass over the rows.
+ *
+ * <p>Buckets are aligned on multiples of the step, like {@link ColumnStore#query}. The value a
+ * column is summarized with depends on its type: deltas, the amount counted during each sample,
+ * are summed; everything else is averaged, including counters, which sar prints as per-second
+ * rates.
+ */
+public class Rollup {
+
+  public static final int GAUGE = 1;
+  public static final int COUNTER = 2;
+  public static final int DELTA = 3;
+
+  static final double[] DEFAULT_PERCENTILES = {50, 95, 99};
+
+  /**
+   * Computes a rollup.
+   *
+   * @param store the samples
+   * @param step bucket width in seconds, strictly positive
+   * @param types column types as in {@link net.atomique.ksar.xml.ColumnConfig#getType()}; 0
+   *     counts as a gauge
+   * @param percentiles percentiles to compute, between 0 and 100
+   */
+  public static Rollup compute(ColumnStore store, long step, int[] types, double[] percentiles) {
+    if (step <= 0) {
+      throw new IllegalArgumentException("step must be positive: " + step);
+    }
+    synchronized (store) {
+      return new Rollup(store, step, types, percentiles);
+    }
+  }
+
+  private Rollup(ColumnStore store, long step, int[] types, double[] percentiles) {
+    this.step = step;
+    this.types = types.clone();
+    this.percentiles = percentiles.clone();
+    this.version = store.getVersion();
+    int rows = store.size();
+    int columns = store.getColumnCount();
+
+    int buckets = 0;
+    long[] t = new long[rows];
+    for (int row = 0; row < rows; row++) {
+      long bucket = Math.floorDiv(store.getTime(row), step) * step;
+      if (buckets == 0 || t[buckets - 1] != bucket) {
+        t[buckets++] = bucket;
+      }
+    }
+    times = Arrays.copyOf(t, buckets);
+
+    count = new int[columns][buckets];
+    sum = new double[columns][buckets];
+    min = new double[columns][buckets];
+    max = new double[columns][buckets];
+    pct = new double[columns][percentiles.length][buckets];
+    value = new double[columns][];
+    for (int c = 0; c < columns; c++) {
+      Arrays.fill(min[c], Double.NaN);
+      Arrays.fill(max[c], Double.NaN);
+      for (double[] p : pct[c]) {
+        Arrays.fill(p, Double.NaN);
+      }
+    }
+
+    // one pass over the rows; the values of the current bucket are kept for the percentiles
+    double[][] scratch = new double[columns][16];
+    int bucket = -1;
+    for (int row = 0; row <= rows; row++) {
+      if (row == rows || bucket < 0 || store.getTime(row) >= times[bucket] + step) {
+        if (bucket >= 0) {
+          for (int c = 0; c < columns; c++) {
+            fillPercentiles(c, bucket, scratch[c], count[c][bucket]);
+          }
+        }
+        if (row == rows) {
+          break;
+        }
+        bucket++;
+      }
+      for (int c = 0; c < columns; c++) {
+        double v = store.get(row, c);
+        if (Double.isNaN(v)) {
+          continue;
+        }
+        int n = count[c][bucket]++;
+        if (n == 0) {
+          sum[c][bucket] = v;
+          min[c][bucket] = v;
+          max[c][bucket] = v;
+        } else {
+          sum[c][bucket] += v;
+          if (v < min[c][bucket]) {
+            min[c][bucket] = v;
+          }
+          if (v > max[c][bucket]) {
+            max[c][bucket] = v;
+          }
+        }
+        if (percentiles.length > 0) {
+          if (n == scratch[c].length) {
+            scratch[c] = Arrays.copyOf(scratch[c], n * 2);
+          }
+          scratch[c][n] = v;
+        }
+      }
+    }
+  }
+
+  private void fillPercentiles(int column, int bucket, double[] values, int n) {
+    if (n == 0 || percentiles.length == 0) {
+      return;
+    }
+    Arrays.sort(values, 0, n);
+    for (int p = 0; p < percentiles.length; p++) {
+      pct[column][p][bucket] = Aggregation.percentile(values, n, percentiles[p]);
+    }
+  }
+
+  public long getStep() {
+    return step;
+  }
+
+  public long[] getTimes() {
+    return times;
+  }
+
+  public int size() {
+    return times.length;
+  }
+
+  /**
+   * Returns the bucket starting at the given time, or -1.
+   */
+  public int indexOf(long time) {
+    int pos = Arrays.binarySearch(times, time);
+    return pos >= 0 ? pos : -1;
+  }
+
+  public int[] getCount(int column) {
+    return count[column];
+  }
+
+  public double[] getSum(int column) {
+    return sum[column];
+  }
+
+  public double[] getMin(int column) {
+    return min[column];
+  }
+
+  public double[] getMax(int column) {
+    return max[column];
+  }
+
+  public double[] getAvg(int column) {
+    double[] avg = new double[times.length];
+    for (int b = 0; b < avg.length; b++) {
+      avg[b] = count[column][b] == 0 ? Double.NaN : sum[column][b] / count[column][b];
+    }
+    return avg;
+  }
+
+  /**
+   * Returns a computed percentile, or null if it was not requested.
+   */
+  public double[] getPercentile(int column, double percentile) {
+    for (int p = 0; p < percentiles.length; p++) {
+      if (percentiles[p] == percentile) {
+        return pct[column][p];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the value a column is summarized with: the sum for deltas, the average otherwise.
+   * The array is shared and must not be modified.
+   */
+  public synchronized double[] getValue(int column) {
+    if (value[column] != null) {
+      return value[column];
+    }
+    if (types[column] == DELTA) {
+      double[] s = sum[column].clone();
+      for (int b = 0; b < s.length; b++) {
+        if (count[column][b] == 0) {
+          s[b] = Double.NaN;
+        }
+      }
+      value[column] = s;
+    } else {
+      value[column] = getAvg(column);
+    }
+    return value[column];
+  }
+
+  /**
+   * Tells whether the rollup was computed from the current content of the store.
+   */
+  boolean isCurrent(ColumnStore store) {
+    return version == store.getVersion();
+  }
+
+  private final long step;
+  private final int[] types;
+  private final double[] percentiles;
+  private final long version;
+  private final long[] times;
+  private final int[][] count;
+  private final double[][] sum;
+  private final double[][] min;
+  private final double[][] max;
+  private final double[][][] pct;
+  private final double[][] value;
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.TableXYDataset;
+
+/**
+ * Chart view of some columns of a {@link ColumnStore}. Samples are read from the store as the
+ * chart is drawn instead of being copied into {@code TimeSeries}, which kept a period object per
+ * sample and column.
+ *
+ * <p>Every series has one item per row of the store, so the dataset also works for stacked
+ * areas; a missing value is NaN. New samples show up once {@link #refresh()} is called.
+ */
+public class StoreDataset extends AbstractXYDataset implements TableXYDataset {
+
+  public StoreDataset(ColumnStore store, int[] columns) {
+    this(store, columns, null);
+  }
+
+  /**
+   * Creates a dataset whose series are named by the given keys instead of their column.
+   */
+  public StoreDataset(ColumnStore store, int[] columns, String[] keys) {
+    this.store = store;
+    this.columns = columns.clone();
+    this.keys = keys == null ? null : keys.clone();
+  }
+
+  @Override
+  public int getSeriesCount() {
+    return columns.length;
+  }
+
+  @Override
+  public Comparable getSeriesKey(int series) {
+    return keys != null ? keys[series] : store.getColumnName(columns[series]);
+  }
+
+  @Override
+  public DomainOrder getDomainOrder() {
+    return DomainOrder.ASCENDING;
+  }
+
+  @Override
+  public int getItemCount() {
+    return store.size();
+  }
+
+  @Override
+  public int getItemCount(int series) {
+    return store.size();
+  }
+
+  @Override
+  public Number getX(int series, int item) {
+    return store.getMillis(item);
+  }
+
+  @Override
+  public double getXValue(int series, int item) {
+    return store.getMillis(item);
+  }
+
+  @Override
+  public Number getY(int series, int item) {
+    double value = getYValue(series, item);
+    return Double.isNaN(value) ? null : value;
+  }
+
+  @Override
+  public double getYValue(int series, int item) {
+    return store.get(item, columns[series]);
+  }
+
+  /**
+   * Tells the charts drawing this dataset that samples were added.
+   */
+  public void refresh() {
+    fireDatasetChanged();
+  }
+
+  private final ColumnStore store;
+  private final int[] columns;
+  private final String[] keys;
+}
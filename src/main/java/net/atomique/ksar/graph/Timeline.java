@@ -0,0 +1,240 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Dictionary of the timestamps of one parse, shared by all its graphs. Each distinct time gets
+ * a small id, so a {@link ColumnStore} keeps an int per row instead of its own copy of the time,
+ * and the chart position of a time is computed once rather than once per graph and column.
+ *
+ * <p>Times are keys as returned by {@link ColumnStore#toKey}. Ids are given in order of first
+ * appearance and never change. Iterating gives the distinct times in ascending order: sar output
+ * is nearly sorted, so a new time is normally appended to the sorted run, and the few that go
+ * back, e.g. at a day rollover, wait in a pending run that is merged on the next read.
+ *
+ * <p>The parsing thread is the only writer. It looks times up without a lock and locks only to
+ * add a new one, once per sample interval. Times and chart positions are read without a lock:
+ * their arrays are replaced, not changed, when they grow, and readers only ask for ids they got
+ * from a store, which publishes them after they were added.
+ */
+public class Timeline implements Iterable<LocalDateTime> {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  public Timeline() {
+    this(ZoneId.systemDefault());
+  }
+
+  /**
+   * Creates a timeline whose chart positions are computed in the given zone, as JFreeChart does
+   * with the default zone.
+   */
+  public Timeline(ZoneId zone) {
+    this.zone = zone;
+    times = new long[INITIAL_CAPACITY];
+    millis = new long[INITIAL_CAPACITY];
+    slots = new int[INITIAL_CAPACITY * 2];
+    sorted = new long[INITIAL_CAPACITY];
+    pending = new long[16];
+  }
+
+  /**
+   * Adds the time of a data line, see {@link #intern}.
+   */
+  public int add(LocalDateTime ldt) {
+    return intern(ColumnStore.toKey(ldt));
+  }
+
+  /**
+   * Returns the id of a time, adding it if it is new. Only the parsing thread calls it.
+   */
+  public int intern(long time) {
+    // only this thread changes the index, so it can read it without the lock
+    long[] t = times;
+    // a data line is usually followed by others of the same time
+    if (size > 0 && t[lastId] == time) {
+      return lastId;
+    }
+    int mask = slots.length - 1;
+    int slot = hash(time) & mask;
+    for (int id; (id = slots[slot] - 1) >= 0; slot = (slot + 1) & mask) {
+      if (t[id] == time) {
+        lastId = id;
+        return id;
+      }
+    }
+    return add(time, slot);
+  }
+
+  private synchronized int add(long time, int slot) {
+    int id = size;
+    if (id == times.length) {
+      // copies hold every id handed out so far, readers may use either
+      long[] grownTimes = Arrays.copyOf(times, id * 2);
+      long[] grownMillis = Arrays.copyOf(millis, id * 2);
+      times = grownTimes;
+      millis = grownMillis;
+    }
+    times[id] = time;
+    millis[id] = ColumnStore.toLocalDateTime(time).atZone(zone).toInstant().toEpochMilli();
+    size = id + 1;
+    slots[slot] = id + 1;
+    if (size * 2 > slots.length) {
+      rehash();
+    }
+    if (pendingSize == 0 && (sortedSize == 0 || sorted[sortedSize - 1] < time)) {
+      if (sortedSize == sorted.length) {
+        sorted = Arrays.copyOf(sorted, sortedSize * 2);
+      }
+      sorted[sortedSize++] = time;
+    } else {
+      if (pendingSize == pending.length) {
+        pending = Arrays.copyOf(pending, pendingSize * 2);
+      }
+      pending[pendingSize++] = time;
+    }
+    lastId = id;
+    return id;
+  }
+
+  /**
+   * Returns the id of a time, or -1 if it was never added.
+   */
+  public synchronized int indexOf(long time) {
+    int mask = slots.length - 1;
+    for (int slot = hash(time) & mask, id; (id = slots[slot] - 1) >= 0;
+        slot = (slot + 1) & mask) {
+      if (times[id] == time) {
+        return id;
+      }
+    }
+    return -1;
+  }
+
+  public long getTime(int id) {
+    return times[id];
+  }
+
+  public LocalDateTime getLocalDateTime(int id) {
+    return ColumnStore.toLocalDateTime(times[id]);
+  }
+
+  /**
+   * Returns the time as milliseconds since the epoch, the x value of a chart.
+   */
+  public long getMillis(int id) {
+    return millis[id];
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  public synchronized LocalDateTime first() {
+    merge();
+    return sortedSize == 0 ? null : ColumnStore.toLocalDateTime(sorted[0]);
+  }
+
+  public synchronized LocalDateTime last() {
+    merge();
+    return sortedSize == 0 ? null : ColumnStore.toLocalDateTime(sorted[sortedSize - 1]);
+  }
+
+  /**
+   * Returns the distinct times in ascending order.
+   */
+  public synchronized long[] getSortedTimes() {
+    merge();
+    return Arrays.copyOf(sorted, sortedSize);
+  }
+
+  /**
+   * Iterates over the times added so far, in ascending order.
+   */
+  @Override
+  public Iterator<LocalDateTime> iterator() {
+    long[] times;
+    int count;
+    synchronized (this) {
+      merge();
+      // merge() and growing copy the array, later appends go past count
+      times = sorted;
+      count = sortedSize;
+    }
+    return new Iterator<LocalDateTime>() {
+      private int position = 0;
+
+      @Override
+      public boolean hasNext() {
+        return position < count;
+      }
+
+      @Override
+      public LocalDateTime next() {
+        if (position >= count) {
+          throw new NoSuchElementException();
+        }
+        return ColumnStore.toLocalDateTime(times[position++]);
+      }
+    };
+  }
+
+  private void merge() {
+    if (pendingSize == 0) {
+      return;
+    }
+    Arrays.sort(pending, 0, pendingSize);
+    long[] merged = new long[Math.max(sorted.length, sortedSize + pendingSize)];
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    while (i < sortedSize && j < pendingSize) {
+      merged[k++] = sorted[i] < pending[j] ? sorted[i++] : pending[j++];
+    }
+    System.arraycopy(sorted, i, merged, k, sortedSize - i);
+    k += sortedSize - i;
+    System.arraycopy(pending, j, merged, k, pendingSize - j);
+    sorted = merged;
+    sortedSize += pendingSize;
+    pendingSize = 0;
+  }
+
+  private void rehash() {
+    slots = new int[slots.length * 2];
+    int mask = slots.length - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = hash(times[id]) & mask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = id + 1;
+    }
+  }
+
+  private static int hash(long time) {
+    long h = time * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private final ZoneId zone;
+  private volatile long[] times;
+  private volatile long[] millis;
+  // open addressing, id + 1 so that 0 marks a free slot
+  private int[] slots;
+  private int size = 0;
+  private int lastId = 0;
+  // every time once, ascending, and the times that arrived out of order since the last read
+  private long[] sorted;
+  private int sortedSize = 0;
+  private long[] pending;
+  private int pendingSize = 0;
+}
@@ -5,7 +5,13 @@
 
 package net.atomique.ksar;
 
+import net.atomique.ksar.graph.Aggregation;
+import net.atomique.ksar.graph.Anomaly;
+import net.atomique.ksar.graph.AnomalyDetector;
 import net.atomique.ksar.graph.Graph;
+import net.atomique.ksar.graph.LineHandler;
+import net.atomique.ksar.graph.List;
+import net.atomique.ksar.graph.QueryResult;
 import net.atomique.ksar.ui.DataView;
 import net.atomique.ksar.ui.SortedTreeNode;
 import net.atomique.ksar.ui.TreeNodeInfo;
@@ -14,14 +20,21 @@ import org.slf4j.LoggerFactory;
 
 import java.beans.PropertyVetoException;
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.JDesktopPane;
 
 public class kSar {
 
   private static final Logger log = LoggerFactory.getLogger(kSar.class);
 
+  // how often anomalies are looked for while parsing
+  private static final long DETECT_MILLIS = 5000;
+
   public kSar(JDesktopPane DesktopPane) {
     dataview = new DataView(this);
     dataview.toFront();
@@ -88,11 +101,23 @@ public class kSar {
       if (dataview != null) {
         dataview.notifyrun(true);
       }
-      launched_action.start();
+      Workers.io().execute(launched_action);
     }
   }
 
   public int parse(BufferedReader br) {
+    return parse(br, null);
+  }
+
+  /**
+   * Parses sar output. Reading and tokenizing run on a separate thread, see
+   * {@link ParsePipeline}.
+   *
+   * @param br the sar output
+   * @param source closed by {@link #interrupt_parsing()} so that a read blocked on a stalled
+   *     stream returns; may be null when reads cannot block for long, e.g. for local files
+   */
+  public int parse(BufferedReader br, Closeable source) {
     String current_line;
     long parsing_start;
     long parsing_end;
@@ -101,15 +126,24 @@ public class kSar {
 
     parsing_start = System.currentTimeMillis();
 
+    ParsePipeline pipeline = new ParsePipeline(br, source);
+    action_interrupted = false;
+    Parsing = true;
+    // registered before sniffing, which may wait on a stalled stream, so that Stop closes it
+    this.pipeline = pipeline;
+
     try {
-      while ((current_line = br.readLine()) != null && !action_interrupted) {
-        Parsing = true;
+      // look at the beginning once, instead of on every line
+      Dialect dialect = DialectSniffer.sniff(br);
+      pipeline.start();
+      while (pipeline.next()) {
+        current_line = pipeline.line();
 
         lines_parsed++;
         if (current_line.length() == 0) {
           continue;
         }
-        columns = current_line.split("\\s+");
+        columns = pipeline.columns();
 
         if (columns.length == 0) {
           continue;
@@ -118,30 +152,23 @@ public class kSar {
         //log.debug("Header Line : {}", current_line);
         String firstColumn = columns[0];
 
-        try {
-          Class<?> classtmp = GlobalOptions.getParser(firstColumn);
-          if (classtmp != null) {
-            if (myparser == null) {
-              myparser = (OSParser) classtmp.getDeclaredConstructor().newInstance();
-              myparser.init(this, current_line);
-
-              continue;
-            } else {
-              if (myparser.getParserName().equals(firstColumn)) {
-                myparser.parse_header(current_line);
-                continue;
-              }
-            }
+        if (myparser == null) {
+          // the dialect is detected once, on the first header line
+          ParserFactory factory = GlobalOptions.findParser(firstColumn);
+          if (factory == null) {
+            log.error("unknown parser: {}", firstColumn);
+            // the finally block stops the pipeline
+            Parsing = false;
+            return -1;
           }
-        } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException ex) {
-          log.error("Parser Exception", ex);
+          myparser = factory.create();
+          myparser.setDialect(dialect);
+          myparser.init(this, current_line);
+          continue;
         }
-
-
-        if (myparser == null) {
-          log.error("unknown parser: {}", firstColumn);
-          Parsing = false;
-          return -1;
+        if (firstColumn.equals(myparser.getParserName())) {
+          myparser.parse_header(current_line);
+          continue;
         }
 
         parser_return = myparser.parse(current_line, columns);
@@ -172,14 +199,33 @@ public class kSar {
         }
 
         myparser.updateUITitle();
+
+        // follow a long or live parse, from where the previous pass stopped
+        if (dataview != null && System.currentTimeMillis() - last_detection >= DETECT_MILLIS) {
+          last_detection = System.currentTimeMillis();
+          detect_anomalies(false);
+        }
       }
     } catch (IOException ex) {
       log.error("IO Exception", ex);
-      Parsing = false;
+    } finally {
+      if (!pipeline.isFinished()) {
+        pipeline.cancel();
+      }
+      this.pipeline = null;
+    }
+    if (action_interrupted) {
+      log.info("parsing interrupted after {} lines", lines_parsed);
+    }
+    if (myparser != null) {
+      myparser.refreshGraphs();
     }
 
     if (dataview != null) {
-      dataview.treehome();
+      detect_anomalies(true);
+      if (initial_graph == null || !dataview.selectGraph(initial_graph)) {
+        dataview.treehome();
+      }
       dataview.notifyrun(false);
       dataview.setHasData(true);
     }
@@ -188,12 +234,19 @@ public class kSar {
     log.debug("time to parse: {} ms", (parsing_end - parsing_start));
     log.debug("lines parsed: {}", lines_parsed);
     if (myparser != null) {
-      log.debug("number of datesamples: {}", myparser.DateSamples.size());
+      log.debug("number of datesamples: {}", myparser.getTimeline().size());
     }
     Parsing = false;
     return -1;
   }
 
+  /**
+   * Shows the graph of the given title once parsing is done, instead of the top of the tree.
+   */
+  public void setInitialGraph(String title) {
+    initial_graph = title;
+  }
+
   void cleared() {
     aborted();
   }
@@ -208,12 +261,114 @@ public class kSar {
   public void interrupt_parsing() {
     if (isParsing()) {
       action_interrupted = true;
+      ParsePipeline running = pipeline;
+      if (running != null) {
+        running.cancel();
+      }
+    }
+  }
+
+  /**
+   * Runs the {@link AnomalyDetector} of every graph on the compute pool, in parallel, from
+   * where it stopped. Returns at once; charts and tree are updated as graphs are done. A pass
+   * asked for while one is running starts when it ends.
+   *
+   * @param complete false while parsing, see {@link AnomalyDetector#update(boolean)}
+   */
+  public void detect_anomalies(boolean complete) {
+    synchronized (detection_lock) {
+      if (detection_running) {
+        detection_again = true;
+        detection_complete |= complete;
+        return;
+      }
+      detection_running = true;
+    }
+    java.util.List<Graph> graphs = new ArrayList<>();
+    collect_graphs(graphtree, graphs);
+    if (graphs.isEmpty()) {
+      detection_done();
+      return;
+    }
+    AtomicInteger remaining = new AtomicInteger(graphs.size());
+    for (Graph graph : graphs) {
+      Workers.compute().execute(() -> {
+        try {
+          if (graph.detect_anomalies(complete) > 0) {
+            graph.showAnomalies();
+          }
+        } catch (RuntimeException ex) {
+          log.error("anomaly detection failed on {}", graph.getTitle(), ex);
+        }
+        if (remaining.decrementAndGet() == 0) {
+          detection_done();
+        }
+      });
+    }
+  }
+
+  private void detection_done() {
+    if (dataview != null) {
+      dataview.anomaliesUpdated();
+    }
+    boolean again;
+    boolean complete;
+    synchronized (detection_lock) {
+      detection_running = false;
+      again = detection_again;
+      complete = detection_complete;
+      detection_again = false;
+      detection_complete = false;
+    }
+    if (again) {
+      detect_anomalies(complete);
+    }
+  }
+
+  /**
+   * Returns the anomalies found so far in all graphs, highest score first.
+   */
+  public java.util.List<Anomaly> getAnomalies() {
+    java.util.List<Graph> graphs = new ArrayList<>();
+    collect_graphs(graphtree, graphs);
+    java.util.List<Anomaly> anomalies = new ArrayList<>();
+    for (Graph graph : graphs) {
+      anomalies.addAll(graph.getAnomalies());
+    }
+    anomalies.sort(Comparator.comparingDouble(Anomaly::getScore).reversed());
+    return anomalies;
+  }
+
+  /**
+   * Returns the graphs checked in the last graph selection, in tree order.
+   */
+  public java.util.List<Graph> getPrintSelectedGraphs() {
+    java.util.List<Graph> graphs = new ArrayList<>();
+    collect_graphs(graphtree, graphs);
+    graphs.removeIf(graph -> !graph.isPrintSelected());
+    return graphs;
+  }
+
+  private static void collect_graphs(SortedTreeNode node, java.util.List<Graph> graphs) {
+    int num = node.getChildCount();
+    if (num > 0) {
+      for (int i = 0; i < num; i++) {
+        collect_graphs((SortedTreeNode) node.getChildAt(i), graphs);
+      }
+    } else {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof TreeNodeInfo) {
+        graphs.add(((TreeNodeInfo) obj1).getNode_object());
+      }
     }
   }
 
   public void add2tree(SortedTreeNode parent, SortedTreeNode newNode) {
     if (dataview != null) {
       dataview.add2tree(parent, newNode);
+    } else {
+      // no window, the tree is still needed by the exports
+      parent.insert(newNode, parent.getInsertionIndex(newNode));
     }
   }
 
@@ -243,6 +398,37 @@ public class kSar {
     }
   }
 
+  /**
+   * Reads parsed values as primitive arrays, without creating an object per sample.
+   *
+   * @param graphName stat name or graph title, see {@link OSParser#getGraphObject}
+   * @param key device of a per-device stat such as a disk or network interface; ignored for
+   *     other stats
+   * @param columns column names; all columns when null
+   * @param from first time, inclusive; the first sample when null
+   * @param to last time, inclusive; the last sample when null
+   * @param step bucket width in seconds; 0 returns the raw samples
+   * @param aggregation how samples in a bucket are combined
+   * @return the values, or null when there is no such graph
+   */
+  public QueryResult query(String graphName, String key, String[] columns, LocalDateTime from,
+      LocalDateTime to, long step, Aggregation aggregation) {
+    if (myparser == null) {
+      return null;
+    }
+    LineHandler obj = myparser.getGraphObject(graphName);
+    Graph graph = null;
+    if (obj instanceof Graph) {
+      graph = (Graph) obj;
+    } else if (obj instanceof List && key != null) {
+      graph = ((List) obj).getGraph(key);
+    }
+    if (graph == null) {
+      return null;
+    }
+    return graph.query(columns, from, to, step, aggregation);
+  }
+
   DataView getDataView() {
     return dataview;
   }
@@ -254,10 +440,17 @@ public class kSar {
   private DataView dataview = null;
   private long lines_parsed;
   private String reload_action = "Empty";
-  private Thread launched_action = null;
-  private boolean action_interrupted = false;
+  private String initial_graph = null;
+  private Runnable launched_action = null;
+  private volatile boolean action_interrupted = false;
+  private volatile ParsePipeline pipeline = null;
   public OSParser myparser = null;
-  private boolean Parsing = false;
+  private volatile boolean Parsing = false;
   public SortedTreeNode graphtree = new SortedTreeNode("kSar");
   private int page_to_print = 0;
+  private long last_detection = System.currentTimeMillis();
+  private final Object detection_lock = new Object();
+  private boolean detection_running = false;
+  private boolean detection_again = false;
+  private boolean detection_complete = false;
 }
@@ -6,9 +6,8 @@
 package net.atomique.ksar.parser;
 
 import net.atomique.ksar.OSParser;
-import net.atomique.ksar.graph.Graph;
-import net.atomique.ksar.graph.List;
-import net.atomique.ksar.xml.GraphConfig;
+import net.atomique.ksar.ParserFactory;
+import net.atomique.ksar.xml.CompiledStat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,6 +20,18 @@ public class AIX extends OSParser {
 
   private static final Logger log = LoggerFactory.getLogger(AIX.class);
 
+  public static class Factory implements ParserFactory {
+    @Override
+    public String getName() {
+      return "AIX";
+    }
+
+    @Override
+    public OSParser create() {
+      return new AIX();
+    }
+  }
+
   boolean under_average = false;
 
   public void parseHeader(String s) {
@@ -75,35 +86,10 @@ public class AIX extends OSParser {
 
 
     /** XML COLUMN PARSER **/
-    String checkStat = myosconfig.getStat(columns, firstdatacolumn);
-
+    CompiledStat checkStat = myosconfig.findStat(columns, firstdatacolumn);
     if (checkStat != null) {
-      Object obj = ListofGraph.get(checkStat);
-      if (obj == null) {
-        GraphConfig mygraphinfo = myosconfig.getGraphConfig(checkStat);
-        if (mygraphinfo != null) {
-          if ("unique".equals(mygraphinfo.getType())) {
-            obj = new Graph(mysar, mygraphinfo, mygraphinfo.getTitle(), line, firstdatacolumn,
-                mysar.graphtree);
-            ListofGraph.put(checkStat, obj);
-            currentStat = checkStat;
-            return 0;
-          }
-          if ("multiple".equals(mygraphinfo.getType())) {
-            obj = new List(mysar, mygraphinfo, mygraphinfo.getTitle(), line, firstdatacolumn);
-            ListofGraph.put(checkStat, obj);
-            currentStat = checkStat;
-            return 0;
-          }
-        } else {
-          // no graph associate
-          currentStat = checkStat;
-          return 0;
-        }
-      } else {
-        currentStat = checkStat;
-        return 0;
-      }
+      setCurrentStat(checkStat, line);
+      return 0;
     }
 
     //log.trace("{} {}", currentStat, line);
@@ -131,25 +117,12 @@ public class AIX extends OSParser {
     if (under_average) {
       return 0;
     }
-    currentStatObj = ListofGraph.get(currentStat);
     if (currentStatObj == null) {
       return -1;
-    } else {
-
-      LocalDateTime nowStat = LocalDateTime.of(parsedate, parsetime);
-
-      DateSamples.add(nowStat);
-
-      if (currentStatObj instanceof Graph) {
-        Graph ag = (Graph) currentStatObj;
-        return ag.parse_line(nowStat, line);
-      }
-      if (currentStatObj instanceof List) {
-        List ag = (List) currentStatObj;
-        return ag.parse_line(nowStat, line);
-      }
     }
-    return -1;
+    LocalDateTime nowStat = LocalDateTime.of(parsedate, parsetime);
+
+    return currentStatObj.parse_line(nowStat, line, columns);
   }
 
 
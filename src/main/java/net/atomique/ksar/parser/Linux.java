@@ -6,12 +6,12 @@
 package net.atomique.ksar.parser;
 
 import net.atomique.ksar.Config;
+import net.atomique.ksar.Dialect;
 import net.atomique.ksar.GlobalOptions;
 import net.atomique.ksar.OSParser;
-import net.atomique.ksar.graph.Graph;
-import net.atomique.ksar.graph.List;
+import net.atomique.ksar.ParserFactory;
 import net.atomique.ksar.ui.LinuxDateFormat;
-import net.atomique.ksar.xml.GraphConfig;
+import net.atomique.ksar.xml.CompiledStat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +26,18 @@ import java.util.Locale;
 public class Linux extends OSParser {
 
   private static final Logger log = LoggerFactory.getLogger(Linux.class);
+
+  public static class Factory implements ParserFactory {
+    @Override
+    public String getName() {
+      return "Linux";
+    }
+
+    @Override
+    public OSParser create() {
+      return new Linux();
+    }
+  }
   private String LinuxDateFormat;
   private DateTimeFormatter formatter;
 
@@ -59,13 +71,23 @@ public class Linux extends OSParser {
   private void checkDateFormat() {
 
     LinuxDateFormat = Config.getLinuxDateFormat();
+    Dialect dialect = getDialect();
     if ("Always ask".equals(LinuxDateFormat)) {
-      askDateFormat();
+      // no need to interrupt the load when the date can only be read one way
+      if (dialect.getDateFormat() == null) {
+        askDateFormat();
+      }
+      if ("Always ask".equals(LinuxDateFormat)) {
+        LinuxDateFormat = "Automatic Detection";
+      }
     }
 
     if ("Automatic Detection".equals(LinuxDateFormat)) {
-      dateFormat = "Automatic Detection";
-      timeColumn = 0;
+      dateFormat = dialect.getDateFormat() != null ? dialect.getDateFormat() : "Automatic Detection";
+      timeColumn = dialect.getTimeColumns();
+      if (timeColumn == 2) {
+        timeFormat = "hh:mm:ss a";
+      }
     } else {
 
       // day and year format specifiers must be lowercase, month uppercase
@@ -87,7 +109,7 @@ public class Linux extends OSParser {
   private void askDateFormat() {
 
     log.trace("askDateFormat - provide date format");
-    if (GlobalOptions.hasUI()) {
+    if (canAsk()) {
       LinuxDateFormat tmp = new LinuxDateFormat(GlobalOptions.getUI(), true);
       tmp.setTitle("Provide date format");
       if (tmp.isOk()) {
@@ -105,6 +127,7 @@ public class Linux extends OSParser {
 
     if (IgnoreLinesBeginningWith.contains(columns[0])) {
       currentStat = "NONE";
+      currentStatObj = null;
       return 1;
     }
 
@@ -152,36 +175,10 @@ public class Linux extends OSParser {
     }
 
     // XML COLUMN PARSER
-    String checkStat = myosconfig.getStat(columns, firstdatacolumn);
+    CompiledStat checkStat = myosconfig.findStat(columns, firstdatacolumn);
     if (checkStat != null) {
-      Object obj = ListofGraph.get(checkStat);
-      if (obj == null) {
-        GraphConfig mygraphinfo = myosconfig.getGraphConfig(checkStat);
-        if (mygraphinfo != null) {
-          if ("unique".equals(mygraphinfo.getType())) {
-            obj = new Graph(mysar, mygraphinfo, mygraphinfo.getTitle(), line, firstdatacolumn,
-                mysar.graphtree);
-
-            ListofGraph.put(checkStat, obj);
-            currentStat = checkStat;
-            return 2;
-          }
-          if ("multiple".equals(mygraphinfo.getType())) {
-            obj = new List(mysar, mygraphinfo, mygraphinfo.getTitle(), line, firstdatacolumn);
-
-            ListofGraph.put(checkStat, obj);
-            currentStat = checkStat;
-            return 2;
-          }
-        } else {
-          // no graph associate
-          currentStat = checkStat;
-          return 3;
-        }
-      } else {
-        currentStat = checkStat;
-        return 2;
-      }
+      // no graph associate: 3
+      return setCurrentStat(checkStat, line) ? 2 : 3;
     }
 
     if (lastStat != null) {
@@ -200,25 +197,12 @@ public class Linux extends OSParser {
       return -1;
     }
 
-    currentStatObj = ListofGraph.get(currentStat);
     if (currentStatObj == null) {
       return -1;
-    } else {
-
-      LocalDateTime nowStat = LocalDateTime.of(parsedate, parsetime);
-
-      DateSamples.add(nowStat);
-
-      if (currentStatObj instanceof Graph) {
-        Graph ag = (Graph) currentStatObj;
-        return ag.parse_line(nowStat, line);
-      }
-      if (currentStatObj instanceof List) {
-        List ag = (List) currentStatObj;
-        return ag.parse_line(nowStat, line);
-      }
     }
-    return -1;
+    LocalDateTime nowStat = LocalDateTime.of(parsedate, parsetime);
+
+    return currentStatObj.parse_line(nowStat, line, columns);
   }
 
 }
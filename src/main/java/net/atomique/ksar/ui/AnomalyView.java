@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.ui;
+
+import net.atomique.ksar.graph.Anomaly;
+
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Lists the anomalies of a data view, highest score first. A double click on a row shows its
+ * graph.
+ */
+public class AnomalyView extends javax.swing.JDialog {
+
+  private static final String[] COLUMNS = {"Score", "Graph", "Column", "From", "To", "Value"};
+
+  public AnomalyView(java.awt.Frame parent, DataView view, java.util.List<Anomaly> anomalies) {
+    super(parent, false);
+    this.view = view;
+    this.anomalies = anomalies;
+    initComponents();
+    setTitle(anomalies.size() + " anomalies");
+
+    DateTimeFormatter formatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM);
+    for (Anomaly anomaly : anomalies) {
+      tableModel.addRow(new Object[]{Math.round(anomaly.getScore() * 10) / 10.0,
+          anomaly.getGraph(), anomaly.getColumn(), anomaly.getStart().format(formatter),
+          anomaly.getEnd().format(formatter), anomaly.getValue()});
+    }
+    setLocationRelativeTo(parent);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void initComponents() {
+
+    jScrollPane1 = new javax.swing.JScrollPane();
+    anomalyTable = new javax.swing.JTable();
+
+    setDefaultCloseOperation(javax.swing.WindowConstants.DISPOSE_ON_CLOSE);
+
+    tableModel = new DefaultTableModel(COLUMNS, 0) {
+      @Override
+      public boolean isCellEditable(int row, int column) {
+        return false;
+      }
+    };
+    anomalyTable.setModel(tableModel);
+    anomalyTable.addMouseListener(new java.awt.event.MouseAdapter() {
+      public void mouseClicked(java.awt.event.MouseEvent evt) {
+        anomalyTableMouseClicked(evt);
+      }
+    });
+    jScrollPane1.setViewportView(anomalyTable);
+    jScrollPane1.setPreferredSize(new java.awt.Dimension(700, 400));
+
+    getContentPane().add(jScrollPane1, java.awt.BorderLayout.CENTER);
+
+    pack();
+  }
+
+  private void anomalyTableMouseClicked(java.awt.event.MouseEvent evt) {
+    int row = anomalyTable.getSelectedRow();
+    if (evt.getClickCount() != 2 || row < 0) {
+      return;
+    }
+    view.selectGraph(anomalies.get(anomalyTable.convertRowIndexToModel(row)).getGraph());
+  }
+
+  private javax.swing.JTable anomalyTable;
+  private javax.swing.JScrollPane jScrollPane1;
+  private DefaultTableModel tableModel;
+  private final DataView view;
+  private final java.util.List<Anomaly> anomalies;
+}
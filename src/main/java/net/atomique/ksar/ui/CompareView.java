@@ -0,0 +1,242 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.ui;
+
+import net.atomique.ksar.Comparison;
+import net.atomique.ksar.Config;
+import net.atomique.ksar.Workers;
+import net.atomique.ksar.graph.StoreDataset;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.DateAxis;
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.chart.plot.CombinedDomainXYPlot;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.chart.plot.XYPlot;
+import org.jfree.chart.renderer.xy.StandardXYItemRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JComponent;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+
+/**
+ * Shows one metric of several hosts on a shared time axis, either overlaid in one plot or as
+ * small multiples with the same value range, one plot per host.
+ */
+public class CompareView extends javax.swing.JInternalFrame {
+
+  private static final Logger log = LoggerFactory.getLogger(CompareView.class);
+
+  private static final String OVERLAY = "Overlay";
+  private static final String MULTIPLES = "Small multiples";
+
+  // height of a plot in small multiples
+  private static final int ROW_HEIGHT = 120;
+  // more hosts than that and the legend takes over the overlay
+  private static final int MAX_LEGEND = 24;
+
+  /**
+   * Creates the view and loads the given sar files in the background.
+   */
+  public CompareView(java.util.List<String> files) {
+    initComponents();
+    setTitle("Compare " + files.size() + " hosts");
+    statusLabel.setText("Loading " + files.size() + " files...");
+    Workers.io().execute(() -> {
+      Comparison loaded = Comparison.load(files);
+      SwingUtilities.invokeLater(() -> loaded(loaded));
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private void initComponents() {
+
+    toolPanel = new javax.swing.JPanel();
+    metricCombo = new javax.swing.JComboBox<>();
+    modeCombo = new javax.swing.JComboBox<>();
+    statusLabel = new javax.swing.JLabel();
+    chartHolder = new javax.swing.JPanel();
+
+    setClosable(true);
+    setIconifiable(true);
+    setMaximizable(true);
+    setResizable(true);
+
+    toolPanel.setLayout(new java.awt.FlowLayout(java.awt.FlowLayout.LEFT));
+
+    metricCombo.setEnabled(false);
+    metricCombo.addActionListener(new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        refresh();
+      }
+    });
+    toolPanel.add(metricCombo);
+
+    modeCombo.addItem(OVERLAY);
+    modeCombo.addItem(MULTIPLES);
+    modeCombo.addActionListener(new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        refresh();
+      }
+    });
+    toolPanel.add(modeCombo);
+    toolPanel.add(statusLabel);
+
+    getContentPane().add(toolPanel, java.awt.BorderLayout.NORTH);
+
+    chartHolder.setLayout(new java.awt.BorderLayout());
+    getContentPane().add(chartHolder, java.awt.BorderLayout.CENTER);
+
+    pack();
+  }
+
+  private void loaded(Comparison loaded) {
+    comparison = loaded;
+    setTitle("Compare " + comparison.size() + " hosts");
+    if (comparison.size() == 0) {
+      statusLabel.setText("No sar data found");
+      return;
+    }
+    java.util.List<Comparison.Metric> metrics = comparison.getMetrics();
+    for (Comparison.Metric metric : metrics) {
+      metricCombo.addItem(metric);
+    }
+    // the usual first question: how busy are the cpus
+    for (Comparison.Metric metric : metrics) {
+      if ("%idle".equals(metric.getColumn())) {
+        metricCombo.setSelectedItem(metric);
+        break;
+      }
+    }
+    metricCombo.setEnabled(true);
+    refresh();
+  }
+
+  private void refresh() {
+    Comparison.Metric metric = (Comparison.Metric) metricCombo.getSelectedItem();
+    if (comparison == null || metric == null || !metricCombo.isEnabled()) {
+      return;
+    }
+    boolean overlay = OVERLAY.equals(modeCombo.getSelectedItem());
+    int buckets = Math.max(200, chartHolder.getWidth());
+    int generation = refreshes.incrementAndGet();
+    statusLabel.setText("Reading " + metric + "...");
+    Workers.io().execute(() -> {
+      StoreDataset[] datasets;
+      try {
+        datasets = comparison.getDatasets(metric, buckets);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      int shown = 0;
+      for (StoreDataset dataset : datasets) {
+        if (dataset != null) {
+          shown++;
+        }
+      }
+      JFreeChart chart = overlay ? overlay_chart(metric, datasets, shown)
+          : multiples_chart(metric, datasets);
+      int hosts = shown;
+      SwingUtilities.invokeLater(() -> {
+        // a later choice won the race
+        if (generation == refreshes.get()) {
+          show_chart(chart, overlay ? 1 : hosts);
+          statusLabel.setText(hosts + " of " + comparison.size() + " hosts have " + metric);
+        }
+      });
+    });
+  }
+
+  private static JFreeChart overlay_chart(Comparison.Metric metric, StoreDataset[] datasets,
+      int shown) {
+    XYPlot plot = new XYPlot();
+    plot.setDomainAxis(new DateAxis(""));
+    plot.setRangeAxis(new NumberAxis(metric.getColumn()));
+    int n = 0;
+    for (StoreDataset dataset : datasets) {
+      if (dataset == null) {
+        continue;
+      }
+      StandardXYItemRenderer renderer = new StandardXYItemRenderer();
+      renderer.setDefaultStroke(new BasicStroke(1.0F));
+      plot.setDataset(n, dataset);
+      plot.setRenderer(n, renderer);
+      n++;
+    }
+    plot.setOrientation(PlotOrientation.VERTICAL);
+    JFreeChart chart = new JFreeChart(metric.toString(), Config.getDEFAULT_FONT(), plot,
+        shown <= MAX_LEGEND);
+    chart.setBackgroundPaint(Color.white);
+    return chart;
+  }
+
+  private static JFreeChart multiples_chart(Comparison.Metric metric, StoreDataset[] datasets) {
+    // the same range for all hosts, so that plots compare at a glance
+    double min = 0;
+    double max = Double.NEGATIVE_INFINITY;
+    for (StoreDataset dataset : datasets) {
+      if (dataset == null) {
+        continue;
+      }
+      for (int i = 0; i < dataset.getItemCount(); i++) {
+        double value = dataset.getYValue(0, i);
+        if (!Double.isNaN(value)) {
+          min = Math.min(min, value);
+          max = Math.max(max, value);
+        }
+      }
+    }
+
+    CombinedDomainXYPlot plot = new CombinedDomainXYPlot(new DateAxis(""));
+    for (StoreDataset dataset : datasets) {
+      if (dataset == null) {
+        continue;
+      }
+      NumberAxis axis = new NumberAxis(dataset.getSeriesKey(0).toString());
+      if (max > min) {
+        axis.setRange(min, max);
+      }
+      StandardXYItemRenderer renderer = new StandardXYItemRenderer();
+      renderer.setDefaultStroke(new BasicStroke(1.0F));
+      plot.add(new XYPlot(dataset, null, axis, renderer));
+    }
+    plot.setOrientation(PlotOrientation.VERTICAL);
+    JFreeChart chart = new JFreeChart(metric.toString(), Config.getDEFAULT_FONT(), plot, false);
+    chart.setBackgroundPaint(Color.white);
+    return chart;
+  }
+
+  private void show_chart(JFreeChart chart, int rows) {
+    ChartPanel panel = new ChartPanel(chart);
+    JComponent shown = panel;
+    if (rows > 1) {
+      int height = rows * ROW_HEIGHT;
+      panel.setMaximumDrawHeight(height);
+      panel.setPreferredSize(new Dimension(chartHolder.getWidth(), height));
+      shown = new JScrollPane(panel);
+    }
+    chartHolder.removeAll();
+    chartHolder.add(shown, java.awt.BorderLayout.CENTER);
+    chartHolder.revalidate();
+    chartHolder.repaint();
+    log.debug("comparison chart with {} rows", rows);
+  }
+
+  private javax.swing.JPanel chartHolder;
+  private javax.swing.JComboBox<Comparison.Metric> metricCombo;
+  private javax.swing.JComboBox<String> modeCombo;
+  private javax.swing.JLabel statusLabel;
+  private javax.swing.JPanel toolPanel;
+  private Comparison comparison = null;
+  private final AtomicInteger refreshes = new AtomicInteger();
+}
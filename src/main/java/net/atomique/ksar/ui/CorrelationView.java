@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.ui;
+
+import net.atomique.ksar.graph.Correlation;
+
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Shows a {@link Correlation}: the pairs of columns, strongest first, and the whole matrix.
+ * Both tables sort on any column; a double click on a row shows the graph of its first column,
+ * or of the clicked column in the matrix.
+ */
+public class CorrelationView extends javax.swing.JDialog {
+
+  private static final String[] PAIR_COLUMNS = {"r", "Column", "With", "Samples"};
+
+  public CorrelationView(java.awt.Frame parent, DataView view, Correlation correlation,
+      String title) {
+    super(parent, false);
+    this.view = view;
+    this.correlation = correlation;
+    this.pairs = correlation.getPairs();
+    initComponents();
+    setTitle(title);
+
+    for (Correlation.Pair pair : pairs) {
+      pairModel.addRow(new Object[]{round(pair.getValue()),
+          correlation.getLabel(pair.getFirst()), correlation.getLabel(pair.getSecond()),
+          correlation.getCount(pair.getFirst(), pair.getSecond())});
+    }
+    int n = correlation.size();
+    for (int a = 0; a < n; a++) {
+      Object[] row = new Object[n + 1];
+      row[0] = correlation.getLabel(a);
+      for (int b = 0; b < n; b++) {
+        double r = correlation.get(a, b);
+        row[b + 1] = Double.isNaN(r) ? null : round(r);
+      }
+      matrixModel.addRow(row);
+    }
+    setLocationRelativeTo(parent);
+  }
+
+  private static Double round(double r) {
+    return Math.round(r * 1000) / 1000.0;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void initComponents() {
+
+    jTabbedPane1 = new javax.swing.JTabbedPane();
+    jScrollPane1 = new javax.swing.JScrollPane();
+    jScrollPane2 = new javax.swing.JScrollPane();
+    pairTable = new javax.swing.JTable();
+    matrixTable = new javax.swing.JTable();
+
+    setDefaultCloseOperation(javax.swing.WindowConstants.DISPOSE_ON_CLOSE);
+
+    pairModel = new ReadOnlyModel(PAIR_COLUMNS, Double.class, String.class, String.class,
+        Integer.class);
+    pairTable.setModel(pairModel);
+    pairTable.setAutoCreateRowSorter(true);
+    pairTable.addMouseListener(new java.awt.event.MouseAdapter() {
+      public void mouseClicked(java.awt.event.MouseEvent evt) {
+        pairTableMouseClicked(evt);
+      }
+    });
+    jScrollPane1.setViewportView(pairTable);
+    jTabbedPane1.addTab("Pairs", jScrollPane1);
+
+    String[] headers = new String[correlation.size() + 1];
+    headers[0] = "";
+    for (int c = 0; c < correlation.size(); c++) {
+      headers[c + 1] = correlation.getLabel(c);
+    }
+    matrixModel = new ReadOnlyModel(headers, String.class);
+    matrixTable.setModel(matrixModel);
+    matrixTable.setAutoCreateRowSorter(true);
+    // hundreds of columns are only readable when scrolled
+    matrixTable.setAutoResizeMode(javax.swing.JTable.AUTO_RESIZE_OFF);
+    matrixTable.addMouseListener(new java.awt.event.MouseAdapter() {
+      public void mouseClicked(java.awt.event.MouseEvent evt) {
+        matrixTableMouseClicked(evt);
+      }
+    });
+    jScrollPane2.setViewportView(matrixTable);
+    jTabbedPane1.addTab("Matrix", jScrollPane2);
+    jTabbedPane1.setPreferredSize(new java.awt.Dimension(800, 500));
+
+    getContentPane().add(jTabbedPane1, java.awt.BorderLayout.CENTER);
+
+    pack();
+  }
+
+  private void pairTableMouseClicked(java.awt.event.MouseEvent evt) {
+    int row = pairTable.getSelectedRow();
+    if (evt.getClickCount() != 2 || row < 0) {
+      return;
+    }
+    Correlation.Pair pair = pairs.get(pairTable.convertRowIndexToModel(row));
+    int column = pairTable.convertColumnIndexToModel(pairTable.columnAtPoint(evt.getPoint()));
+    view.selectGraph(correlation.getGraph(column == 2 ? pair.getSecond() : pair.getFirst()));
+  }
+
+  private void matrixTableMouseClicked(java.awt.event.MouseEvent evt) {
+    int row = matrixTable.getSelectedRow();
+    if (evt.getClickCount() != 2 || row < 0) {
+      return;
+    }
+    int column = matrixTable.convertColumnIndexToModel(matrixTable.columnAtPoint(evt.getPoint()));
+    int index = column > 0 ? column - 1 : matrixTable.convertRowIndexToModel(row);
+    view.selectGraph(correlation.getGraph(index));
+  }
+
+  private static class ReadOnlyModel extends DefaultTableModel {
+
+    ReadOnlyModel(String[] columns, Class<?>... classes) {
+      super(columns, 0);
+      this.classes = classes;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+      return false;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+      // numbers sort as numbers, the columns past the given classes hold correlations
+      return column < classes.length ? classes[column] : Double.class;
+    }
+
+    private final Class<?>[] classes;
+  }
+
+  private javax.swing.JTabbedPane jTabbedPane1;
+  private javax.swing.JScrollPane jScrollPane1;
+  private javax.swing.JScrollPane jScrollPane2;
+  private javax.swing.JTable pairTable;
+  private javax.swing.JTable matrixTable;
+  private DefaultTableModel pairModel;
+  private DefaultTableModel matrixModel;
+  private final DataView view;
+  private final Correlation correlation;
+  private final java.util.List<Correlation.Pair> pairs;
+}
@@ -7,16 +7,28 @@ package net.atomique.ksar.ui;
 
 import net.atomique.ksar.Config;
 import net.atomique.ksar.GlobalOptions;
+import net.atomique.ksar.Workers;
 import net.atomique.ksar.export.FileCSV;
+import net.atomique.ksar.export.FileColumnar;
+import net.atomique.ksar.export.FileHTML;
+import net.atomique.ksar.export.FileImages;
+import net.atomique.ksar.export.FileOpenMetrics;
 import net.atomique.ksar.export.FilePDF;
+import net.atomique.ksar.graph.Correlation;
 import net.atomique.ksar.graph.Graph;
 import net.atomique.ksar.graph.List;
 import net.atomique.ksar.kSar;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.awt.Color;
+import java.awt.Component;
 import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JDialog;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
@@ -24,12 +36,17 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
+import javax.swing.JTextField;
+import javax.swing.JTree;
+import javax.swing.SwingUtilities;
+import javax.swing.tree.DefaultTreeCellRenderer;
 import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.TreePath;
 
 public class DataView extends javax.swing.JInternalFrame {
 
   private static final Logger log = LoggerFactory.getLogger(DataView.class);
+  private static final String WINDOW_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
   /**
    * Creates new form DataView
@@ -38,6 +55,7 @@ public class DataView extends javax.swing.JInternalFrame {
     initComponents();
     mysar = sar;
     jTree1.setModel(new DefaultTreeModel(mysar.graphtree));
+    jTree1.setCellRenderer(new AnomalyTreeRenderer());
   }
 
   /**
@@ -59,11 +77,18 @@ public class DataView extends javax.swing.JInternalFrame {
     LoadFile = new javax.swing.JMenuItem();
     LoadCommand = new javax.swing.JMenuItem();
     LoadSSH = new javax.swing.JMenuItem();
+    AnomaliesMenu = new javax.swing.JMenuItem();
+    CorrelationMenu = new javax.swing.JMenuItem();
     GraphMenu = new javax.swing.JMenu();
     addgraphMenu = new javax.swing.JMenuItem();
     exportMenu = new javax.swing.JMenu();
     PDFMenu = new javax.swing.JMenuItem();
     CSVMenu = new javax.swing.JMenuItem();
+    PNGMenu = new javax.swing.JMenuItem();
+    JPGMenu = new javax.swing.JMenuItem();
+    HTMLMenu = new javax.swing.JMenuItem();
+    ColumnarMenu = new javax.swing.JMenuItem();
+    OpenMetricsMenu = new javax.swing.JMenuItem();
 
     setClosable(true);
     setDefaultCloseOperation(javax.swing.WindowConstants.DO_NOTHING_ON_CLOSE);
@@ -157,6 +182,24 @@ public class DataView extends javax.swing.JInternalFrame {
     });
     dataMenu.add(LoadSSH);
 
+    AnomaliesMenu.setText("Anomalies...");
+    AnomaliesMenu.setEnabled(false);
+    AnomaliesMenu.addActionListener(new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        AnomaliesMenuActionPerformed(evt);
+      }
+    });
+    dataMenu.add(AnomaliesMenu);
+
+    CorrelationMenu.setText("Correlations...");
+    CorrelationMenu.setEnabled(false);
+    CorrelationMenu.addActionListener(new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        CorrelationMenuActionPerformed(evt);
+      }
+    });
+    dataMenu.add(CorrelationMenu);
+
     jMenuBar1.add(dataMenu);
 
     GraphMenu.setText("Graph");
@@ -191,6 +234,46 @@ public class DataView extends javax.swing.JInternalFrame {
     });
     exportMenu.add(CSVMenu);
 
+    PNGMenu.setText("Export to PNG images...");
+    PNGMenu.addActionListener(new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        ImagesMenuActionPerformed(FileImages.PNG);
+      }
+    });
+    exportMenu.add(PNGMenu);
+
+    JPGMenu.setText("Export to JPG images...");
+    JPGMenu.addActionListener(new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        ImagesMenuActionPerformed(FileImages.JPG);
+      }
+    });
+    exportMenu.add(JPGMenu);
+
+    HTMLMenu.setText("Export to HTML report...");
+    HTMLMenu.addActionListener(new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        HTMLMenuActionPerformed(evt);
+      }
+    });
+    exportMenu.add(HTMLMenu);
+
+    ColumnarMenu.setText("Export to columnar file (.ksarc)...");
+    ColumnarMenu.addActionListener(new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        ColumnarMenuActionPerformed(evt);
+      }
+    });
+    exportMenu.add(ColumnarMenu);
+
+    OpenMetricsMenu.setText("Export to OpenMetrics...");
+    OpenMetricsMenu.addActionListener(new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        OpenMetricsMenuActionPerformed(evt);
+      }
+    });
+    exportMenu.add(OpenMetricsMenu);
+
     jMenuBar1.add(exportMenu);
 
     setJMenuBar(jMenuBar1);
@@ -311,6 +394,152 @@ public class DataView extends javax.swing.JInternalFrame {
     doExportCSV(filename);
   }
 
+  private void ImagesMenuActionPerformed(String format) {
+    String directory = askExportDirectory("Export images to directory");
+    if (directory != null) {
+      doExportImages(directory, format);
+    }
+  }
+
+  private void HTMLMenuActionPerformed(
+      java.awt.event.ActionEvent evt) {
+    String directory = askExportDirectory("Export HTML report to directory");
+    if (directory != null) {
+      doExportHTML(directory);
+    }
+  }
+
+  private void ColumnarMenuActionPerformed(
+      java.awt.event.ActionEvent evt) {
+    GraphSelection tmp = new GraphSelection(GlobalOptions.getUI(), true, this);
+    ask_treenode(mysar.graphtree, tmp);
+    tmp.setVisible(true);
+    if (!tmp.OkforExport) {
+      return;
+    }
+    String filename = askSaveFilename("Export columnar file", Config.getLastExportDirectory());
+    if (filename == null) {
+      return;
+    }
+    if (!filename.endsWith(FileColumnar.EXTENSION)) {
+      filename += FileColumnar.EXTENSION;
+    }
+    Config.setLastExportDirectory(new File(filename).getParentFile());
+    Config.save();
+    doExportColumnar(filename);
+  }
+
+  private void OpenMetricsMenuActionPerformed(
+      java.awt.event.ActionEvent evt) {
+    GraphSelection tmp = new GraphSelection(GlobalOptions.getUI(), true, this);
+    ask_treenode(mysar.graphtree, tmp);
+    tmp.setVisible(true);
+    if (!tmp.OkforExport) {
+      return;
+    }
+    String[] choix = {"File", "HTTP endpoint"};
+    int resultat = JOptionPane.showOptionDialog(GlobalOptions.getUI(),
+        "Write the metrics to a file or POST them to an HTTP endpoint?", "OpenMetrics",
+        JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, choix, choix[0]);
+    String target;
+    if (resultat == 0) {
+      target = askSaveFilename("Export OpenMetrics", Config.getLastExportDirectory());
+    } else if (resultat == 1) {
+      target = JOptionPane.showInputDialog(GlobalOptions.getUI(), "URL:",
+          "http://localhost/");
+    } else {
+      return;
+    }
+    if (target == null || target.isEmpty()) {
+      return;
+    }
+    doExportOpenMetrics(target);
+  }
+
+  // asks for the graphs to export, then for the directory to write them to
+  private String askExportDirectory(String title) {
+    GraphSelection tmp = new GraphSelection(GlobalOptions.getUI(), true, this);
+    ask_treenode(mysar.graphtree, tmp);
+    tmp.setVisible(true);
+    if (!tmp.OkforExport) {
+      return null;
+    }
+    JFileChooser chooser = new JFileChooser();
+    chooser.setDialogTitle(title);
+    chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+    if (Config.getLastExportDirectory() != null) {
+      chooser.setCurrentDirectory(Config.getLastExportDirectory());
+    }
+    if (chooser.showSaveDialog(GlobalOptions.getUI()) != JFileChooser.APPROVE_OPTION) {
+      return null;
+    }
+    File directory = chooser.getSelectedFile();
+    Config.setLastExportDirectory(directory);
+    Config.save();
+    return directory.getAbsolutePath();
+  }
+
+  private void AnomaliesMenuActionPerformed(
+      java.awt.event.ActionEvent evt) {
+    AnomalyView tmp = new AnomalyView(GlobalOptions.getUI(), this, mysar.getAnomalies());
+    tmp.setVisible(true);
+  }
+
+  private void CorrelationMenuActionPerformed(
+      java.awt.event.ActionEvent evt) {
+    GraphSelection tmp = new GraphSelection(GlobalOptions.getUI(), true, this);
+    ask_treenode(mysar.graphtree, tmp);
+    tmp.setVisible(true);
+    if (!tmp.OkforExport) {
+      return;
+    }
+    java.util.List<Graph> graphs = mysar.getPrintSelectedGraphs();
+    if (graphs.isEmpty()) {
+      return;
+    }
+
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern(WINDOW_FORMAT);
+    LocalDateTime start = mysar.myparser.getStartOfGraph();
+    LocalDateTime end = mysar.myparser.getEndOfGraph();
+    JTextField fromField = new JTextField(start == null ? "" : start.format(formatter), 16);
+    JTextField toField = new JTextField(end == null ? "" : end.format(formatter), 16);
+    JComboBox<Correlation.Method> methodBox = new JComboBox<>(Correlation.Method.values());
+    JPanel panel = new JPanel(new java.awt.GridLayout(3, 2, 5, 5));
+    panel.add(new JLabel("From (" + WINDOW_FORMAT + "):"));
+    panel.add(fromField);
+    panel.add(new JLabel("To:"));
+    panel.add(toField);
+    panel.add(new JLabel("Method:"));
+    panel.add(methodBox);
+    if (JOptionPane.showConfirmDialog(GlobalOptions.getUI(), panel, "Correlations",
+        JOptionPane.OK_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE) != JOptionPane.OK_OPTION) {
+      return;
+    }
+    LocalDateTime from;
+    LocalDateTime to;
+    try {
+      from = fromField.getText().trim().isEmpty() ? null
+          : LocalDateTime.parse(fromField.getText().trim(), formatter);
+      to = toField.getText().trim().isEmpty() ? null
+          : LocalDateTime.parse(toField.getText().trim(), formatter);
+    } catch (DateTimeParseException ex) {
+      JOptionPane.showMessageDialog(GlobalOptions.getUI(), "Bad time: " + ex.getParsedString(),
+          "Correlations", JOptionPane.ERROR_MESSAGE);
+      return;
+    }
+    Correlation.Method method = (Correlation.Method) methodBox.getSelectedItem();
+    Workers.io().execute(() -> {
+      try {
+        Correlation correlation = Correlation.compute(graphs, from, to, method);
+        SwingUtilities.invokeLater(() -> new CorrelationView(GlobalOptions.getUI(), this,
+            correlation, method + " correlations of " + correlation.size() + " columns")
+            .setVisible(true));
+      } catch (RuntimeException ex) {
+        log.error("correlation failed", ex);
+      }
+    });
+  }
+
   private void addgraphMenuActionPerformed(
       java.awt.event.ActionEvent evt) {
     // TODO add your handling code here:
@@ -375,15 +604,13 @@ public class DataView extends javax.swing.JInternalFrame {
     mydial.setLocationRelativeTo(GlobalOptions.getUI());
     mydial.setVisible(true);
 
-    Runnable t = new FilePDF(filename, mysar, pbar, mydial);
-    Thread th = new Thread(t);
-    th.start();
+    Workers.compute().execute(new FilePDF(filename, mysar, pbar, mydial));
 
   }
 
   public void doExportCSV(String filename) {
     int pages = 0;
-    pages = mysar.myparser.getDateSamples().size();
+    pages = mysar.myparser.getTimeline().size();
     JPanel panel0 = new JPanel();
     JPanel panel1 = new JPanel();
     JPanel panel2 = new JPanel();
@@ -404,12 +631,55 @@ public class DataView extends javax.swing.JInternalFrame {
     mydial.setLocationRelativeTo(GlobalOptions.getUI());
     mydial.setVisible(true);
 
-    Runnable t = new FileCSV(filename, mysar, pbar, mydial);
-    Thread th = new Thread(t);
-    th.start();
+    Workers.compute().execute(new FileCSV(filename, mysar, pbar, mydial));
 
   }
 
+  public void doExportImages(String directory, String format) {
+    JProgressBar pbar = new JProgressBar();
+    JDialog mydial = export_dialog(pbar, mysar.get_page_to_print());
+    Workers.compute().execute(new FileImages(directory, mysar, format, pbar, mydial));
+  }
+
+  public void doExportHTML(String directory) {
+    JProgressBar pbar = new JProgressBar();
+    JDialog mydial = export_dialog(pbar, mysar.get_page_to_print());
+    Workers.compute().execute(new FileHTML(directory, mysar, pbar, mydial));
+  }
+
+  public void doExportColumnar(String filename) {
+    JProgressBar pbar = new JProgressBar();
+    JDialog mydial = export_dialog(pbar, mysar.get_page_to_print());
+    Workers.compute().execute(new FileColumnar(filename, mysar, pbar, mydial));
+  }
+
+  public void doExportOpenMetrics(String target) {
+    JProgressBar pbar = new JProgressBar();
+    JDialog mydial = export_dialog(pbar, 1);
+    Workers.compute().execute(new FileOpenMetrics(target, mysar, pbar, mydial));
+  }
+
+  private JDialog export_dialog(JProgressBar pbar, int pages) {
+    JPanel panel0 = new JPanel();
+    JPanel panel1 = new JPanel();
+    JPanel panel2 = new JPanel();
+    pbar.setMinimum(0);
+    pbar.setMaximum(pages);
+    pbar.setStringPainted(true);
+    JLabel mytitre = new JLabel("Exporting: ");
+    panel1.add(mytitre);
+    panel2.add(pbar);
+    panel0.add(panel1);
+    panel0.add(panel2);
+    JDialog mydial = new JDialog();
+    mydial.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+    mydial.setContentPane(panel0);
+    mydial.setSize(250, 80);
+    mydial.pack();
+    mydial.setLocationRelativeTo(GlobalOptions.getUI());
+    mydial.setVisible(true);
+    return mydial;
+  }
 
   public void ask_treenode(SortedTreeNode node, GraphSelection graphselection) {
     int num = node.getChildCount();
@@ -444,7 +714,7 @@ public class DataView extends javax.swing.JInternalFrame {
 
   public void add2tree(SortedTreeNode parent, SortedTreeNode newNode) {
     DefaultTreeModel model = (DefaultTreeModel) jTree1.getModel();
-    model.insertNodeInto(newNode, parent, parent.getChildCount());
+    model.insertNodeInto(newNode, parent, parent.getInsertionIndex(newNode));
     /*if( newNode.getUserObject() instanceof TreeNodeInfo ) {
       model.reload();
     }*/
@@ -456,6 +726,51 @@ public class DataView extends javax.swing.JInternalFrame {
     jTree1.repaint();
   }
 
+  /**
+   * Selects the graph of the given title in the tree, which shows it.
+   *
+   * @return false if there is no such graph
+   */
+  public boolean selectGraph(String title) {
+    SortedTreeNode node = find_treenode(mysar.graphtree, title);
+    if (node == null) {
+      return false;
+    }
+    TreePath path = new TreePath(node.getPath());
+    jTree1.setSelectionPath(path);
+    jTree1.scrollPathToVisible(path);
+    return true;
+  }
+
+  private SortedTreeNode find_treenode(SortedTreeNode node, String title) {
+    int num = node.getChildCount();
+    if (num > 0) {
+      for (int i = 0; i < num; i++) {
+        SortedTreeNode found = find_treenode((SortedTreeNode) node.getChildAt(i), title);
+        if (found != null) {
+          return found;
+        }
+      }
+    } else {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof TreeNodeInfo
+          && title.equals(((TreeNodeInfo) obj1).getNode_object().getTitle())) {
+        return node;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Redraws the tree, whose graphs with anomalies are in red, once a detection pass is done.
+   */
+  public void anomaliesUpdated() {
+    SwingUtilities.invokeLater(() -> {
+      AnomaliesMenu.setEnabled(true);
+      jTree1.repaint();
+    });
+  }
+
   public void notifyrun(boolean t) {
     exportMenu.setEnabled(!t);
     dataMenu.setEnabled(!t);
@@ -471,6 +786,7 @@ public class DataView extends javax.swing.JInternalFrame {
   public void setHasData(boolean actif) {
     has_fresh_data = actif;
     exportMenu.setEnabled(actif);
+    CorrelationMenu.setEnabled(actif);
     if (actif) {
       LoadFile.setText("Append from a file...");
       LoadCommand.setText("Append from a local Command...");
@@ -488,12 +804,47 @@ public class DataView extends javax.swing.JInternalFrame {
     }
   }
 
+  // graphs with anomalies, and stats with such a graph, are shown in red
+  private static final class AnomalyTreeRenderer extends DefaultTreeCellRenderer {
+    @Override
+    public Component getTreeCellRendererComponent(JTree tree, Object value, boolean sel,
+        boolean expanded, boolean leaf, int row, boolean hasFocus) {
+      super.getTreeCellRendererComponent(tree, value, sel, expanded, leaf, row, hasFocus);
+      if (!sel && has_anomalies((SortedTreeNode) value)) {
+        setForeground(Color.RED);
+      }
+      return this;
+    }
+
+    private static boolean has_anomalies(SortedTreeNode node) {
+      Object obj1 = node.getUserObject();
+      if (obj1 instanceof TreeNodeInfo) {
+        return ((TreeNodeInfo) obj1).getNode_object().hasAnomalies();
+      }
+      if (obj1 instanceof ParentNodeInfo) {
+        for (int i = 0; i < node.getChildCount(); i++) {
+          if (has_anomalies((SortedTreeNode) node.getChildAt(i))) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+
+  private javax.swing.JMenuItem AnomaliesMenu;
+  private javax.swing.JMenuItem CorrelationMenu;
   private javax.swing.JMenuItem CSVMenu;
+  private javax.swing.JMenuItem ColumnarMenu;
+  private javax.swing.JMenuItem JPGMenu;
   private javax.swing.JMenu GraphMenu;
+  private javax.swing.JMenuItem HTMLMenu;
   private javax.swing.JMenuItem LoadCommand;
   private javax.swing.JMenuItem LoadFile;
   private javax.swing.JMenuItem LoadSSH;
+  private javax.swing.JMenuItem OpenMetricsMenu;
   private javax.swing.JMenuItem PDFMenu;
+  private javax.swing.JMenuItem PNGMenu;
   private javax.swing.JMenuItem addgraphMenu;
   private javax.swing.JMenu dataMenu;
   private javax.swing.JPanel displayPanel;
@@ -5,6 +5,8 @@
 
 package net.atomique.ksar.ui;
 
+import net.atomique.ksar.Comparison;
+import net.atomique.ksar.FleetScan;
 import net.atomique.ksar.kSar;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -163,6 +165,8 @@ public class Desktop extends javax.swing.JFrame {
     MenuBar = new javax.swing.JMenuBar();
     FileMenu = new javax.swing.JMenu();
     NewMenu = new javax.swing.JMenuItem();
+    CompareMenu = new javax.swing.JMenuItem();
+    FleetMenu = new javax.swing.JMenuItem();
     QuitMenu = new javax.swing.JMenuItem();
     OptionsMenu = new javax.swing.JMenu();
     SysprefMenu = new javax.swing.JMenuItem();
@@ -192,6 +196,22 @@ public class Desktop extends javax.swing.JFrame {
     });
     FileMenu.add(NewMenu);
 
+    CompareMenu.setText("Compare hosts...");
+    CompareMenu.addActionListener(new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        CompareMenuActionPerformed(evt);
+      }
+    });
+    FileMenu.add(CompareMenu);
+
+    FleetMenu.setText("Fleet summary...");
+    FleetMenu.addActionListener(new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        FleetMenuActionPerformed(evt);
+      }
+    });
+    FileMenu.add(FleetMenu);
+
     QuitMenu.setText("Quit");
     QuitMenu.addActionListener(new java.awt.event.ActionListener() {
       public void actionPerformed(java.awt.event.ActionEvent evt) {
@@ -286,6 +306,29 @@ public class Desktop extends javax.swing.JFrame {
     add_window();
   }
 
+  private void CompareMenuActionPerformed(
+      java.awt.event.ActionEvent evt) {
+    java.util.List<String> files = Comparison.askFiles("Compare");
+    if (files.isEmpty()) {
+      return;
+    }
+
+    add_frame(new CompareView(files));
+  }
+
+  private void FleetMenuActionPerformed(
+      java.awt.event.ActionEvent evt) {
+    java.util.List<String> files = Comparison.askFiles("Scan");
+    if (files.isEmpty()) {
+      return;
+    }
+    FleetScan scan = FleetView.ask(this);
+    if (scan == null) {
+      return;
+    }
+    add_frame(new FleetView(this, scan, files));
+  }
+
   private void TileMenuActionPerformed(
       java.awt.event.ActionEvent evt) {
     tile(DesktopPane);
@@ -305,6 +348,26 @@ public class Desktop extends javax.swing.JFrame {
     kSar mysar = new kSar(DesktopPane);
   }
 
+  /**
+   * Opens a sar file in a new window, showing the graph of the given title once parsed.
+   */
+  public void open_graph(String filename, String graph) {
+    kSar mysar = new kSar(DesktopPane);
+    mysar.setInitialGraph(graph);
+    mysar.do_fileread(filename);
+  }
+
+  private void add_frame(JInternalFrame frame) {
+    DesktopPane.add(frame);
+    frame.reshape(0, 0, 800, 600);
+    frame.setVisible(true);
+    try {
+      frame.setSelected(true);
+    } catch (PropertyVetoException vetoe) {
+      log.error("PropertyVetoException", vetoe);
+    }
+  }
+
   public JDesktopPane getDesktopPane() {
     return DesktopPane;
   }
@@ -319,8 +382,10 @@ public class Desktop extends javax.swing.JFrame {
   }
 
   private javax.swing.JMenuItem AboutMenu;
+  private javax.swing.JMenuItem CompareMenu;
   private javax.swing.JDesktopPane DesktopPane;
   private javax.swing.JMenu FileMenu;
+  private javax.swing.JMenuItem FleetMenu;
   private javax.swing.JMenu HelpMenu;
   private javax.swing.JMenuItem IconifyMenu;
   private javax.swing.JMenuItem MaximizeMenu;
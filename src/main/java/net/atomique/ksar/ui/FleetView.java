@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.ui;
+
+import net.atomique.ksar.Comparison;
+import net.atomique.ksar.FleetScan;
+import net.atomique.ksar.Workers;
+import net.atomique.ksar.graph.Aggregation;
+
+import java.awt.GridLayout;
+import java.util.ArrayList;
+import java.util.Map;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingUtilities;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Shows the top hosts of some metrics over many sar files. A double click on a row opens its
+ * file in a new window on the graph that ranked.
+ */
+public class FleetView extends javax.swing.JInternalFrame {
+
+  private static final String[] COLUMNS = {"Metric", "Rank", "Host", "Graph", "Value", "File"};
+
+  /**
+   * Creates the view and scans the given files in the background.
+   */
+  public FleetView(Desktop desktop, FleetScan scan, java.util.List<String> files) {
+    this.desktop = desktop;
+    initComponents();
+    setTitle(scan.getAggregation() + " of " + scan.getMetrics().size() + " metrics over "
+        + files.size() + " files");
+    statusLabel.setText("Scanning " + files.size() + " files...");
+    Workers.io().execute(() -> {
+      try {
+        Map<Comparison.Metric, java.util.List<FleetScan.Ranking>> rankings = scan.scan(files,
+            n -> SwingUtilities.invokeLater(
+                () -> statusLabel.setText("Scanned " + n + " of " + files.size() + " files")));
+        SwingUtilities.invokeLater(() -> show_rankings(rankings));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    });
+  }
+
+  /**
+   * Asks which metrics to rank and how; null when cancelled.
+   */
+  public static FleetScan ask(Desktop desktop) {
+    JTextField metricsField = new JTextField("CPU all %iowait", 30);
+    JComboBox<Aggregation> aggregationCombo = new JComboBox<>(Aggregation.values());
+    aggregationCombo.setSelectedItem(Aggregation.P99);
+    JSpinner topSpinner = new JSpinner(new SpinnerNumberModel(10, 1, 1000, 1));
+
+    JPanel panel = new JPanel(new GridLayout(0, 2));
+    panel.add(new JLabel("Metrics, comma separated:"));
+    panel.add(metricsField);
+    panel.add(new JLabel("Statistic:"));
+    panel.add(aggregationCombo);
+    panel.add(new JLabel("Top:"));
+    panel.add(topSpinner);
+    int answer = JOptionPane.showConfirmDialog(desktop, panel, "Fleet summary",
+        JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+    if (answer != JOptionPane.OK_OPTION) {
+      return null;
+    }
+
+    java.util.List<Comparison.Metric> metrics = new ArrayList<>();
+    for (String s : metricsField.getText().split(",")) {
+      Comparison.Metric metric = Comparison.Metric.parse(s);
+      if (metric != null) {
+        metrics.add(metric);
+      }
+    }
+    if (metrics.isEmpty()) {
+      JOptionPane.showMessageDialog(desktop,
+          "A metric is a graph and a column, e.g. CPU all %iowait", "Fleet summary",
+          JOptionPane.ERROR_MESSAGE);
+      return null;
+    }
+    return new FleetScan(metrics, (Aggregation) aggregationCombo.getSelectedItem(),
+        (Integer) topSpinner.getValue());
+  }
+
+  @SuppressWarnings("unchecked")
+  private void initComponents() {
+
+    statusLabel = new javax.swing.JLabel();
+    jScrollPane1 = new javax.swing.JScrollPane();
+    rankingTable = new javax.swing.JTable();
+
+    setClosable(true);
+    setIconifiable(true);
+    setMaximizable(true);
+    setResizable(true);
+
+    getContentPane().add(statusLabel, java.awt.BorderLayout.NORTH);
+
+    tableModel = new DefaultTableModel(COLUMNS, 0) {
+      @Override
+      public boolean isCellEditable(int row, int column) {
+        return false;
+      }
+    };
+    rankingTable.setModel(tableModel);
+    rankingTable.addMouseListener(new java.awt.event.MouseAdapter() {
+      public void mouseClicked(java.awt.event.MouseEvent evt) {
+        rankingTableMouseClicked(evt);
+      }
+    });
+    jScrollPane1.setViewportView(rankingTable);
+
+    getContentPane().add(jScrollPane1, java.awt.BorderLayout.CENTER);
+
+    pack();
+  }
+
+  private void rankingTableMouseClicked(java.awt.event.MouseEvent evt) {
+    int row = rankingTable.getSelectedRow();
+    if (evt.getClickCount() != 2 || row < 0) {
+      return;
+    }
+    FleetScan.Ranking ranking = shown.get(rankingTable.convertRowIndexToModel(row));
+    desktop.open_graph(ranking.getFile(), ranking.getGraph());
+  }
+
+  private void show_rankings(Map<Comparison.Metric, java.util.List<FleetScan.Ranking>> rankings) {
+    for (Map.Entry<Comparison.Metric, java.util.List<FleetScan.Ranking>> entry
+        : rankings.entrySet()) {
+      int rank = 1;
+      for (FleetScan.Ranking ranking : entry.getValue()) {
+        tableModel.addRow(new Object[]{entry.getKey().toString(), rank++, ranking.getHost(),
+            ranking.getGraph(), ranking.getValue(), ranking.getFile()});
+        shown.add(ranking);
+      }
+    }
+    statusLabel.setText(shown.isEmpty() ? "No host has these metrics"
+        : "Double click a row to open its graph");
+  }
+
+  private javax.swing.JScrollPane jScrollPane1;
+  private javax.swing.JTable rankingTable;
+  private javax.swing.JLabel statusLabel;
+  private DefaultTableModel tableModel;
+  private final Desktop desktop;
+  private final java.util.List<FleetScan.Ranking> shown = new ArrayList<>();
+}
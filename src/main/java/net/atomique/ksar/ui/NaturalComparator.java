@@ -6,54 +6,104 @@
 package net.atomique.ksar.ui;
 
 import java.util.Comparator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Compares strings in "human natural order".
  * E.g. {@code "cpu 2" < "cpu 10"}, and {@code "cpu 1 core 10 thread1" >  "cpu1core2thread2"}
+ *
+ * <p>Strings are split into words: runs of digits, and runs of other non-blank characters.
+ * Blanks only separate words. Words are compared one by one, numbers of different length by
+ * their length and anything else as strings. The comparison scans the characters in place and
+ * does not allocate; see {@link NaturalKey} for strings compared over and over.
  */
 public class NaturalComparator implements Comparator<String> {
   public final static Comparator<String> INSTANCE = new NaturalComparator();
   public final static Comparator<String> NULLS_FIRST = Comparator.nullsFirst(INSTANCE);
 
-  private final static Pattern WORD_PATTERN = Pattern.compile("\\s*+([^0-9\\s]++|\\d++)");
-
   @Override
   public int compare(String a, String b) {
     if (a == null || b == null) {
       return 0; // nulls should be handled in other comparator
     }
 
-    Matcher ma = WORD_PATTERN.matcher(a);
-    Matcher mb = WORD_PATTERN.matcher(b);
-
+    int i = 0;
+    int j = 0;
     while (true) {
-      boolean findA = ma.find();
-      boolean findB = mb.find();
-      if (findA && !findB) {
+      i = skipBlanks(a, i);
+      j = skipBlanks(b, j);
+      boolean endA = i == a.length();
+      boolean endB = j == b.length();
+      if (!endA && endB) {
         return 1;
       }
-      if (!findA) {
-        return findB ? -1 : 0;
+      if (endA) {
+        return endB ? 0 : -1;
+      }
+      int ei = wordEnd(a, i);
+      int ej = wordEnd(b, j);
+      int res = compareWords(a, i, ei, b, j, ej);
+      if (res != 0) {
+        return res;
       }
-      String u = ma.group(1);
-      String v = mb.group(1);
-
-      if (Character.isDigit(u.charAt(0)) && Character.isDigit(v.charAt(0))) {
-        int res = Integer.compare(u.length(), v.length());
-        if (res != 0) {
-          // The shorter the length the smaller the number
-          return res;
-        }
+      i = ei;
+      j = ej;
+    }
+  }
+
+  static int skipBlanks(String s, int from) {
+    while (from < s.length() && isBlank(s.charAt(from))) {
+      from++;
+    }
+    return from;
+  }
+
+  /**
+   * Returns the end of the word starting at the given non-blank character.
+   */
+  static int wordEnd(String s, int from) {
+    int end = from + 1;
+    if (isAsciiDigit(s.charAt(from))) {
+      while (end < s.length() && isAsciiDigit(s.charAt(end))) {
+        end++;
       }
-      // Ether both are numeric of equal length (see above if)
-      // or they are non-numeric, then we compare as strings
-      // or one of them is numeric and another is not, then we compare as strings anyway
-      int res = u.compareTo(v);
+    } else {
+      while (end < s.length() && !isAsciiDigit(s.charAt(end)) && !isBlank(s.charAt(end))) {
+        end++;
+      }
+    }
+    return end;
+  }
+
+  static int compareWords(String a, int from1, int to1, String b, int from2, int to2) {
+    int len1 = to1 - from1;
+    int len2 = to2 - from2;
+    if (Character.isDigit(a.charAt(from1)) && Character.isDigit(b.charAt(from2))) {
+      int res = Integer.compare(len1, len2);
       if (res != 0) {
+        // The shorter the length the smaller the number
         return res;
       }
     }
+    // Ether both are numeric of equal length (see above if)
+    // or they are non-numeric, then we compare as strings
+    // or one of them is numeric and another is not, then we compare as strings anyway
+    int n = Math.min(len1, len2);
+    for (int k = 0; k < n; k++) {
+      char c1 = a.charAt(from1 + k);
+      char c2 = b.charAt(from2 + k);
+      if (c1 != c2) {
+        return c1 - c2;
+      }
+    }
+    return len1 - len2;
+  }
+
+  private static boolean isAsciiDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  // same set as \s in a regular expression
+  private static boolean isBlank(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
   }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.ui;
+
+import java.util.Arrays;
+
+/**
+ * A string prepared for {@link NaturalComparator} ordering: the word boundaries are found once,
+ * so comparing two keys only compares characters.
+ */
+public final class NaturalKey implements Comparable<NaturalKey> {
+
+  private static final int[] NO_BOUNDS = new int[0];
+
+  public NaturalKey(String text) {
+    this.text = text;
+    int[] b = NO_BOUNDS;
+    int words = 0;
+    int i = NaturalComparator.skipBlanks(text, 0);
+    while (i < text.length()) {
+      int end = NaturalComparator.wordEnd(text, i);
+      if (2 * words + 2 > b.length) {
+        b = Arrays.copyOf(b, Math.max(4, b.length * 2));
+      }
+      b[2 * words] = i;
+      b[2 * words + 1] = end;
+      words++;
+      i = NaturalComparator.skipBlanks(text, end);
+    }
+    bounds = b.length == 2 * words ? b : Arrays.copyOf(b, 2 * words);
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  @Override
+  public int compareTo(NaturalKey o) {
+    int n = Math.min(bounds.length, o.bounds.length);
+    for (int k = 0; k < n; k += 2) {
+      int res = NaturalComparator.compareWords(text, bounds[k], bounds[k + 1],
+          o.text, o.bounds[k], o.bounds[k + 1]);
+      if (res != 0) {
+        return res;
+      }
+    }
+    return Integer.compare(bounds.length, o.bounds.length);
+  }
+
+  /**
+   * Keys are equal when they compare equal, e.g. {@code "cpu 1"} and {@code "cpu1"}.
+   */
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof NaturalKey && compareTo((NaturalKey) o) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    int h = 1;
+    for (int k = 0; k < bounds.length; k += 2) {
+      for (int i = bounds[k]; i < bounds[k + 1]; i++) {
+        h = 31 * h + text.charAt(i);
+      }
+      h = 31 * h;
+    }
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+
+  private final String text;
+  private final int[] bounds;
+}
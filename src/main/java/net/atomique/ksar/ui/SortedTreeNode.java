@@ -9,17 +9,19 @@ import java.util.Comparator;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.MutableTreeNode;
 
+/**
+ * Tree node that keeps its children sorted: "all", "sum" and "lo" first, then in natural order.
+ *
+ * <p>Each node prepares a {@link NaturalKey} of its name once, and a new child is placed with
+ * a binary search, so building a node with thousands of devices stays cheap.
+ */
 public class SortedTreeNode extends DefaultMutableTreeNode implements Comparable<SortedTreeNode> {
 
   public static final long serialVersionUID = 15071L;
 
-  private static final Comparator<String> comparator =
-      Comparator.nullsFirst(
-          Comparator.<String, Boolean>comparing("all"::equals)
-              .thenComparing("sum"::equals)
-              .thenComparing("lo"::equals)
-              .reversed()
-              .thenComparing(NaturalComparator.INSTANCE));
+  private static final Comparator<SortedTreeNode> comparator =
+      Comparator.<SortedTreeNode>comparingInt(n -> n.sortKey().rank)
+          .thenComparing(n -> n.sortKey().name);
 
   public SortedTreeNode(String name) {
     super(name);
@@ -33,14 +35,88 @@ public class SortedTreeNode extends DefaultMutableTreeNode implements Comparable
     super(tmp);
   }
 
+  /**
+   * Inserts the child at its sorted position; childIndex is ignored.
+   */
   @Override
   public void insert(final MutableTreeNode newChild, final int childIndex) {
-    super.insert(newChild, childIndex);
-    this.children.sort(null);
+    if (newChild != null && newChild.getParent() == this) {
+      remove(newChild);
+    }
+    super.insert(newChild, getInsertionIndex(newChild));
+  }
+
+  /**
+   * Returns the index the given node would get as a child of this node, e.g. to notify a tree
+   * model of the insertion.
+   */
+  public int getInsertionIndex(MutableTreeNode node) {
+    if (!(node instanceof SortedTreeNode) || children == null) {
+      return getChildCount();
+    }
+    SortedTreeNode key = (SortedTreeNode) node;
+    // after the last equal child, so that equal names keep their insertion order
+    int low = 0;
+    int high = children.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compareTo(children.get(mid), key) <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  @Override
+  public void setUserObject(Object userObject) {
+    super.setUserObject(userObject);
+    sortKey = null;
   }
 
   public int compareTo(final SortedTreeNode o) {
-    return comparator.compare(this.toString(), o.toString());
+    return comparator.compare(this, o);
+  }
+
+  private static int compareTo(Object child, SortedTreeNode key) {
+    if (!(child instanceof SortedTreeNode)) {
+      return -1;
+    }
+    return comparator.compare((SortedTreeNode) child, key);
+  }
+
+  private SortKey sortKey() {
+    SortKey key = sortKey;
+    if (key == null) {
+      key = new SortKey(toString());
+      sortKey = key;
+    }
+    return key;
+  }
+
+  private static final class SortKey {
+    final int rank;
+    final NaturalKey name;
+
+    SortKey(String name) {
+      if (name == null) {
+        rank = 0;
+        this.name = new NaturalKey("");
+        return;
+      }
+      if ("all".equals(name)) {
+        rank = 1;
+      } else if ("sum".equals(name)) {
+        rank = 2;
+      } else if ("lo".equals(name)) {
+        rank = 3;
+      } else {
+        rank = 4;
+      }
+      this.name = new NaturalKey(name);
+    }
   }
 
+  private transient SortKey sortKey = null;
 }
@@ -50,6 +50,13 @@ public class ColumnConfig {
     if ("counter".equals(s)) {
       type = 2;
     }
+    if ("delta".equals(s)) {
+      type = 3;
+    }
+  }
+
+  public void setType(int type) {
+    this.type = type;
   }
 
   public int getType() {
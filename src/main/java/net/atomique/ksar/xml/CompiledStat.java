@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.xml;
+
+/**
+ * A {@link StatConfig} joined with its {@link GraphConfig}, prepared by {@link OSConfig#compile()}
+ * so that parsers recognize header lines and create graphs without string-keyed lookups.
+ */
+public final class CompiledStat {
+
+  public static final int NO_GRAPH = 0;
+  public static final int UNIQUE = 1;
+  public static final int MULTIPLE = 2;
+
+  CompiledStat(StatConfig stat, GraphConfig graph) {
+    this.name = stat.getGraphName();
+    this.header = stat.getHeaderStr().split(" ", -1);
+    this.duplicateTime = stat.canDuplicateTime();
+    this.graph = graph;
+    if (graph == null) {
+      kind = NO_GRAPH;
+    } else if ("unique".equals(graph.getType())) {
+      kind = UNIQUE;
+    } else if ("multiple".equals(graph.getType())) {
+      kind = MULTIPLE;
+    } else {
+      kind = NO_GRAPH;
+    }
+  }
+
+  /**
+   * Returns the name the stat is known by in parsers, its graph name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  public GraphConfig getGraphConfig() {
+    return graph;
+  }
+
+  /**
+   * Returns {@link #UNIQUE} for one graph, {@link #MULTIPLE} for a graph per device, or
+   * {@link #NO_GRAPH}.
+   */
+  public int getKind() {
+    return kind;
+  }
+
+  public boolean canDuplicateTime() {
+    return duplicateTime;
+  }
+
+  String firstWord() {
+    return header[0];
+  }
+
+  /**
+   * Tells whether the columns of a line from the given index on are the header of this stat.
+   */
+  public boolean matches(String[] columns, int firstdatacolumn) {
+    if (columns.length - firstdatacolumn != header.length) {
+      return false;
+    }
+    for (int i = 0; i < header.length; i++) {
+      if (!header[i].equals(columns[firstdatacolumn + i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private final String name;
+  private final String[] header;
+  private final boolean duplicateTime;
+  private final GraphConfig graph;
+  private final int kind;
+}
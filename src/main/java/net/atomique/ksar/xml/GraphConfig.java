@@ -15,6 +15,7 @@ public class GraphConfig {
     this.type = type;
     plotlist = new LinkedHashMap<>();
     stacklist = new LinkedHashMap<>();
+    derivedlist = new LinkedHashMap<>();
   }
 
   public String getTitle() {
@@ -45,9 +46,22 @@ public class GraphConfig {
     return stacklist;
   }
 
+  /**
+   * Adds a column computed from the others, see {@link net.atomique.ksar.graph.Expression}.
+   * It may be drawn by naming it in a plot or a stack like a parsed column.
+   */
+  public void addDerived(String column, String expression) {
+    derivedlist.put(column, expression);
+  }
+
+  public LinkedHashMap<String, String> getDerivedlist() {
+    return derivedlist;
+  }
+
   private String name;
   private String title;
   private String type;
   private LinkedHashMap<String, PlotStackConfig> plotlist;
   private LinkedHashMap<String, PlotStackConfig> stacklist;
+  private LinkedHashMap<String, String> derivedlist;
 }
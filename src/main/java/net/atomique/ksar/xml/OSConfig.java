@@ -5,8 +5,9 @@
 
 package net.atomique.ksar.xml;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
 
 public class OSConfig {
 
@@ -16,10 +17,12 @@ public class OSConfig {
 
   public void addStat(StatConfig s) {
     StatHash.put(s.getStatName(), s);
+    compiled = null;
   }
 
   public void addGraph(GraphConfig s) {
     GraphHash.put(s.getName(), s);
+    compiled = null;
   }
 
   public String getOsName() {
@@ -27,36 +30,54 @@ public class OSConfig {
   }
 
   public String getStat(String[] columns, int firstdatacolumn) {
-    //this is called for each line of source file
-
-    String[] s1 = Arrays.copyOfRange(columns, firstdatacolumn, columns.length);
-    String header = String.join(" ", s1);
-
-    //cache Mapping of HeaderStr to StatName - get StatHash more efficiently
-    createCacheForMappingOfHeaderStr2StatName();
-    String statName = MappingStatHeaderName.get(header);
+    CompiledStat stat = findStat(columns, firstdatacolumn);
+    return stat == null ? null : stat.getName();
+  }
 
-    if (statName != null) {
-      return StatHash.get(statName).getGraphName();
-    } else {
+  /**
+   * Returns the stat whose header the given line is, or null for a data line.
+   */
+  public CompiledStat findStat(String[] columns, int firstdatacolumn) {
+    //this is called for each line of source file
+    if (firstdatacolumn >= columns.length) {
       return null;
     }
-
+    Map<String, CompiledStat[]> byFirstWord = compiled;
+    if (byFirstWord == null) {
+      byFirstWord = compile();
+    }
+    // most lines are data lines, their first value is not a header word
+    CompiledStat[] candidates = byFirstWord.get(columns[firstdatacolumn]);
+    if (candidates != null) {
+      for (CompiledStat stat : candidates) {
+        if (stat.matches(columns, firstdatacolumn)) {
+          return stat;
+        }
+      }
+    }
+    return null;
   }
 
-  private void createCacheForMappingOfHeaderStr2StatName() {
-    //do this only once - all Stats are known - create reverse maaping
-    if (MappingStatHeaderName == null) {
-
-      MappingStatHeaderName = new HashMap<>();
-
-      StatHash.forEach((k, v) -> {
-        String statName = v.getStatName();
-        String graphHeader = v.getHeaderStr();
-
-        MappingStatHeaderName.put(graphHeader, statName);
-      });
+  /**
+   * Joins each stat with its graph and indexes the stats by the first word of their header.
+   * Done once the configuration is loaded, and again if stats or graphs are added later.
+   */
+  public synchronized Map<String, CompiledStat[]> compile() {
+    if (compiled != null) {
+      return compiled;
+    }
+    Map<String, ArrayList<CompiledStat>> lists = new HashMap<>();
+    for (StatConfig stat : StatHash.values()) {
+      if (stat.getHeaderStr() == null || stat.getGraphName() == null) {
+        continue;
+      }
+      CompiledStat c = new CompiledStat(stat, GraphHash.get(stat.getGraphName()));
+      lists.computeIfAbsent(c.firstWord(), k -> new ArrayList<>()).add(c);
     }
+    Map<String, CompiledStat[]> byFirstWord = new HashMap<>();
+    lists.forEach((word, stats) -> byFirstWord.put(word, stats.toArray(new CompiledStat[0])));
+    compiled = byFirstWord;
+    return byFirstWord;
   }
 
   public StatConfig getStat(String statName) {
@@ -94,6 +115,6 @@ public class OSConfig {
   private HashMap<String, StatConfig> StatHash = new HashMap<>();
   private HashMap<String, GraphConfig> GraphHash = new HashMap<>();
 
-  private HashMap<String, String> MappingStatHeaderName;
+  private volatile Map<String, CompiledStat[]> compiled;
 
 }
@@ -74,6 +74,10 @@ public class PlotStackConfig {
     return tmp;
   }
 
+  public int getBase() {
+    return base;
+  }
+
   public void setBase(String s) {
     if (s == null) {
       return;
@@ -81,10 +85,18 @@ public class PlotStackConfig {
     base = Integer.parseUnsignedInt(s);
   }
 
+  public double getFactor() {
+    return factor;
+  }
+
   public void setFactor(String s) {
     factor = Double.parseDouble(s);
   }
 
+  public Range getRange() {
+    return range;
+  }
+
   public void setRange(String s) {
     String[] t = s.split(",");
     if (t.length == 2) {
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ *
+ * Viewer of the HTML report: the chart of a graph is drawn when its entry is opened, from the
+ * data/*.js chunk of the graph. Chunks are scripts calling ksarData(), so the report also
+ * works when opened from the file system.
+ */
+(function () {
+  'use strict';
+
+  var HEIGHT = 320;
+  var MARGIN = 50;
+
+  window.ksarData = function (id, data) {
+    var el = document.getElementById(id);
+    if (el) {
+      draw(el, data);
+    }
+  };
+
+  function load(el) {
+    if (el.getAttribute('data-loaded')) {
+      return;
+    }
+    el.setAttribute('data-loaded', '1');
+    var script = document.createElement('script');
+    script.src = el.getAttribute('data-src');
+    document.head.appendChild(script);
+  }
+
+  function draw(el, data) {
+    var times = [];
+    var time = data.start;
+    for (var i = 0; i < data.times.length; i++) {
+      time += data.times[i] * 1000;
+      times.push(time);
+    }
+    var min = Infinity;
+    var max = -Infinity;
+    data.values.forEach(function (column) {
+      column.forEach(function (v) {
+        if (v !== null) {
+          min = Math.min(min, v);
+          max = Math.max(max, v);
+        }
+      });
+    });
+    if (min > max) {
+      el.textContent = 'no data';
+      return;
+    }
+    min = Math.min(min, 0);
+    if (max === min) {
+      max = min + 1;
+    }
+
+    var canvas = document.createElement('canvas');
+    canvas.width = Math.max(el.clientWidth, 400);
+    canvas.height = HEIGHT;
+    el.textContent = '';
+    el.appendChild(canvas);
+    var ctx = canvas.getContext('2d');
+    var w = canvas.width - 2 * MARGIN;
+    var h = HEIGHT - 2 * MARGIN;
+    var t0 = times[0];
+    var span = Math.max(times[times.length - 1] - t0, 1);
+
+    ctx.font = '11px sans-serif';
+    ctx.strokeStyle = '#999';
+    ctx.strokeRect(MARGIN, MARGIN, w, h);
+    ctx.fillStyle = '#000';
+    ctx.fillText(String(max), 2, MARGIN + 4);
+    ctx.fillText(String(min), 2, MARGIN + h);
+    ctx.fillText(new Date(t0).toLocaleString(), MARGIN, MARGIN + h + 14);
+    var end = new Date(t0 + span).toLocaleString();
+    ctx.fillText(end, MARGIN + w - ctx.measureText(end).width, MARGIN + h + 14);
+
+    var legend = MARGIN;
+    data.values.forEach(function (column, c) {
+      ctx.strokeStyle = data.colors[c];
+      ctx.beginPath();
+      var drawing = false;
+      for (var i = 0; i < column.length; i++) {
+        if (column[i] === null) {
+          drawing = false;
+          continue;
+        }
+        var x = MARGIN + (times[i] - t0) * w / span;
+        var y = MARGIN + h - (column[i] - min) * h / (max - min);
+        if (drawing) {
+          ctx.lineTo(x, y);
+        } else {
+          ctx.moveTo(x, y);
+          drawing = true;
+        }
+      }
+      ctx.stroke();
+      ctx.fillStyle = data.colors[c];
+      ctx.fillRect(legend, HEIGHT - 14, 10, 10);
+      ctx.fillStyle = '#000';
+      ctx.fillText(data.columns[c], legend + 14, HEIGHT - 5);
+      legend += 24 + ctx.measureText(data.columns[c]).width;
+    });
+  }
+
+  document.addEventListener('DOMContentLoaded', function () {
+    var entries = document.querySelectorAll('details.graph');
+    for (var i = 0; i < entries.length; i++) {
+      entries[i].addEventListener('toggle', function (evt) {
+        if (evt.target.open) {
+          load(evt.target.querySelector('.chart'));
+        }
+      });
+    }
+  });
+})();
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+public class AllParserTest {
+
+  private static final class Parser extends AllParser {
+
+    Parser(String dateFormat) {
+      this.dateFormat = dateFormat;
+    }
+
+    @Override
+    public String getInfo() {
+      return "";
+    }
+
+    @Override
+    public void parseHeader(String s) {
+    }
+
+    @Override
+    public void updateUITitle() {
+    }
+  }
+
+  @Test
+  public void monthNamesAreEnglish() {
+    Locale locale = Locale.getDefault();
+    Locale.setDefault(Locale.FRANCE);
+    try {
+      // a pattern sniffed from an English header, read on a French desktop
+      assertTrue(new Parser("dd MMM yyyy").setDate("16 May 2017"));
+    } finally {
+      Locale.setDefault(locale);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.atomique.ksar.graph.StoreDataset;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class ComparisonTest {
+
+  @Test
+  public void loadsHostsSideBySide() throws Exception {
+    ArrayList<Path> files = new ArrayList<>();
+    try {
+      for (String[] host : new String[][]{{"node1", "96.50"}, {"node2", "50.00"}}) {
+        files.add(SarFixture.write(host[0], SarFixture.linux(host[0], "0.00", host[1])));
+      }
+      Path empty = Files.createTempFile("empty", ".sar");
+      files.add(empty);
+
+      Comparison comparison = Comparison.load(Arrays.asList(files.get(0).toString(),
+          files.get(1).toString(), empty.toString()));
+      assertEquals(2, comparison.size());
+      assertEquals("node1", comparison.getHostName(0));
+      assertEquals("node2", comparison.getHostName(1));
+
+      Comparison.Metric idle = new Comparison.Metric("CPU all", "%idle");
+      assertTrue(comparison.getMetrics().contains(idle), comparison.getMetrics().toString());
+
+      StoreDataset[] datasets = comparison.getDatasets(idle, 100);
+      assertEquals(2, datasets.length);
+      assertEquals("node2", datasets[1].getSeriesKey(0));
+      assertEquals(50.0, datasets[1].getYValue(0, 0));
+      assertEquals(datasets[0].getXValue(0, 0), datasets[1].getXValue(0, 0));
+
+      assertNull(comparison.getDatasets(new Comparison.Metric("CPU all", "%none"), 100)[0]);
+    } finally {
+      for (Path file : files) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.atomique.ksar.xml.ColumnConfig;
+import net.atomique.ksar.xml.GraphConfig;
+import net.atomique.ksar.xml.OSConfig;
+import net.atomique.ksar.xml.PlotStackConfig;
+import net.atomique.ksar.xml.StatConfig;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class ConfigSnapshotTest {
+
+  @Test
+  public void roundTrips() throws IOException {
+    Map<String, ColumnConfig> colors = new HashMap<>();
+    ColumnConfig user = new ColumnConfig("%user");
+    user.setData_color("255,0,0");
+    colors.put("%user", user);
+    ColumnConfig counter = new ColumnConfig("intr/s");
+    counter.setType("counter");
+    colors.put("intr/s", counter);
+
+    OSConfig linux = new OSConfig("Linux");
+    StatConfig cpu = new StatConfig("cpu");
+    cpu.setGraphName("CPU");
+    cpu.setHeaderStr("CPU %user %system");
+    cpu.setDuplicateTime("yes");
+    linux.addStat(cpu);
+    GraphConfig graph = new GraphConfig("CPU", "CPU usage", "multiple");
+    PlotStackConfig plot = new PlotStackConfig("user");
+    plot.setHeaderStr("%user %system");
+    plot.setSize(2);
+    plot.setBase("1024");
+    plot.setFactor("1.5");
+    plot.setRange("0,100");
+    graph.addPlot(plot);
+    PlotStackConfig stack = new PlotStackConfig("stack");
+    stack.setHeaderStr("%system");
+    graph.addStack(stack);
+    graph.addDerived("%busy", "100 - %idle");
+    graph.addDerived("%work", "%user + %system");
+    linux.addGraph(graph);
+    Map<String, OSConfig> oslist = new HashMap<>();
+    oslist.put("Linux", linux);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ConfigSnapshot.write(out, Arrays.asList("/Config.xml", "/Linux.xml"), colors, oslist);
+
+    Map<String, ColumnConfig> readColors = new HashMap<>();
+    Map<String, OSConfig> readOslist = new HashMap<>();
+    Set<String> resources = ConfigSnapshot.read(out.toByteArray(), readColors, readOslist);
+
+    assertEquals(Set.of("/Config.xml", "/Linux.xml"), resources);
+    assertEquals(new Color(255, 0, 0), readColors.get("%user").getData_color());
+    assertNull(readColors.get("intr/s").getData_color());
+    assertEquals(2, readColors.get("intr/s").getType());
+
+    OSConfig readLinux = readOslist.get("Linux");
+    StatConfig readCpu = readLinux.getStatHash().get("cpu");
+    assertEquals("CPU", readCpu.getGraphName());
+    assertEquals("CPU %user %system", readCpu.getHeaderStr());
+    assertTrue(readCpu.canDuplicateTime());
+    assertEquals("CPU", readLinux.getStat("10:00:01 CPU %user %system".split(" "), 1));
+
+    GraphConfig readGraph = readLinux.getGraphHash().get("CPU");
+    assertEquals("CPU usage", readGraph.getTitle());
+    assertEquals("multiple", readGraph.getType());
+    PlotStackConfig readPlot = readGraph.getPlotlist().get("user");
+    assertArrayEquals(new String[]{"%user", "%system"}, readPlot.getHeader());
+    assertEquals(2, readPlot.getSize());
+    assertEquals(1024, readPlot.getBase());
+    assertEquals(1.5, readPlot.getFactor());
+    assertEquals(100, readPlot.getRange().getUpperBound());
+    assertNull(readGraph.getStacklist().get("stack").getRange());
+    assertEquals(Arrays.asList("%busy", "%work"),
+        new ArrayList<>(readGraph.getDerivedlist().keySet()));
+    assertEquals("%user + %system", readGraph.getDerivedlist().get("%work"));
+  }
+
+  @Test
+  public void ignoresUnknownFormat() throws IOException {
+    Map<String, ColumnConfig> colors = new HashMap<>();
+    assertTrue(ConfigSnapshot.read(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}, colors, new HashMap<>())
+        .isEmpty());
+    assertTrue(colors.isEmpty());
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+
+public class DialectSnifferTest {
+
+  @Test
+  public void twelveHourClockWithDecimalComma() throws IOException {
+    String sar = "Linux 5.15.0-91-generic (host) \t2023-01-31 \t_x86_64_\t(8 CPU)\n"
+        + "\n"
+        + "12:00:01 AM     CPU     %user     %nice   %system   %iowait    %steal     %idle\n"
+        + "12:10:01 AM     all      1,25      0,00      0,50      0,02      0,00     98,23\n"
+        + "Durchschn.:     all      1,25      0,00      0,50      0,02      0,00     98,23\n";
+    BufferedReader reader = new BufferedReader(new StringReader(sar));
+    Dialect dialect = DialectSniffer.sniff(reader);
+
+    assertEquals("Linux", dialect.getFactory().getName());
+    assertEquals("5.15.0-91-generic", dialect.getRelease());
+    assertEquals("yyyy-MM-dd", dialect.getDateFormat());
+    assertEquals(2, dialect.getTimeColumns());
+    assertEquals(',', dialect.getDecimalSeparator());
+    assertEquals(Locale.GERMAN, dialect.getLocale());
+    // the input is rewound for the parser
+    assertEquals(sar.split("\n")[0], reader.readLine());
+  }
+
+  @Test
+  public void ambiguousDate() {
+    Dialect dialect = DialectSniffer.sniff(new String[]{
+        "Linux 3.10.0 (host)  01/03/23  _x86_64_  (8 CPU)",
+        "13:00:01        CPU     %user     %nice   %system   %iowait    %steal     %idle",
+        "13:10:01        all      1.25      0.00      0.50      0.02      0.00     98.23"});
+    assertNull(dialect.getDateFormat());
+    assertEquals(1, dialect.getTimeColumns());
+    assertEquals('.', dialect.getDecimalSeparator());
+    assertNull(dialect.getLocale());
+  }
+
+  @Test
+  public void unknownInput() {
+    Dialect dialect = DialectSniffer.sniff(new String[]{"hello world"});
+    assertNull(dialect.getFactory());
+    assertEquals(0, dialect.getTimeColumns());
+    assertEquals(0, dialect.getDecimalSeparator());
+  }
+}
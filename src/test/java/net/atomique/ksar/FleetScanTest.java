@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import net.atomique.ksar.graph.Aggregation;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class FleetScanTest {
+
+  @Test
+  public void ranksHostsByMetric() throws Exception {
+    List<Path> files = new ArrayList<>();
+    try {
+      String[][] hosts = {
+          {"node1", "2.00"}, {"node2", "9.00"}, {"node3", "0.10"}, {"node4", "5.00"}};
+      List<String> names = new ArrayList<>();
+      for (String[] host : hosts) {
+        Path file = SarFixture.write(host[0], SarFixture.linux(host[0], host[1], "90.00"));
+        files.add(file);
+        names.add(file.toString());
+      }
+
+      Comparison.Metric iowait = Comparison.Metric.parse("CPU all %iowait");
+      Comparison.Metric missing = Comparison.Metric.parse("CPU all %none");
+      FleetScan scan = new FleetScan(List.of(iowait, missing), Aggregation.MAX, 2);
+      Map<Comparison.Metric, List<FleetScan.Ranking>> rankings = scan.scan(names);
+
+      List<FleetScan.Ranking> top = rankings.get(iowait);
+      assertEquals(2, top.size());
+      assertEquals("node2", top.get(0).getHost());
+      assertEquals(9.0, top.get(0).getValue());
+      assertEquals("node4", top.get(1).getHost());
+      assertEquals("CPU all", top.get(1).getGraph());
+      assertEquals(Collections.emptyList(), rankings.get(missing));
+    } finally {
+      for (Path file : files) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+public class ParsePipelineTest {
+
+  @Test
+  public void deliversAllLinesInOrder() throws Exception {
+    int lines = ParsePipeline.BATCH_LINES * ParsePipeline.QUEUE_BATCHES * 3 + 17;
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < lines; i++) {
+      sb.append("10:00:00 ").append(i).append("  x\n");
+    }
+    ParsePipeline sut = new ParsePipeline(new BufferedReader(new StringReader(sb.toString())), null);
+    sut.start();
+    int count = 0;
+    while (sut.next()) {
+      assertArrayEquals(new String[]{"10:00:00", String.valueOf(count), "x"}, sut.columns());
+      count++;
+    }
+    assertEquals(lines, count);
+    assertTrue(sut.isFinished());
+  }
+
+  @Test
+  public void cancelUnblocksStalledSource() throws Exception {
+    PipedOutputStream out = new PipedOutputStream();
+    PipedInputStream in = new PipedInputStream(out);
+    out.write("Linux 5.4\n".getBytes(StandardCharsets.UTF_8));
+    out.flush();
+    // the writer never closes the stream, like a hung remote sar
+    ParsePipeline sut = new ParsePipeline(
+        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)), in);
+    sut.start();
+    assertTrue(sut.next());
+    assertEquals("Linux 5.4", sut.line());
+
+    Thread stopper = new Thread(() -> {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException ignored) {
+        // the test fails on timeout anyway
+      }
+      sut.cancel();
+    });
+    stopper.start();
+    long start = System.nanoTime();
+    assertFalse(sut.next());
+    assertTrue((System.nanoTime() - start) / 1_000_000 < 5_000, "cancel should be immediate");
+    assertFalse(sut.isFinished());
+  }
+
+  @Test
+  public void stopWhileSniffing() throws Exception {
+    // nothing ever comes until the stream is closed
+    CountDownLatch closed = new CountDownLatch(1);
+    InputStream stalled = new InputStream() {
+      @Override
+      public int read() throws IOException {
+        try {
+          closed.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        throw new IOException("closed");
+      }
+
+      @Override
+      public void close() {
+        closed.countDown();
+      }
+    };
+    kSar sut = new kSar();
+    Thread stopper = new Thread(() -> {
+      while (!sut.isParsing()) {
+        Thread.onSpinWait();
+      }
+      sut.interrupt_parsing();
+    });
+    stopper.start();
+    long start = System.nanoTime();
+    sut.parse(new BufferedReader(new InputStreamReader(stalled, StandardCharsets.UTF_8)),
+        stalled);
+    assertTrue((System.nanoTime() - start) / 1_000_000 < 5_000, "stop should be immediate");
+    assertFalse(sut.isParsing());
+  }
+
+  @Test
+  public void unknownHeaderStops() {
+    kSar sut = new kSar();
+    String text = "Minix 3.4 (host1)\nLinux 5.4.0 (host1)  03/28/2016  _x86_64_  (2 CPU)\n";
+    assertEquals(-1, sut.parse(new BufferedReader(new StringReader(text)), null));
+    assertNull(sut.myparser);
+    assertFalse(sut.isParsing());
+  }
+}
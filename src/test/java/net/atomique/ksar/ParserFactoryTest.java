@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.atomique.ksar.parser.HPUX;
+import net.atomique.ksar.parser.Linux;
+import org.junit.jupiter.api.Test;
+
+public class ParserFactoryTest {
+
+  @Test
+  public void findsBuiltinParsers() {
+    assertEquals("Linux", GlobalOptions.findParser("Linux").getName());
+    assertTrue(GlobalOptions.findParser("Linux").create() instanceof Linux);
+    assertTrue(GlobalOptions.findParser("HP-UX").create() instanceof HPUX);
+    assertEquals("SunOS", GlobalOptions.findParser("SunOS").getName());
+    assertEquals("AIX", GlobalOptions.findParser("AIX").getName());
+    assertNull(GlobalOptions.findParser("12:00:01"));
+  }
+
+  @Test
+  public void loadsConfigOfEachParser() {
+    assertTrue(GlobalOptions.getOSinfo("Linux") != null);
+    assertTrue(GlobalOptions.getOSinfo("AIX") != null);
+  }
+}
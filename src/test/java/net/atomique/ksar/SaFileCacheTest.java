@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class SaFileCacheTest {
+
+  private static final String SA01 = "/var/log/sa/sa01";
+  private static final String SA02 = "/var/log/sa/sa02";
+
+  // a download of the given content, as SSHCommand makes it
+  private static File download(SaFileCache cache, String host, String content)
+      throws IOException {
+    File file = cache.createTempFile(host);
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+
+  private static void delete(Path dir) throws IOException {
+    try (Stream<Path> paths = Files.walk(dir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+
+  @Test
+  public void storesDownloads() throws Exception {
+    Path dir = Files.createTempDirectory("sacache");
+    try {
+      SaFileCache cache = new SaFileCache(dir.toFile());
+      assertFalse(cache.isCached("host1", SA01, 100, 5));
+
+      File downloaded = download(cache, "host1", "12345");
+      File cached = cache.store("host1", SA01, 100, 5, downloaded);
+      assertFalse(downloaded.exists());
+      assertEquals(cache.getCacheFile("host1", SA01, 100, 5), cached);
+      assertEquals("12345", new String(Files.readAllBytes(cached.toPath()),
+          StandardCharsets.UTF_8));
+      assertTrue(cache.isCached("host1", SA01, 100, 5));
+      // same file on another host, or seen with another mtime
+      assertFalse(cache.isCached("host2", SA01, 100, 5));
+      assertFalse(cache.isCached("host1", SA01, 101, 5));
+    } finally {
+      delete(dir);
+    }
+  }
+
+  @Test
+  public void keepsPathsApart() throws Exception {
+    assertEquals("_2fvar_2flog_2fsa_2fsa01", SaFileCache.escape(SA01));
+    assertEquals("_2e.", SaFileCache.escape(".."));
+    assertNotEquals(SaFileCache.escape("/a_b"), SaFileCache.escape("/a/b"));
+    assertNotEquals(SaFileCache.escape("Host1"), SaFileCache.escape("host1"));
+
+    Path dir = Files.createTempDirectory("sacache");
+    try {
+      SaFileCache cache = new SaFileCache(dir.toFile());
+      File ab = cache.store("host1", "/a_b", 100, 2, download(cache, "host1", "ab"));
+      File slash = cache.store("host1", "/a/b", 100, 2, download(cache, "host1", "cd"));
+      assertNotEquals(ab, slash);
+      assertTrue(ab.exists());
+      assertEquals("ab", new String(Files.readAllBytes(ab.toPath()), StandardCharsets.UTF_8));
+    } finally {
+      delete(dir);
+    }
+  }
+
+  @Test
+  public void truncatedCopyIsNotCached() throws Exception {
+    Path dir = Files.createTempDirectory("sacache");
+    try {
+      SaFileCache cache = new SaFileCache(dir.toFile());
+      // the transfer was cut after 3 of the 5 bytes
+      cache.store("host1", SA01, 100, 5, download(cache, "host1", "123"));
+      assertFalse(cache.isCached("host1", SA01, 100, 5));
+    } finally {
+      delete(dir);
+    }
+  }
+
+  @Test
+  public void evictsStaleCopies() throws Exception {
+    Path dir = Files.createTempDirectory("sacache");
+    try {
+      SaFileCache cache = new SaFileCache(dir.toFile());
+      File old = cache.store("host1", SA01, 100, 5, download(cache, "host1", "12345"));
+      File other = cache.store("host1", SA02, 100, 2, download(cache, "host1", "ab"));
+      File elsewhere = cache.store("host2", SA01, 100, 5, download(cache, "host2", "12345"));
+
+      // sadc appended to the file since it was fetched
+      File grown = cache.store("host1", SA01, 160, 8, download(cache, "host1", "12345678"));
+      assertFalse(old.exists());
+      assertFalse(cache.isCached("host1", SA01, 100, 5));
+      assertTrue(grown.exists());
+      assertTrue(cache.isCached("host1", SA01, 160, 8));
+      assertTrue(other.exists());
+      assertTrue(elsewhere.exists());
+    } finally {
+      delete(dir);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A small Linux sar report with two CPU samples, ten minutes apart, shared by the tests.
+ */
+public final class SarFixture {
+
+  /** The report of {@code host1}: 1.50 then 3.00 {@code %user}, 96.50 then 96.00 {@code %idle}. */
+  public static final String SAR = linux("host1", "0.00", "96.50");
+
+  private SarFixture() {
+  }
+
+  /**
+   * Returns the report of a host whose first sample has the given {@code %iowait} and
+   * {@code %idle}.
+   */
+  public static String linux(String host, String iowait, String idle) {
+    return "Linux 5.4.0 (" + host + ")  03/28/2016  _x86_64_  (2 CPU)\n"
+        + "\n"
+        + "09:10:01 AM     CPU     %user     %nice   %system   %iowait    %steal     %idle\n"
+        + "09:20:01 AM     all      1.50      0.00      2.00      " + iowait
+        + "      0.00     " + idle + "\n"
+        + "09:30:01 AM     all      3.00      0.00      1.00      0.00      0.00     96.00\n";
+  }
+
+  /** Parses a report with the automatic Linux date format. */
+  public static kSar parse(String report) {
+    Config.setLinuxDateFormat("Automatic Detection");
+    kSar ksar = new kSar();
+    ksar.parse(new BufferedReader(new StringReader(report)));
+    return ksar;
+  }
+
+  /** Writes a report to a new temporary file, for the tests loading files by name. */
+  public static Path write(String prefix, String report) throws IOException {
+    Config.setLinuxDateFormat("Automatic Detection");
+    Path file = Files.createTempFile(prefix, ".sar");
+    Files.write(file, report.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+}
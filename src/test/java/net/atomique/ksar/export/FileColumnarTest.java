@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.export;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.atomique.ksar.SarFixture;
+import net.atomique.ksar.graph.Rollup;
+import net.atomique.ksar.kSar;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class FileColumnarTest {
+
+  @Test
+  public void writesColumnsAndFooter() throws Exception {
+    kSar ksar = SarFixture.parse(SarFixture.SAR);
+    Path file = Files.createTempFile("host1", FileColumnar.EXTENSION);
+    ByteBuffer bytes;
+    try {
+      new FileColumnar(file.toString(), ksar).run();
+      bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+    } finally {
+      Files.delete(file);
+    }
+    int length = bytes.limit();
+    byte[] magic = new byte[8];
+    bytes.get(magic);
+    assertArrayEquals(FileColumnar.MAGIC, magic);
+    bytes.position(length - 8).get(magic);
+    assertArrayEquals(FileColumnar.MAGIC, magic);
+    int footerOffset = (int) bytes.getLong(length - 16);
+    String footer = new String(Arrays.copyOfRange(bytes.array(), footerOffset, length - 16),
+        StandardCharsets.UTF_8);
+
+    assertTrue(footer.startsWith("{\"format\":\"ksarc\",\"version\":1,"), footer);
+    assertTrue(footer.contains("\"host\":\"host1\""), footer);
+    assertTrue(footer.contains("\"rows\":2,\"offset\":8,"), footer);
+    assertTrue(footer.contains("{\"name\":\"%user\",\"type\":"), footer);
+    // times, then the first column of the first graph
+    assertEquals(600_000, bytes.getLong(16) - bytes.getLong(8));
+    assertEquals(1.5, bytes.getDouble(24));
+    assertEquals(3.0, bytes.getDouble(32));
+  }
+
+  @Test
+  public void namesTypes() {
+    assertEquals("gauge", FileColumnar.kind(Rollup.GAUGE));
+    assertEquals("counter", FileColumnar.kind(Rollup.COUNTER));
+    assertEquals("delta", FileColumnar.kind(Rollup.DELTA));
+    assertEquals("unknown", FileColumnar.kind(0));
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.atomique.ksar.graph.ColumnStore;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+public class FileHTMLTest {
+
+  @Test
+  public void writesChunk() throws IOException {
+    ColumnStore store = new ColumnStore(new String[]{"%user", "%system"});
+    store.set(store.row(600), 0, 1.5);
+    store.set(store.row(600), 1, 2);
+    store.set(store.row(1200), 0, 3);
+    StringWriter out = new StringWriter();
+    String sparkline = FileHTML.write_chunk(out, "g0001", "CPU \"all\"", store,
+        new String[]{"#ff0000", "#00ff00"});
+
+    assertEquals("ksarData(\"g0001\",{\"title\":\"CPU \\\"all\\\"\","
+        + "\"columns\":[\"%user\",\"%system\"],\"colors\":[\"#ff0000\",\"#00ff00\"],"
+        + "\"start\":" + store.getMillis(0) + ",\"times\":[0,600],"
+        + "\"values\":[[1.5,3],[2,null]]});\n", out.toString());
+    assertTrue(sparkline.startsWith("<svg"));
+    assertTrue(sparkline.contains("points=\"0,16 1,0 \""), sparkline);
+  }
+
+  @Test
+  public void escapesJson() {
+    assertEquals("\"a\\\\b\\u003c/script>\\u000a\"", FileHTML.json("a\\b</script>\n"));
+  }
+}
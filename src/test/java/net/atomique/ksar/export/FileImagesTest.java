@@ -0,0 +1,24 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class FileImagesTest {
+
+  @Test
+  public void namesFilesAfterPositionAndTitle() {
+    assertEquals("0003-CPU_all.png", FileImages.file_name(3, "CPU all", FileImages.PNG));
+    assertEquals("0012-Disk_dev8-0_.jpg", FileImages.file_name(12, "Disk dev8-0 /", FileImages.JPG));
+  }
+
+  @Test
+  public void escapesTitles() {
+    assertEquals("a &lt;b&gt; &amp; &quot;c&quot;", FileImages.escape("a <b> & \"c\""));
+  }
+}
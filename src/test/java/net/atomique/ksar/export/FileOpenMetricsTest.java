@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.atomique.ksar.SarFixture;
+import net.atomique.ksar.graph.ColumnStore;
+import net.atomique.ksar.graph.Rollup;
+import net.atomique.ksar.kSar;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class FileOpenMetricsTest {
+
+  @Test
+  public void namesMetrics() {
+    assertEquals("sar_cpu_all_pct_user", FileOpenMetrics.metric_name("CPU all", "%user"));
+    assertEquals("sar_disk_rd_sec_per_s", FileOpenMetrics.metric_name("Disk", "rd_sec/s"));
+    assertEquals("a\\\"b\\\\", FileOpenMetrics.label_value("a\"b\\"));
+    StringBuilder line = new StringBuilder();
+    FileOpenMetrics.append_timestamp(line, 1_500_050);
+    assertEquals("1500.050", line.toString());
+  }
+
+  @Test
+  public void integratesCounterRates() throws Exception {
+    ColumnStore store = new ColumnStore(new String[]{"intr/s"});
+    store.set(store.row(600), 0, 10);
+    store.set(store.row(660), 0, 2);
+    store.row(720);
+    store.set(store.row(780), 0, 5);
+    store.set(store.row(840), 0, 1);
+    FileOpenMetrics.Family family = new FileOpenMetrics.Family("sar_intr_per_s", Rollup.COUNTER);
+    family.add(new FileOpenMetrics.Series("host=\"h\"", store, 0));
+    StringWriter out = new StringWriter();
+    family.write(out, Long.MAX_VALUE, true);
+    // 2/s during 60s, then a gap, then 1/s during 60s
+    assertEquals("# TYPE sar_intr_per_s counter\n"
+        + "sar_intr_per_s_total{host=\"h\"} 0 " + store.getMillis(0) / 1000 + "\n"
+        + "sar_intr_per_s_total{host=\"h\"} 120 " + store.getMillis(1) / 1000 + "\n"
+        + "sar_intr_per_s_total{host=\"h\"} 120 " + store.getMillis(3) / 1000 + "\n"
+        + "sar_intr_per_s_total{host=\"h\"} 180 " + store.getMillis(4) / 1000 + "\n",
+        out.toString());
+  }
+
+  @Test
+  public void sumsDeltas() throws Exception {
+    ColumnStore store = new ColumnStore(new String[]{"pgfault"});
+    store.set(store.row(600), 0, 10);
+    store.row(660);
+    store.set(store.row(720), 0, 5);
+    FileOpenMetrics.Family family = new FileOpenMetrics.Family("sar_pgfault", Rollup.DELTA);
+    family.add(new FileOpenMetrics.Series("host=\"h\"", store, 0));
+    StringWriter out = new StringWriter();
+    family.write(out, Long.MAX_VALUE, true);
+    assertEquals("# TYPE sar_pgfault counter\n"
+        + "sar_pgfault_total{host=\"h\"} 10 " + store.getMillis(0) / 1000 + "\n"
+        + "sar_pgfault_total{host=\"h\"} 15 " + store.getMillis(2) / 1000 + "\n",
+        out.toString());
+  }
+
+  @Test
+  public void separatesCollidingNames() {
+    FileOpenMetrics export = new FileOpenMetrics("unused.om", null);
+    FileOpenMetrics.Family gauge = export.family("sar_x", Rollup.GAUGE, "host=\"h\"");
+    gauge.add(new FileOpenMetrics.Series("host=\"h\"", null, 0));
+    assertSame(gauge, export.family("sar_x", Rollup.GAUGE, "host=\"h\",device=\"a\""));
+    // another type, then the same labels again
+    FileOpenMetrics.Family counter = export.family("sar_x", Rollup.COUNTER, "host=\"h\"");
+    assertEquals("sar_x_2", counter.name);
+    assertEquals(Rollup.COUNTER, counter.type);
+    counter.add(new FileOpenMetrics.Series("host=\"h\"", null, 1));
+    assertEquals("sar_x_3", export.family("sar_x", Rollup.GAUGE, "host=\"h\"").name);
+  }
+
+  @Test
+  public void writesExposition() throws Exception {
+    kSar ksar = SarFixture.parse(SarFixture.SAR);
+    Path file = Files.createTempFile("host1", ".om");
+    String text;
+    try {
+      new FileOpenMetrics(file.toString(), ksar).run();
+      text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    } finally {
+      Files.delete(file);
+    }
+    assertTrue(text.endsWith("# EOF\n"), text);
+    assertTrue(text.contains("# TYPE sar_cpu_pct_user unknown\n"
+        + "sar_cpu_pct_user{host=\"host1\",device=\"all\"} 1.5 "), text);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class AnomalyDetectorTest {
+
+  // a minute of samples a second, around 10 with some noise, 95 from 30 to 32
+  private static ColumnStore spiky(int rows) {
+    ColumnStore store = new ColumnStore(new String[]{"%user", "%steal"});
+    for (int s = 0; s < rows; s++) {
+      int row = store.row(36000 + s);
+      store.set(row, 0, s >= 30 && s <= 32 ? 95 : 10 + (s * 7 % 5) * 0.5);
+      store.set(row, 1, 0);
+    }
+    return store;
+  }
+
+  @Test
+  public void findsSpike() {
+    AnomalyDetector detector = new AnomalyDetector("CPU all", spiky(60));
+    assertEquals(1, detector.update(true));
+    List<Anomaly> anomalies = detector.getAnomalies();
+    Anomaly spike = anomalies.get(0);
+    assertEquals("CPU all", spike.getGraph());
+    assertEquals("%user", spike.getColumn());
+    assertEquals(ColumnStore.toLocalDateTime(36030), spike.getStart());
+    // until the first normal sample
+    assertEquals(ColumnStore.toLocalDateTime(36033), spike.getEnd());
+    assertEquals(95, spike.getValue());
+    assertTrue(spike.getScore() >= AnomalyDetector.THRESHOLD);
+  }
+
+  @Test
+  public void followsGrowingStore() {
+    ColumnStore full = spiky(60);
+    ColumnStore growing = new ColumnStore(new String[]{"%user", "%steal"});
+    AnomalyDetector detector = new AnomalyDetector("CPU all", growing);
+    for (int r = 0; r < full.size(); r++) {
+      int row = growing.row(full.getTime(r));
+      growing.set(row, 0, full.get(r, 0));
+      growing.set(row, 1, full.get(r, 1));
+      detector.update(false);
+    }
+    detector.update(true);
+    AnomalyDetector once = new AnomalyDetector("CPU all", full);
+    once.update(true);
+    assertEquals(once.getAnomalies().toString(), detector.getAnomalies().toString());
+  }
+
+  @Test
+  public void resumesAfterLateSample() {
+    // two spikes two normal samples apart make one anomaly, see GAP
+    ColumnStore full = new ColumnStore(new String[]{"%user"});
+    for (int s = 0; s < 60; s++) {
+      full.set(full.row(36000 + s), 0, s == 30 || s == 33 ? 95 : 10 + (s * 7 % 5) * 0.5);
+    }
+    ColumnStore growing = new ColumnStore(new String[]{"%user"});
+    AnomalyDetector detector = new AnomalyDetector("CPU all", growing);
+    for (int r = 0; r < full.size(); r++) {
+      if (r == 33) {
+        // an old sample shows up late and shifts the rows already scored
+        growing.set(growing.row(35990), 0, 10);
+      }
+      growing.set(growing.row(full.getTime(r)), 0, full.get(r, 0));
+      detector.update(false);
+    }
+    detector.update(true);
+    AnomalyDetector once = new AnomalyDetector("CPU all", full);
+    assertEquals(1, once.update(true));
+    // scoring a normal sample twice would split the anomaly
+    assertEquals(once.getAnomalies().toString(), detector.getAnomalies().toString());
+  }
+
+  @Test
+  public void quietSeries() {
+    ColumnStore store = new ColumnStore(new String[]{"%idle"});
+    for (int s = 0; s < 100; s++) {
+      store.set(store.row(s), 0, 90 + (s % 3));
+    }
+    AnomalyDetector detector = new AnomalyDetector("CPU all", store);
+    assertEquals(0, detector.update(true));
+    assertFalse(detector.hasAnomalies());
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class ColumnStoreTest {
+
+  private static ColumnStore sample() {
+    ColumnStore store = new ColumnStore(new String[]{"%user", "%system"});
+    // 10:00:00 .. 10:09:00 every minute, added out of order
+    for (int minute : new int[]{0, 1, 2, 5, 6, 3, 4, 7, 8, 9}) {
+      int row = store.row(36000 + minute * 60);
+      store.set(row, 0, minute);
+      store.set(row, 1, 10 * minute);
+    }
+    return store;
+  }
+
+  @Test
+  public void keepsRowsSorted() {
+    ColumnStore store = sample();
+    assertEquals(10, store.size());
+    for (int i = 0; i < store.size(); i++) {
+      assertEquals(36000 + i * 60, store.getTime(i));
+      assertEquals(i, store.get(i, 0));
+    }
+    assertEquals(3, store.row(36000 + 3 * 60));
+  }
+
+  @Test
+  public void rawRange() {
+    QueryResult r = sample().query(new int[]{1}, 36000 + 120, 36000 + 240, 0, Aggregation.AVG);
+    assertArrayEquals(new long[]{36120, 36180, 36240}, r.getTimes());
+    assertArrayEquals(new double[]{20, 30, 40}, r.getValues("%system"));
+  }
+
+  @Test
+  public void aggregatedBuckets() {
+    ColumnStore store = sample();
+    QueryResult avg = store.query(null, Long.MIN_VALUE, Long.MAX_VALUE, 300, Aggregation.AVG);
+    assertArrayEquals(new long[]{36000, 36300}, avg.getTimes());
+    assertArrayEquals(new double[]{2, 7}, avg.getValues("%user"));
+    QueryResult max = store.query(null, Long.MIN_VALUE, Long.MAX_VALUE, 300, Aggregation.MAX);
+    assertArrayEquals(new double[]{40, 90}, max.getValues("%system"));
+  }
+
+  @Test
+  public void emptyRange() {
+    QueryResult r = sample().query(null, 0, 100, 0, Aggregation.AVG);
+    assertEquals(0, r.size());
+    assertTrue(Double.isNaN(Aggregation.AVG.apply(new double[]{Double.NaN}, 0, 1)));
+  }
+
+  @Test
+  public void percentiles() {
+    ColumnStore store = new ColumnStore(new String[]{"await"});
+    for (int i = 1; i <= 200; i++) {
+      store.set(store.row(i), 0, i);
+    }
+    assertEquals(198, store.aggregate(0, Long.MIN_VALUE, Long.MAX_VALUE, Aggregation.P99));
+    assertEquals(95, store.aggregate(0, 1, 100, Aggregation.P95));
+    assertTrue(Double.isNaN(store.aggregate(0, 300, 400, Aggregation.P99)));
+  }
+
+  @Test
+  public void readsWhileParsing() throws Exception {
+    ColumnStore store = new ColumnStore(new String[]{"seconds"});
+    // the value of a row is its time, whatever the reader sees must agree with it
+    Thread parser = new Thread(() -> {
+      for (int i = 0; i < 20000; i++) {
+        // every hundredth sample goes back in time and is inserted
+        long time = i % 100 == 99 ? 10L * (i - 50) + 5 : 10L * i;
+        store.set(store.row(time), 0, time);
+      }
+    });
+    parser.start();
+    int checked = 0;
+    while (parser.isAlive() || checked == 0) {
+      int n = store.size();
+      for (int row = Math.max(0, n - 50); row < n; row++) {
+        double value = store.get(row, 0);
+        assertTrue(Double.isNaN(value) || value == store.getTime(row) || n < store.size());
+      }
+      checked++;
+    }
+    parser.join();
+    assertEquals(20000, store.size());
+    for (int row = 1; row < store.size(); row++) {
+      assertTrue(store.getTime(row - 1) < store.getTime(row));
+      assertEquals(store.getTime(row), store.get(row, 0));
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.atomique.ksar.xml.GraphConfig;
+import org.junit.jupiter.api.Test;
+
+public class CorrelationTest {
+
+  // x, 2x + 1, -x and x cubed over 50 seconds, the last one with a missing sample
+  private static Correlation correlate(Correlation.Method method) {
+    ColumnStore store = new ColumnStore(new String[]{"x", "double", "negated", "cubed"});
+    for (int s = 0; s < 50; s++) {
+      double x = s - 20 + (s % 3) * 0.5;
+      int row = store.row(1000 + s);
+      store.set(row, 0, x);
+      store.set(row, 1, 2 * x + 1);
+      store.set(row, 2, -x);
+      if (s != 7) {
+        store.set(row, 3, x * x * x);
+      }
+    }
+    return Correlation.compute(new String[]{"test"}, new ColumnStore[]{store}, null, null,
+        method);
+  }
+
+  @Test
+  public void pearson() {
+    Correlation correlation = correlate(Correlation.Method.PEARSON);
+    assertEquals(4, correlation.size());
+    assertEquals("test double", correlation.getLabel(1));
+    assertEquals(1, correlation.get(0, 1), 1e-9);
+    assertEquals(-1, correlation.get(0, 2), 1e-9);
+    assertEquals(correlation.get(2, 0), correlation.get(0, 2));
+    // monotonic but not linear
+    assertTrue(correlation.get(0, 3) < 0.99);
+    assertEquals(49, correlation.getCount(0, 3));
+    assertEquals(50, correlation.getCount(0, 1));
+  }
+
+  @Test
+  public void spearman() {
+    Correlation correlation = correlate(Correlation.Method.SPEARMAN);
+    assertEquals(-1, correlation.get(0, 2), 1e-9);
+    // ranked over all their samples, the gap in cubed makes it close to 1 only
+    assertEquals(1, correlation.get(0, 3), 1e-3);
+    java.util.List<Correlation.Pair> pairs = correlation.getPairs();
+    assertEquals(6, pairs.size());
+    assertEquals(1, Math.abs(pairs.get(0).getValue()), 1e-9);
+    assertTrue(Math.abs(pairs.get(5).getValue()) > 0.999);
+  }
+
+  @Test
+  public void ranksTies() {
+    double[] ranks = Correlation.ranks(new double[]{10, Double.NaN, 5, 10, 1});
+    assertArrayEquals(new double[]{3.5, Double.NaN, 2, 3.5, 1}, ranks);
+  }
+
+  @Test
+  public void leavesDerivedColumnsOut() {
+    GraphConfig config = new GraphConfig("cpu", "CPU", "unique");
+    config.addDerived("%busy", "100 - %idle");
+    ColumnStore store = new ColumnStore(GraphSchema.of(config, "time %user %idle", 1),
+        new Timeline());
+    for (int s = 0; s < 10; s++) {
+      int row = store.row(1000 + s);
+      store.set(row, 0, s);
+      store.set(row, 1, 100 - 2 * s);
+    }
+    assertEquals(3, store.getColumnCount());
+    Correlation correlation = Correlation.compute(new String[]{"CPU"},
+        new ColumnStore[]{store}, null, null, Correlation.Method.PEARSON);
+    assertEquals(2, correlation.size());
+    assertEquals(1, correlation.getPairs().size());
+  }
+}
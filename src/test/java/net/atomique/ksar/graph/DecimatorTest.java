@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class DecimatorTest {
+
+  // one sample per second for a day, a single spike at noon
+  private static ColumnStore day() {
+    ColumnStore store = new ColumnStore(new String[]{"%user"});
+    for (int s = 0; s < 86400; s++) {
+      store.set(store.row(s), 0, s == 43200 ? 100 : 1 + s % 3);
+    }
+    return store;
+  }
+
+  @Test
+  public void keepsTwoRowsPerBucket() {
+    ColumnStore decimated = Decimator.decimate(day(), 500);
+    assertTrue(decimated.size() <= 1000, "rows: " + decimated.size());
+    for (int i = 1; i < decimated.size(); i++) {
+      assertTrue(decimated.getTime(i) > decimated.getTime(i - 1));
+    }
+  }
+
+  @Test
+  public void keepsPeaks() {
+    ColumnStore decimated = Decimator.decimate(day(), 500);
+    double max = 0;
+    double min = Double.MAX_VALUE;
+    for (int i = 0; i < decimated.size(); i++) {
+      max = Math.max(max, decimated.get(i, 0));
+      min = Math.min(min, decimated.get(i, 0));
+    }
+    assertEquals(100, max);
+    assertEquals(1, min);
+  }
+
+  @Test
+  public void stackKeepsTotals() {
+    // two stacked columns always adding up to 100, peaking at different times
+    ColumnStore store = new ColumnStore(new String[]{"%user", "%system", "%idle"});
+    for (int s = 0; s < 1000; s++) {
+      double user = s % 100 == 10 ? 90 : 5;
+      double system = s % 100 == 60 ? 90 : 5;
+      int row = store.row(s);
+      store.set(row, 0, user);
+      store.set(row, 1, system);
+      store.set(row, 2, 100 - user - system);
+    }
+    ColumnStore decimated = Decimator.decimate(store, 10, new int[]{0, 0, -1});
+    assertTrue(decimated.size() <= 20);
+    assertEquals(95, highestTotal(decimated));
+    // %idle is not stacked and keeps its own extremes
+    double idle = 100;
+    for (int i = 0; i < decimated.size(); i++) {
+      idle = Math.min(idle, decimated.get(i, 2));
+    }
+    assertEquals(5, idle);
+    // column by column, the two peaks would be drawn on top of each other
+    assertEquals(180, highestTotal(Decimator.decimate(store, 10)));
+  }
+
+  private static double highestTotal(ColumnStore store) {
+    double highest = 0;
+    for (int i = 0; i < store.size(); i++) {
+      highest = Math.max(highest, store.get(i, 0) + store.get(i, 1));
+    }
+    return highest;
+  }
+
+  @Test
+  public void smallInputIsKept() {
+    ColumnStore store = new ColumnStore(new String[]{"%user"});
+    for (int s = 0; s < 10; s++) {
+      store.set(store.row(s), 0, s);
+    }
+    assertSame(store, Decimator.decimate(store, 5));
+    assertSame(store, Decimator.decimate(store, 0));
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.atomique.ksar.xml.GraphConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ExpressionTest {
+
+  private static final List<String> DISK = List.of("rkB/s", "wkB/s", "r", "%util");
+
+  private static ColumnStore disk() {
+    ColumnStore store = new ColumnStore(DISK.toArray(new String[0]));
+    double[][] rows = {{10, 5, 1, 50}, {20, 0, 2, 0}, {0, 8, 3, 100}};
+    for (int s = 0; s < rows.length; s++) {
+      int row = store.row(1000 + 10 * s);
+      for (int c = 0; c < rows[s].length; c++) {
+        store.set(row, c, rows[s][c]);
+      }
+    }
+    return store;
+  }
+
+  private static double[] evaluate(String text) {
+    ColumnStore store = disk();
+    return Expression.parse(text, DISK).evaluate(store, 0, store.size());
+  }
+
+  @Test
+  public void arithmetic() {
+    assertArrayEquals(new double[]{15, 20, 8}, evaluate("rkB/s + wkB/s"));
+    assertArrayEquals(new double[]{-4, -18, 11}, evaluate("-(rkB/s - r) + wkB/s * 1"));
+    assertArrayEquals(new double[]{1000.0 / 15, 100, 0},
+        evaluate("100 * rkB/s / (rkB/s + wkB/s)"));
+    assertArrayEquals(new double[]{0.5, Double.NaN, 1}, evaluate("%util / 100 / (%util / 100)"
+        + " * [%util] / 100"));
+    assertArrayEquals(new double[]{5, 0, 7}, evaluate("min(wkB/s, r + 4)"));
+    assertArrayEquals(new double[]{5, 20, 8}, evaluate("abs(rkB/s - wkB/s)"));
+  }
+
+  @Test
+  public void rate() {
+    // the counter goes 1, 2, 3 every 10 s then starts over
+    assertArrayEquals(new double[]{Double.NaN, 0.1, 0.1}, evaluate("rate(r)"));
+    assertArrayEquals(new double[]{Double.NaN, 1, Double.NaN}, evaluate("rate(rkB/s)"));
+  }
+
+  @Test
+  public void errors() {
+    assertThrows(IllegalArgumentException.class, () -> Expression.parse("rkB/s + avgqu", DISK));
+    assertThrows(IllegalArgumentException.class, () -> Expression.parse("sqrt(r)", DISK));
+    assertThrows(IllegalArgumentException.class, () -> Expression.parse("(r + 1", DISK));
+    assertThrows(IllegalArgumentException.class, () -> Expression.parse("r r", DISK));
+  }
+
+  @Test
+  public void derivedColumns() {
+    GraphConfig config = new GraphConfig("disk", "Disk", "multiple");
+    config.addDerived("tkB/s", "rkB/s + wkB/s");
+    config.addDerived("twice", "2 * tkB/s");
+    config.addDerived("lost", "dkB/s");
+    GraphSchema schema = GraphSchema.of(config, "DEV rkB/s wkB/s", 1);
+    assertEquals(2, schema.getParsedCount());
+    assertEquals(4, schema.getColumnCount());
+    assertEquals("twice", schema.getColumn(3));
+    assertTrue(schema.isDerived(2));
+
+    ColumnStore store = new ColumnStore(schema, new Timeline());
+    int row = store.row(1000);
+    store.set(row, 0, 1);
+    assertEquals(1, store.size());
+    row = store.row(1010);
+    store.set(row, 0, 3);
+    store.set(row, 1, 4);
+    // the first row was read before its second column
+    store.set(0, 1, 2);
+    assertEquals(2, store.size());
+    assertEquals(3, store.get(0, 2));
+    assertEquals(14, store.get(1, 3));
+    assertArrayEquals(new double[]{6, 14}, store.query(new int[]{3}, 0, 2000, 0,
+        Aggregation.AVG).getValues("twice"));
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import net.atomique.ksar.xml.GraphConfig;
+import org.junit.jupiter.api.Test;
+
+public class GraphSchemaTest {
+
+  private static final String HEADER = "DEV rkB/s wkB/s";
+
+  @Test
+  public void cachedUntilCleared() {
+    GraphConfig config = new GraphConfig("disk", "Disk", "multiple");
+    GraphSchema schema = GraphSchema.of(config, HEADER, 1);
+    assertSame(schema, GraphSchema.of(config, HEADER, 1));
+    assertNotSame(schema, GraphSchema.of(config, HEADER + " %util", 1));
+
+    // a reloaded configuration adds a column
+    config.addDerived("tkB/s", "rkB/s + wkB/s");
+    assertEquals(2, GraphSchema.of(config, HEADER, 1).getColumnCount());
+    GraphSchema.clearCache();
+    GraphSchema reloaded = GraphSchema.of(config, HEADER, 1);
+    assertNotSame(schema, reloaded);
+    assertEquals(3, reloaded.getColumnCount());
+    assertEquals(2, schema.getColumnCount());
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class RollupTest {
+
+  // two columns, one sample per second from 10:00:00 to 10:01:59; the second one has a gap
+  private static ColumnStore sample() {
+    ColumnStore store = new ColumnStore(new String[]{"%util", "rxpck/s"});
+    for (int i = 0; i < 120; i++) {
+      int row = store.row(36000 + i);
+      store.set(row, 0, i % 60 + 1);
+      if (i < 60 || i >= 90) {
+        store.set(row, 1, 1);
+      }
+    }
+    return store;
+  }
+
+  @Test
+  public void bucketStatistics() {
+    Rollup r = Rollup.compute(sample(), 60, new int[]{Rollup.GAUGE, Rollup.COUNTER},
+        Rollup.DEFAULT_PERCENTILES);
+    assertArrayEquals(new long[]{36000, 36060}, r.getTimes());
+    assertArrayEquals(new double[]{30.5, 30.5}, r.getAvg(0));
+    assertArrayEquals(new double[]{1, 1}, r.getMin(0));
+    assertArrayEquals(new double[]{60, 60}, r.getMax(0));
+    assertArrayEquals(new double[]{57, 57}, r.getPercentile(0, 95));
+    assertArrayEquals(new double[]{30, 30}, r.getPercentile(0, 50));
+    // gauge is averaged, a counter is a per-second rate and is averaged too
+    assertArrayEquals(r.getAvg(0), r.getValue(0));
+    assertArrayEquals(new double[]{1, 1}, r.getValue(1));
+    assertArrayEquals(new int[]{60, 30}, r.getCount(1));
+  }
+
+  @Test
+  public void deltasAreSummed() {
+    Rollup r = Rollup.compute(sample(), 60, new int[]{Rollup.GAUGE, Rollup.DELTA},
+        new double[0]);
+    assertArrayEquals(new double[]{60, 30}, r.getValue(1));
+  }
+
+  @Test
+  public void staleAfterNewSample() {
+    ColumnStore store = sample();
+    Rollup r = Rollup.compute(store, 3600, new int[2], new double[0]);
+    assertEquals(1, r.size());
+    assertTrue(r.isCurrent(store));
+    store.set(store.row(36000 + 3600), 0, 1);
+    assertFalse(r.isCurrent(store));
+  }
+}
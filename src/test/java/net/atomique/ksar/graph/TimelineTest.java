@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import net.atomique.ksar.xml.GraphConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TimelineTest {
+
+  @Test
+  public void internsEachTimeOnce() {
+    Timeline timeline = new Timeline(ZoneOffset.UTC);
+    // enough times to grow the index a few times, each seen twice
+    for (int pass = 0; pass < 2; pass++) {
+      for (int i = 0; i < 1000; i++) {
+        assertEquals(i, timeline.intern(36000 + i * 10L));
+      }
+    }
+    assertEquals(1000, timeline.size());
+    assertEquals(-1, timeline.indexOf(5));
+    assertEquals(36010, timeline.getTime(timeline.indexOf(36010)));
+    assertEquals(36000_000, timeline.getMillis(0));
+  }
+
+  @Test
+  public void storesShareTimes() {
+    Timeline timeline = new Timeline(ZoneOffset.UTC);
+    GraphSchema cpu = GraphSchema.of(new GraphConfig("cpu", "CPU", "unique"),
+        "time %user %system", 1);
+    ColumnStore first = new ColumnStore(cpu, timeline);
+    ColumnStore second = new ColumnStore(cpu, timeline);
+    long key = ColumnStore.toKey(LocalDateTime.of(2026, 1, 1, 10, 0));
+    first.set(first.row(key + 60), 0, 2);
+    first.set(first.row(key), 0, 1);
+    second.set(second.row(key), 1, 3);
+
+    assertEquals(2, timeline.size());
+    assertEquals(key, first.getTime(0));
+    assertEquals(second.getMillis(0), first.getMillis(0));
+    assertEquals(1, first.get(first.find(key), 0));
+    assertEquals(-1, second.find(key + 60));
+  }
+
+  @Test
+  public void iteratesInOrder() {
+    Timeline timeline = new Timeline(ZoneOffset.UTC);
+    // a day of samples, then the beginning of the same day again, then a duplicate
+    for (long t : new long[]{300, 400, 500, 100, 200, 600, 200, 50}) {
+      timeline.intern(t);
+    }
+    assertArrayEquals(new long[]{50, 100, 200, 300, 400, 500, 600}, timeline.getSortedTimes());
+    timeline.add(ColumnStore.toLocalDateTime(700));
+    List<LocalDateTime> dates = new ArrayList<>();
+    for (LocalDateTime ldt : timeline) {
+      dates.add(ldt);
+    }
+    assertEquals(8, dates.size());
+    assertEquals(ColumnStore.toLocalDateTime(50), timeline.first());
+    assertEquals(ColumnStore.toLocalDateTime(700), dates.get(7));
+  }
+}
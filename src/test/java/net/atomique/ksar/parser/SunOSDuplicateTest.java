@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import net.atomique.ksar.graph.ColumnStore;
+import net.atomique.ksar.graph.List;
+import net.atomique.ksar.kSar;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+public class SunOSDuplicateTest {
+
+  // the device stat allows a device twice in one sample, e.g. a disk seen through two paths
+  private static final String SAR = "SunOS host1 5.11 11.3 sun4v    05/31/2018\n"
+      + "\n"
+      + "00:00:05   device        %busy   avque   r+w/s  blks/s  avwait  avserv\n"
+      + "\n"
+      + "00:20:03   sd1               10     0.1       2       7     4.0    31.3\n"
+      + "           sd1               30     0.3       4       9     6.0    33.3\n"
+      + "           sd2                5     0.0       1       1     0.0     1.0\n";
+
+  @Test
+  public void mergesDuplicateDevices() {
+    kSar ksar = new kSar();
+    ksar.parse(new BufferedReader(new StringReader(SAR)));
+    ColumnStore store = ((List) ksar.myparser.getGraphObject("DEVICE")).getGraph("sd1")
+        .getStore();
+    assertEquals(1, store.size());
+    // Config.xml types: gauges are averaged, counters summed
+    assertEquals(20, store.get(0, store.indexOf("%busy")));
+    assertEquals(0.2, store.get(0, store.indexOf("avque")), 1e-9);
+    assertEquals(6, store.get(0, store.indexOf("r+w/s")));
+    assertEquals(16, store.get(0, store.indexOf("blks/s")));
+  }
+}
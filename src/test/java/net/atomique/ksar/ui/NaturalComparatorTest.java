@@ -66,4 +66,15 @@ public class NaturalComparatorTest {
 
     assertEquals(expected, Integer.signum(res), () -> a + " vs " + b);
   }
+
+  @ParameterizedTest
+  @MethodSource("data")
+  public void testNaturalKeyOrder(String a, String b, int expected) {
+    int res = new NaturalKey(a).compareTo(new NaturalKey(b));
+
+    assertEquals(expected, Integer.signum(res), () -> a + " vs " + b);
+    if (expected == 0) {
+      assertEquals(new NaturalKey(a).hashCode(), new NaturalKey(b).hashCode());
+    }
+  }
 }
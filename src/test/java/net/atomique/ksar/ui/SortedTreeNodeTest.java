@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class SortedTreeNodeTest {
+
+  private static List<String> children(SortedTreeNode node) {
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < node.getChildCount(); i++) {
+      names.add(node.getChildAt(i).toString());
+    }
+    return names;
+  }
+
+  @Test
+  public void specialNamesFirst() {
+    SortedTreeNode root = new SortedTreeNode("root");
+    for (String name : new String[]{"cpu10", "lo", "cpu2", "sum", "eth0", "all", "cpu 1"}) {
+      root.add(new SortedTreeNode(name));
+    }
+    assertEquals(Arrays.asList("all", "sum", "lo", "cpu 1", "cpu2", "cpu10", "eth0"),
+        children(root));
+  }
+
+  @Test
+  public void keepsNaturalOrder() {
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      names.add("dev" + (i % 50) + "-" + i);
+    }
+    Collections.shuffle(names, new Random(42));
+
+    SortedTreeNode one = new SortedTreeNode("one");
+    for (String name : names) {
+      one.add(new SortedTreeNode(name));
+    }
+
+    List<String> expected = new ArrayList<>(names);
+    expected.sort(NaturalComparator.INSTANCE);
+    assertEquals(expected, children(one));
+  }
+
+  @Test
+  public void insertionIndexMatchesInsert() {
+    SortedTreeNode root = new SortedTreeNode("root");
+    root.add(new SortedTreeNode("sda"));
+    root.add(new SortedTreeNode("sdc"));
+    SortedTreeNode sdb = new SortedTreeNode("sdb");
+    int index = root.getInsertionIndex(sdb);
+    root.insert(sdb, root.getChildCount());
+    assertEquals(1, index);
+    assertEquals(sdb, root.getChildAt(index));
+  }
+}
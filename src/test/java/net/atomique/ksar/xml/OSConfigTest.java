@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 The kSAR Project. All rights reserved.
+ * See the LICENSE file in the project root for more information.
+ */
+
+package net.atomique.ksar.xml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class OSConfigTest {
+
+  private static OSConfig config() {
+    OSConfig config = new OSConfig("Linux");
+    StatConfig cpu = new StatConfig("cpu");
+    cpu.setGraphName("CPU");
+    cpu.setHeaderStr("CPU %user %nice %system");
+    config.addStat(cpu);
+    StatConfig load = new StatConfig("load");
+    load.setGraphName("LOAD");
+    load.setHeaderStr("runq-sz plist-sz");
+    load.setDuplicateTime("yes");
+    config.addStat(load);
+    config.addGraph(new GraphConfig("CPU", "CPU", "multiple"));
+    return config;
+  }
+
+  @Test
+  public void findsHeaders() {
+    OSConfig config = config();
+    String[] header = "10:00:01 CPU %user %nice %system".split(" ");
+    CompiledStat cpu = config.findStat(header, 1);
+    assertEquals("CPU", cpu.getName());
+    assertEquals(CompiledStat.MULTIPLE, cpu.getKind());
+    assertFalse(cpu.canDuplicateTime());
+
+    CompiledStat load = config.findStat("10:00:01 runq-sz plist-sz".split(" "), 1);
+    assertEquals(CompiledStat.NO_GRAPH, load.getKind());
+    assertTrue(load.canDuplicateTime());
+    assertEquals("LOAD", config.getStat("10:00:01 runq-sz plist-sz".split(" "), 1));
+  }
+
+  @Test
+  public void ignoresDataLines() {
+    OSConfig config = config();
+    assertNull(config.findStat("10:00:01 all 1.0 0.0 2.0".split(" "), 1));
+    assertNull(config.findStat("10:00:01 CPU %user %nice".split(" "), 1));
+    assertNull(config.findStat("10:00:01".split(" "), 1));
+  }
+
+  @Test
+  public void recompilesWhenStatsAreAdded() {
+    OSConfig config = config();
+    assertNull(config.findStat("10:00:01 kbmemfree".split(" "), 1));
+    StatConfig mem = new StatConfig("mem");
+    mem.setGraphName("MEM");
+    mem.setHeaderStr("kbmemfree");
+    config.addStat(mem);
+    assertEquals("MEM", config.findStat("10:00:01 kbmemfree".split(" "), 1).getName());
+  }
+}